@@ -1,19 +1,84 @@
+import src.api.ServidorApi;
+import src.dao.ConexaoDB;
+import src.dao.MigradorSchema;
+import src.service.ConsolidacaoCirculacao;
+import src.service.VarreduraAtrasos;
 import src.ui.BibliotecaUI;
 
+import java.time.LocalDate;
+
 /**
  * Classe principal que inicia a aplicação de gerenciamento da biblioteca.
+ *
+ * Com o argumento {@code --reconstruir-circulacao [AAAA-MM-DD]}, refaz a consolidação
+ * diária da circulação a partir da data informada (ou do primeiro empréstimo) e encerra.
+ * Com {@code --somente-api}, atende apenas a API HTTP, sem a interface de terminal.
  */
 public class Main {
     public static void main(String[] args) {
         System.out.println("Iniciando Sistema de Gerenciamento da Biblioteca...");
         
+        VarreduraAtrasos varreduraAtrasos = null;
+        ConsolidacaoCirculacao consolidacaoCirculacao = null;
+        ServidorApi servidorApi = null;
+        
         try {
+            // Aplica as migrações pendentes do schema
+            try {
+                int aplicadas = new MigradorSchema().migrar();
+                if (aplicadas > 0) {
+                    System.out.println(aplicadas + " migração(ões) do schema aplicada(s).");
+                }
+            } catch (Exception e) {
+                System.err.println("Erro ao migrar o schema: " + e.getMessage());
+            }
+            
+            if (args.length > 0 && args[0].equals("--reconstruir-circulacao")) {
+                LocalDate inicio = args.length > 1 ? LocalDate.parse(args[1]) : null;
+                int dias = new ConsolidacaoCirculacao().reconstruir(inicio);
+                System.out.println(dias + " dia(s) de circulação consolidado(s).");
+                return;
+            }
+            
+            // Inicia a marcação periódica de empréstimos atrasados
+            varreduraAtrasos = new VarreduraAtrasos();
+            varreduraAtrasos.iniciar();
+            
+            // Inicia a consolidação periódica da circulação diária
+            consolidacaoCirculacao = new ConsolidacaoCirculacao();
+            consolidacaoCirculacao.iniciar();
+            
+            // Inicia a API HTTP dos terminais de autoatendimento
+            servidorApi = new ServidorApi();
+            servidorApi.iniciar();
+            
+            if (args.length > 0 && args[0].equals("--somente-api")) {
+                System.out.println("API HTTP em execução. Interrompa o processo para encerrar.");
+                final ServidorApi api = servidorApi;
+                Runtime.getRuntime().addShutdownHook(new Thread(api::parar));
+                api.aguardarEncerramento();
+                return;
+            }
+            
             // Inicia a interface do usuário
             BibliotecaUI ui = new BibliotecaUI();
             ui.iniciar();
         } catch (Exception e) {
             System.err.println("Erro ao iniciar o sistema: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            if (servidorApi != null) {
+                servidorApi.parar();
+            }
+            if (varreduraAtrasos != null) {
+                varreduraAtrasos.parar();
+            }
+            if (consolidacaoCirculacao != null) {
+                consolidacaoCirculacao.parar();
+            }
+            
+            // Libera as conexões do pool
+            ConexaoDB.fecharConexao();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+-- Índices compostos alinhados às consultas mais frequentes.
+-- Criados com ALGORITHM=INPLACE, LOCK=NONE para não bloquear leituras e escritas
+-- durante a construção. Os índices simples substituídos são removidos em seguida,
+-- pois são prefixos dos novos (inclusive para as chaves estrangeiras).
+
+-- emprestimos:
+--   status + data_devolucao_prevista: ativos/atrasados ordenados pela data prevista e a varredura de atrasos
+--   aluno_id/livro_id + data_emprestimo: histórico por aluno e por livro, do mais recente ao mais antigo
+--   data_emprestimo: listagem geral e paginação por (data_emprestimo, id)
+ALTER TABLE emprestimos
+    ADD INDEX idx_emprestimos_status_prevista (status, data_devolucao_prevista),
+    ADD INDEX idx_emprestimos_aluno_data (aluno_id, data_emprestimo),
+    ADD INDEX idx_emprestimos_livro_data (livro_id, data_emprestimo),
+    ADD INDEX idx_emprestimos_data (data_emprestimo),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE emprestimos
+    DROP INDEX idx_emprestimos_status,
+    DROP INDEX idx_emprestimos_aluno,
+    DROP INDEX idx_emprestimos_livro,
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- livros:
+--   titulo + quantidade_disponivel: ordenação por título, com o filtro de disponíveis resolvido no próprio índice
+--   autor + titulo: busca por autor ordenada por (autor, titulo, id)
+ALTER TABLE livros
+    ADD INDEX idx_livros_titulo_disponivel (titulo, quantidade_disponivel),
+    ADD INDEX idx_livros_autor_titulo (autor, titulo),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- alunos:
+--   nome: listagem e paginação por (nome, id)
+ALTER TABLE alunos
+    ADD INDEX idx_alunos_nome (nome),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,8 @@
+-- Índices FULLTEXT para a busca no catálogo (MATCH ... AGAINST).
+-- O MATCH precisa usar exatamente as colunas de um índice, por isso há um índice
+-- para a busca combinada e um para cada coluna.
+-- O InnoDB cria um índice FULLTEXT por comando; o primeiro reconstrói a tabela
+-- (coluna interna FTS_DOC_ID), permitindo leituras mas não escritas durante a construção.
+ALTER TABLE livros ADD FULLTEXT INDEX ft_livros_titulo_autor (titulo, autor), ALGORITHM=INPLACE, LOCK=SHARED;
+ALTER TABLE livros ADD FULLTEXT INDEX ft_livros_titulo (titulo), ALGORITHM=INPLACE, LOCK=SHARED;
+ALTER TABLE livros ADD FULLTEXT INDEX ft_livros_autor (autor), ALGORITHM=INPLACE, LOCK=SHARED;
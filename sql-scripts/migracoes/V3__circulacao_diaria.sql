@@ -0,0 +1,26 @@
+-- Consolidação diária da circulação, mantida pela tarefa ConsolidacaoCirculacao.
+-- Uma linha por dia e por chave de cada dimensão:
+--   GERAL  - chave vazia, totais da biblioteca
+--   LIVRO  - chave = ID do livro
+--   COORTE - chave = prefixo de 4 caracteres da matrícula (ano de ingresso)
+-- emprestimos/devolucoes contam os eventos do dia; ativos/atrasados são a posição
+-- no fim do dia. Linhas de LIVRO e COORTE só existem em dias com eventos ou com
+-- empréstimos em aberto.
+CREATE TABLE IF NOT EXISTS circulacao_diaria (
+    dia DATE NOT NULL,
+    dimensao ENUM('GERAL', 'LIVRO', 'COORTE') NOT NULL,
+    chave VARCHAR(20) NOT NULL DEFAULT '',
+    emprestimos INT NOT NULL DEFAULT 0,
+    devolucoes INT NOT NULL DEFAULT 0,
+    devolucoes_atrasadas INT NOT NULL DEFAULT 0,
+    ativos INT NOT NULL DEFAULT 0,
+    atrasados INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimensao, chave, dia),
+    INDEX idx_circulacao_dia (dia, dimensao)
+);
+
+-- Intervalos de devolução usados na consolidação de cada dia
+ALTER TABLE emprestimos
+    ADD INDEX idx_emprestimos_devolucao_efetiva (data_devolucao_efetiva),
+    ADD INDEX idx_emprestimos_prevista (data_devolucao_prevista),
+    ALGORITHM=INPLACE, LOCK=NONE;
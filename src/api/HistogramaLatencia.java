@@ -0,0 +1,90 @@
+package src.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências para o cálculo de percentis, seguro para várias threads e sem
+ * bloqueios.
+ *
+ * Os valores, em microssegundos, são contados em faixas log-lineares: valores até 15 µs
+ * têm faixa própria e cada potência de 2 acima disso é dividida em 16 faixas, o que limita
+ * o erro de um percentil a 1/16 (6,25%) com memória fixa, qualquer que seja o número de
+ * requisições.
+ */
+final class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 4;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int TOTAL_FAIXAS = (64 - BITS_SUBFAIXA + 1) * SUBFAIXAS;
+
+    private final AtomicLongArray faixas = new AtomicLongArray(TOTAL_FAIXAS);
+    private final AtomicLong contagem = new AtomicLong();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    /**
+     * Registra a duração de uma requisição.
+     * @param nanos a duração, em nanossegundos
+     */
+    void registrar(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        faixas.incrementAndGet(faixa(micros));
+        contagem.incrementAndGet();
+        maximoMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * @return o número de durações registradas
+     */
+    long getContagem() {
+        return contagem.get();
+    }
+
+    /**
+     * @return a maior duração registrada, em milissegundos
+     */
+    double getMaximoMs() {
+        return maximoMicros.get() / 1000.0;
+    }
+
+    /**
+     * Calcula um percentil das durações registradas.
+     * @param percentil o percentil, entre 0 e 100
+     * @return o limite superior da faixa que contém o percentil, em milissegundos, ou 0 se
+     *         nada foi registrado
+     */
+    double percentilMs(double percentil) {
+        long total = contagem.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            acumulado += faixas.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximoMicros.get()) / 1000.0;
+            }
+        }
+        return getMaximoMs();
+    }
+
+    private static int faixa(long micros) {
+        if (micros < SUBFAIXAS) {
+            return (int) micros;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(micros);
+        int subfaixa = (int) (micros >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    private static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int expoente = faixa / SUBFAIXAS + BITS_SUBFAIXA - 1;
+        long inicio = (long) (SUBFAIXAS + faixa % SUBFAIXAS) << (expoente - BITS_SUBFAIXA);
+        return inicio + (1L << (expoente - BITS_SUBFAIXA)) - 1;
+    }
+}
@@ -0,0 +1,249 @@
+package src.api;
+
+import src.service.ExportadorRelatorios;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversão mínima entre JSON e objetos Java para a API HTTP, sem dependências externas.
+ *
+ * A escrita aceita Map, Collection, String, Number, Boolean, Enum, Timestamp (ISO-8601)
+ * e null. A leitura aceita apenas objetos planos (sem objetos ou listas aninhados), que
+ * é o formato de todos os corpos de requisição da API.
+ */
+final class Json {
+    private Json() {
+    }
+
+    /**
+     * Serializa um valor em JSON.
+     * @param valor o valor
+     * @return o texto JSON
+     */
+    static String escrever(Object valor) {
+        StringBuilder sb = new StringBuilder(256);
+        escrever(sb, valor);
+        return sb.toString();
+    }
+
+    private static void escrever(StringBuilder sb, Object valor) {
+        if (valor == null) {
+            sb.append("null");
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            sb.append(valor);
+        } else if (valor instanceof Map) {
+            sb.append('{');
+            boolean primeiro = true;
+            for (Map.Entry<?, ?> entrada : ((Map<?, ?>) valor).entrySet()) {
+                if (!primeiro) {
+                    sb.append(',');
+                }
+                primeiro = false;
+                escreverTexto(sb, String.valueOf(entrada.getKey()));
+                sb.append(':');
+                escrever(sb, entrada.getValue());
+            }
+            sb.append('}');
+        } else if (valor instanceof Collection) {
+            sb.append('[');
+            boolean primeiro = true;
+            for (Object item : (Collection<?>) valor) {
+                if (!primeiro) {
+                    sb.append(',');
+                }
+                primeiro = false;
+                escrever(sb, item);
+            }
+            sb.append(']');
+        } else if (valor instanceof Timestamp) {
+            escreverTexto(sb, ((Timestamp) valor).toLocalDateTime().toString());
+        } else if (valor instanceof Enum) {
+            escreverTexto(sb, ((Enum<?>) valor).name());
+        } else {
+            escreverTexto(sb, valor.toString());
+        }
+    }
+
+    private static void escreverTexto(StringBuilder sb, String texto) {
+        try {
+            ExportadorRelatorios.escreverTextoJson(sb, texto);
+        } catch (IOException e) {
+            // StringBuilder não lança IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lê um objeto JSON plano.
+     * @param texto o texto JSON
+     * @return os campos do objeto, na ordem do texto; números inteiros como Long e os
+     *         demais como Double
+     * @throws IllegalArgumentException se o texto não for um objeto JSON plano válido
+     */
+    static Map<String, Object> lerObjeto(String texto) {
+        Leitor leitor = new Leitor(texto);
+        Map<String, Object> campos = new LinkedHashMap<>();
+
+        leitor.esperar('{');
+        if (!leitor.consumir('}')) {
+            do {
+                String nome = leitor.lerTexto();
+                leitor.esperar(':');
+                campos.put(nome, leitor.lerValor());
+            } while (leitor.consumir(','));
+            leitor.esperar('}');
+        }
+
+        if (!leitor.fim()) {
+            throw leitor.erro("conteúdo após o fim do objeto");
+        }
+        return campos;
+    }
+
+    /**
+     * Analisador de um único texto JSON.
+     */
+    private static final class Leitor {
+        private final String texto;
+        private int posicao;
+
+        Leitor(String texto) {
+            this.texto = texto;
+        }
+
+        Object lerValor() {
+            pularEspacos();
+            if (posicao >= texto.length()) {
+                throw erro("valor esperado");
+            }
+
+            char c = texto.charAt(posicao);
+            if (c == '"') {
+                return lerTexto();
+            }
+            if (texto.startsWith("null", posicao)) {
+                posicao += 4;
+                return null;
+            }
+            if (texto.startsWith("true", posicao)) {
+                posicao += 4;
+                return Boolean.TRUE;
+            }
+            if (texto.startsWith("false", posicao)) {
+                posicao += 5;
+                return Boolean.FALSE;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return lerNumero();
+            }
+            throw erro("valor não suportado");
+        }
+
+        String lerTexto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (posicao < texto.length()) {
+                char c = texto.charAt(posicao++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (posicao >= texto.length()) {
+                    break;
+                }
+                char escape = texto.charAt(posicao++);
+                switch (escape) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(escape);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (posicao + 4 > texto.length()) {
+                            throw erro("escape \\u incompleto");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(texto.substring(posicao, posicao + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw erro("escape \\u inválido");
+                        }
+                        posicao += 4;
+                        break;
+                    default:
+                        throw erro("escape inválido");
+                }
+            }
+            throw erro("texto não terminado");
+        }
+
+        private Object lerNumero() {
+            int inicio = posicao;
+            while (posicao < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(posicao)) >= 0) {
+                posicao++;
+            }
+
+            String numero = texto.substring(inicio, posicao);
+            try {
+                if (numero.indexOf('.') < 0 && numero.indexOf('e') < 0 && numero.indexOf('E') < 0) {
+                    return Long.parseLong(numero);
+                }
+                return Double.parseDouble(numero);
+            } catch (NumberFormatException e) {
+                throw erro("número inválido");
+            }
+        }
+
+        void esperar(char c) {
+            if (!consumir(c)) {
+                throw erro("'" + c + "' esperado");
+            }
+        }
+
+        boolean consumir(char c) {
+            pularEspacos();
+            if (posicao < texto.length() && texto.charAt(posicao) == c) {
+                posicao++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean fim() {
+            pularEspacos();
+            return posicao >= texto.length();
+        }
+
+        private void pularEspacos() {
+            while (posicao < texto.length() && Character.isWhitespace(texto.charAt(posicao))) {
+                posicao++;
+            }
+        }
+
+        IllegalArgumentException erro(String motivo) {
+            return new IllegalArgumentException("JSON inválido na posição " + posicao + ": " + motivo);
+        }
+    }
+}
@@ -0,0 +1,671 @@
+package src.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import src.dao.ConexaoDB;
+import src.dao.Pagina;
+import src.dao.PoolConexoes;
+import src.model.Aluno;
+import src.model.Emprestimo;
+import src.model.ErroNegocio;
+import src.model.Livro;
+import src.service.AlunoService;
+import src.service.EmprestimoService;
+import src.service.LivroService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * API HTTP com respostas em JSON sobre AlunoService, LivroService e EmprestimoService,
+ * para os terminais de autoatendimento.
+ *
+ * Usa o HttpServer do JDK. Em Java 21 ou superior cada requisição roda em uma thread
+ * virtual; em versões anteriores, em um pool de threads de plataforma. O acesso ao banco
+ * continua limitado pelo pool de conexões: requisições além de MYSQL_POOL_MAXIMO esperam
+ * uma conexão livre por até MYSQL_POOL_ESPERA_MS e, esgotado o tempo, recebem 503.
+ * Os percentis de latência de cada rota ficam em GET /api/metricas.
+ *
+ * Configuração pelas variáveis de ambiente BIBLIOTECA_API_PORTA (padrão 8080; 0
+ * desativa) e BIBLIOTECA_API_THREADS (padrão 200, usada só sem threads virtuais).
+ */
+public class ServidorApi {
+    // Tamanho máximo aceito para o corpo de uma requisição
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+    // Conexões aguardando aceitação pelo servidor
+    private static final int FILA_CONEXOES = 512;
+    private static final int LIMITE_PADRAO = 50;
+    // Limita o número de rotas distintas com histograma próprio
+    private static final int MAXIMO_ROTAS = 256;
+
+    private final AlunoService alunoService;
+    private final LivroService livroService;
+    private final EmprestimoService emprestimoService;
+    private final int porta;
+    private final int threadsPlataforma;
+    private HttpServer servidor;
+    private ExecutorService executor;
+    private volatile boolean threadsVirtuais;
+    private final CountDownLatch encerramento = new CountDownLatch(1);
+
+    // Métricas
+    private final AtomicLong requisicoes = new AtomicLong();
+    private final AtomicLong errosServidor = new AtomicLong();
+    private final HistogramaLatencia latenciaGeral = new HistogramaLatencia();
+    private final Map<String, HistogramaLatencia> latenciaPorRota = new ConcurrentHashMap<>();
+
+    public ServidorApi() {
+        this(ConexaoDB.lerInteiro("BIBLIOTECA_API_PORTA", 8080), ConexaoDB.lerInteiro("BIBLIOTECA_API_THREADS", 200));
+    }
+
+    public ServidorApi(int porta, int threadsPlataforma) {
+        this.alunoService = new AlunoService();
+        this.livroService = new LivroService();
+        this.emprestimoService = new EmprestimoService();
+        this.porta = porta;
+        this.threadsPlataforma = Math.max(1, threadsPlataforma);
+    }
+
+    /**
+     * Abre a porta e começa a atender requisições. Não faz nada se a porta configurada
+     * for zero ou se já estiver em execução.
+     * @throws IOException se a porta não puder ser aberta
+     */
+    public synchronized void iniciar() throws IOException {
+        if (porta <= 0 || servidor != null) {
+            return;
+        }
+
+        HttpServer novo = HttpServer.create(new InetSocketAddress(porta), FILA_CONEXOES);
+        novo.createContext("/api/alunos", troca -> atender(troca, "/api/alunos", this::tratarAlunos));
+        novo.createContext("/api/livros", troca -> atender(troca, "/api/livros", this::tratarLivros));
+        novo.createContext("/api/emprestimos", troca -> atender(troca, "/api/emprestimos", this::tratarEmprestimos));
+        novo.createContext("/api/metricas", troca -> atender(troca, "/api/metricas", this::tratarMetricas));
+
+        executor = criarExecutor();
+        novo.setExecutor(executor);
+        novo.start();
+        servidor = novo;
+    }
+
+    /**
+     * Para de aceitar requisições, aguardando até 1 segundo pelas que estão em andamento.
+     */
+    public synchronized void parar() {
+        if (servidor != null) {
+            servidor.stop(1);
+            executor.shutdown();
+            servidor = null;
+            executor = null;
+        }
+        encerramento.countDown();
+    }
+
+    /**
+     * Bloqueia a thread atual até {@link #parar()} ser chamado.
+     * @throws InterruptedException se a thread for interrompida durante a espera
+     */
+    public void aguardarEncerramento() throws InterruptedException {
+        encerramento.await();
+    }
+
+    /**
+     * Cria o executor das requisições: uma thread virtual por requisição quando disponível
+     * (Java 21+, obtido por reflexão para manter a compilação em Java 11) ou um pool fixo
+     * de threads de plataforma.
+     */
+    private ExecutorService criarExecutor() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService virtual = (ExecutorService) fabrica.invoke(null);
+            threadsVirtuais = true;
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            threadsVirtuais = false;
+            AtomicInteger contador = new AtomicInteger();
+            return Executors.newFixedThreadPool(threadsPlataforma, r -> {
+                Thread t = new Thread(r, "api-http-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ===== DESPACHO =====
+
+    /**
+     * Trata uma rota a partir dos segmentos do caminho após o contexto.
+     */
+    private interface Tratador {
+        Resposta tratar(HttpExchange troca, List<String> caminho) throws Exception;
+    }
+
+    /**
+     * Status HTTP e corpo (serializado em JSON) de uma resposta.
+     */
+    private static final class Resposta {
+        private final int status;
+        private final Object corpo;
+
+        Resposta(int status, Object corpo) {
+            this.status = status;
+            this.corpo = corpo;
+        }
+    }
+
+    /**
+     * Erro com status HTTP definido pela própria API (requisição malformada, recurso
+     * inexistente, método não suportado).
+     */
+    private static final class ErroHttp extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ErroHttp(int status, String mensagem) {
+            super(mensagem);
+            this.status = status;
+        }
+    }
+
+    private void atender(HttpExchange troca, String contexto, Tratador tratador) {
+        long inicio = System.nanoTime();
+        List<String> caminho = segmentos(troca.getRequestURI().getRawPath(), contexto);
+        Resposta resposta;
+
+        try {
+            resposta = tratador.tratar(troca, caminho);
+        } catch (Exception e) {
+            if (e instanceof CompletionException && e.getCause() instanceof Exception) {
+                // Falha de uma operação assíncrona dos serviços
+                e = (Exception) e.getCause();
+            }
+            int status = statusDoErro(e);
+            if (status >= 500) {
+                errosServidor.incrementAndGet();
+                System.err.println("Erro na requisição " + troca.getRequestMethod() + " " +
+                                   troca.getRequestURI() + ": " + e.getMessage());
+            }
+            if (status == 503) {
+                troca.getResponseHeaders().set("Retry-After", "1");
+            }
+            resposta = new Resposta(status, Collections.singletonMap("erro",
+                    status == 500 ? "Erro interno do servidor" : e.getMessage()));
+        }
+
+        try {
+            enviar(troca, resposta);
+        } catch (IOException e) {
+            System.err.println("Erro ao enviar resposta HTTP: " + e.getMessage());
+        } finally {
+            troca.close();
+
+            long duracao = System.nanoTime() - inicio;
+            requisicoes.incrementAndGet();
+            latenciaGeral.registrar(duracao);
+            histogramaDaRota(troca.getRequestMethod() + " " + contexto + rotaNormalizada(caminho)).registrar(duracao);
+        }
+    }
+
+    /**
+     * Status HTTP de um erro: 404 ou 409 para as regras de negócio (ErroNegocio de registro
+     * inexistente ou de conflito, ex.: livro indisponível), 503 se o banco está
+     * temporariamente indisponível (pool esgotado), 500 para os demais erros de banco e
+     * exceções inesperadas e 400 para as validações dos serviços.
+     */
+    private static int statusDoErro(Exception e) {
+        if (e instanceof ErroHttp) {
+            return ((ErroHttp) e).status;
+        }
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ErroNegocio) {
+                return ((ErroNegocio) causa).getTipo() == ErroNegocio.Tipo.NAO_ENCONTRADO ? 404 : 409;
+            }
+            if (causa instanceof SQLTransientException) {
+                return 503;
+            }
+            if (causa instanceof SQLException) {
+                return 500;
+            }
+        }
+        return e instanceof RuntimeException && !(e instanceof IllegalArgumentException) ? 500 : 400;
+    }
+
+    private static void enviar(HttpExchange troca, Resposta resposta) throws IOException {
+        byte[] corpo = Json.escrever(resposta.corpo).getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(resposta.status, corpo.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+
+    // ===== ROTAS =====
+
+    private Resposta tratarAlunos(HttpExchange troca, List<String> caminho) throws Exception {
+        String metodo = troca.getRequestMethod();
+        Map<String, String> parametros = parametros(troca);
+
+        if (caminho.isEmpty()) {
+            if (metodo.equals("GET")) {
+                if (parametros.containsKey("matricula")) {
+                    return encontrado(alunoService.buscarAlunoPorMatricula(parametros.get("matricula")), this::alunoJson);
+                }
+                String token = parametros.get("token");
+                int limite = limite(parametros);
+                Pagina<Aluno> pagina = parametros.containsKey("nome")
+                        ? alunoService.buscarAlunosPorNomePaginado(parametros.get("nome"), token, limite)
+                        : alunoService.listarAlunosPaginado(token, limite);
+                return new Resposta(200, paginaJson(pagina, this::alunoJson));
+            }
+            if (metodo.equals("POST")) {
+                Map<String, Object> campos = lerCorpo(troca);
+                Aluno aluno = new Aluno(texto(campos, "nome"), texto(campos, "matricula"),
+                                        texto(campos, "email"), texto(campos, "telefone"));
+                return new Resposta(201, alunoJson(alunoService.cadastrarAluno(aluno)));
+            }
+            throw metodoNaoPermitido(metodo);
+        }
+
+        int id = id(caminho.get(0));
+        if (caminho.size() == 1) {
+            exigirGet(metodo);
+            return encontrado(alunoService.buscarAlunoPorId(id), this::alunoJson);
+        }
+        if (caminho.size() == 2 && caminho.get(1).equals("emprestimos")) {
+            exigirGet(metodo);
+            long agora = Emprestimo.agora();
+            return new Resposta(200, listaJson(emprestimoService.listarEmprestimosPorAluno(id),
+                                               e -> emprestimoJson(e, agora)));
+        }
+        throw naoEncontrado();
+    }
+
+    private Resposta tratarLivros(HttpExchange troca, List<String> caminho) throws Exception {
+        String metodo = troca.getRequestMethod();
+        Map<String, String> parametros = parametros(troca);
+
+        if (caminho.isEmpty()) {
+            if (metodo.equals("GET")) {
+                if (parametros.containsKey("isbn")) {
+                    return encontrado(livroService.buscarLivroPorIsbn(parametros.get("isbn")), this::livroJson);
+                }
+                int limite = limite(parametros);
+                if (parametros.containsKey("q")) {
+                    return new Resposta(200, listaJson(livroService.buscarLivrosPorTexto(parametros.get("q"), limite),
+                                                       this::livroJson));
+                }
+                if (parametros.containsKey("expressao")) {
+                    return new Resposta(200, listaJson(livroService.buscarLivrosPorExpressao(parametros.get("expressao"),
+                                                                                            limite), this::livroJson));
+                }
+                String token = parametros.get("token");
+                Pagina<Livro> pagina;
+                if (parametros.containsKey("titulo")) {
+                    pagina = livroService.buscarLivrosPorTituloPaginado(parametros.get("titulo"), token, limite);
+                } else if (parametros.containsKey("autor")) {
+                    pagina = livroService.buscarLivrosPorAutorPaginado(parametros.get("autor"), token, limite);
+                } else {
+                    pagina = livroService.listarLivrosPaginado(token, limite);
+                }
+                return new Resposta(200, paginaJson(pagina, this::livroJson));
+            }
+            if (metodo.equals("POST")) {
+                Map<String, Object> campos = lerCorpo(troca);
+                Integer ano = inteiro(campos, "anoPublicacao");
+                Integer quantidade = inteiro(campos, "quantidadeTotal");
+                Livro livro = new Livro(texto(campos, "titulo"), texto(campos, "autor"), texto(campos, "editora"),
+                                        ano != null ? ano : 0, texto(campos, "isbn"),
+                                        quantidade != null ? quantidade : 0);
+                return new Resposta(201, livroJson(livroService.cadastrarLivro(livro)));
+            }
+            throw metodoNaoPermitido(metodo);
+        }
+
+        int id = id(caminho.get(0));
+        if (caminho.size() == 1) {
+            exigirGet(metodo);
+            return encontrado(livroService.buscarLivroPorId(id), this::livroJson);
+        }
+        if (caminho.size() == 2 && caminho.get(1).equals("emprestimos")) {
+            exigirGet(metodo);
+            long agora = Emprestimo.agora();
+            return new Resposta(200, listaJson(emprestimoService.listarEmprestimosPorLivro(id),
+                                               e -> emprestimoJson(e, agora)));
+        }
+        throw naoEncontrado();
+    }
+
+    private Resposta tratarEmprestimos(HttpExchange troca, List<String> caminho) throws Exception {
+        String metodo = troca.getRequestMethod();
+        Map<String, String> parametros = parametros(troca);
+        long agora = Emprestimo.agora();
+
+        if (caminho.isEmpty()) {
+            if (metodo.equals("GET")) {
+                String status = parametros.get("status");
+                String token = parametros.get("token");
+                int limite = limite(parametros);
+                Pagina<Emprestimo> pagina;
+                if (status == null) {
+                    pagina = emprestimoService.listarEmprestimosPaginado(token, limite);
+                } else if (status.equals("ativos")) {
+                    pagina = emprestimoService.listarEmprestimosAtivosPaginado(token, limite);
+                } else if (status.equals("atrasados")) {
+                    pagina = emprestimoService.listarEmprestimosAtrasadosPaginado(token, limite);
+                } else {
+                    throw new ErroHttp(400, "Status inválido: use ativos ou atrasados");
+                }
+                return new Resposta(200, paginaJson(pagina, e -> emprestimoJson(e, agora)));
+            }
+            if (metodo.equals("POST")) {
+                Map<String, Object> campos = lerCorpo(troca);
+                Emprestimo emprestimo;
+                if (campos.containsKey("matricula") || campos.containsKey("isbn")) {
+                    // Terminal com leitor: aluno e livro são buscados ao mesmo tempo
+                    emprestimo = emprestimoService.realizarEmprestimoPorCodigosAsync(texto(campos, "matricula"),
+                            texto(campos, "isbn"), inteiro(campos, "dias")).join();
+                } else {
+                    Integer alunoId = inteiro(campos, "alunoId");
+                    Integer livroId = inteiro(campos, "livroId");
+                    emprestimo = emprestimoService.realizarEmprestimo(alunoId != null ? alunoId : 0,
+                                                                      livroId != null ? livroId : 0,
+                                                                      inteiro(campos, "dias"));
+                }
+                return new Resposta(201, emprestimoJson(emprestimo, agora));
+            }
+            throw metodoNaoPermitido(metodo);
+        }
+
+        int id = id(caminho.get(0));
+        if (caminho.size() == 1) {
+            exigirGet(metodo);
+            return encontrado(emprestimoService.buscarEmprestimoPorId(id), e -> emprestimoJson(e, agora));
+        }
+        if (caminho.size() == 2 && caminho.get(1).equals("devolucao")) {
+            if (!metodo.equals("POST")) {
+                throw metodoNaoPermitido(metodo);
+            }
+            return new Resposta(200, emprestimoJson(emprestimoService.registrarDevolucao(id), agora));
+        }
+        throw naoEncontrado();
+    }
+
+    private Resposta tratarMetricas(HttpExchange troca, List<String> caminho) throws Exception {
+        if (!caminho.isEmpty()) {
+            throw naoEncontrado();
+        }
+        exigirGet(troca.getRequestMethod());
+
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("executor", threadsVirtuais ? "threads virtuais" : "pool de " + threadsPlataforma + " threads");
+        metricas.put("requisicoes", requisicoes.get());
+        metricas.put("errosServidor", errosServidor.get());
+
+        PoolConexoes pool = ConexaoDB.getPool();
+        Map<String, Object> conexoes = new LinkedHashMap<>();
+        conexoes.put("emUso", pool.getConexoesEmUso());
+        conexoes.put("ociosas", pool.getConexoesOciosas());
+        metricas.put("conexoes", conexoes);
+
+        Map<String, Object> latencias = new LinkedHashMap<>();
+        latencias.put("geral", percentisJson(latenciaGeral));
+        for (Map.Entry<String, HistogramaLatencia> rota : new TreeMap<>(latenciaPorRota).entrySet()) {
+            latencias.put(rota.getKey(), percentisJson(rota.getValue()));
+        }
+        metricas.put("latencia", latencias);
+
+        return new Resposta(200, metricas);
+    }
+
+    // ===== REQUISIÇÃO =====
+
+    private static List<String> segmentos(String caminhoBruto, String contexto) {
+        List<String> segmentos = new ArrayList<>();
+        for (String segmento : caminhoBruto.substring(Math.min(contexto.length(), caminhoBruto.length())).split("/")) {
+            if (!segmento.isEmpty()) {
+                segmentos.add(URLDecoder.decode(segmento, StandardCharsets.UTF_8));
+            }
+        }
+        return segmentos;
+    }
+
+    private static Map<String, String> parametros(HttpExchange troca) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String nome = URLDecoder.decode(igual >= 0 ? par.substring(0, igual) : par, StandardCharsets.UTF_8);
+            String valor = igual >= 0 ? URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8) : "";
+            parametros.putIfAbsent(nome, valor);
+        }
+        return parametros;
+    }
+
+    private static Map<String, Object> lerCorpo(HttpExchange troca) throws ErroHttp, IOException {
+        byte[] corpo;
+        try (InputStream entrada = troca.getRequestBody()) {
+            corpo = entrada.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+        }
+        if (corpo.length > TAMANHO_MAXIMO_CORPO) {
+            throw new ErroHttp(413, "Corpo da requisição maior que " + TAMANHO_MAXIMO_CORPO + " bytes");
+        }
+        if (corpo.length == 0) {
+            throw new ErroHttp(400, "Corpo da requisição vazio");
+        }
+        return Json.lerObjeto(new String(corpo, StandardCharsets.UTF_8));
+    }
+
+    private static String texto(Map<String, Object> campos, String nome) throws ErroHttp {
+        Object valor = campos.get(nome);
+        if (valor != null && !(valor instanceof String)) {
+            throw new ErroHttp(400, "O campo " + nome + " deve ser um texto");
+        }
+        return (String) valor;
+    }
+
+    private static Integer inteiro(Map<String, Object> campos, String nome) throws ErroHttp {
+        Object valor = campos.get(nome);
+        if (valor == null) {
+            return null;
+        }
+        if (!(valor instanceof Long) || (Long) valor < Integer.MIN_VALUE || (Long) valor > Integer.MAX_VALUE) {
+            throw new ErroHttp(400, "O campo " + nome + " deve ser um número inteiro");
+        }
+        return ((Long) valor).intValue();
+    }
+
+    private static int id(String segmento) throws ErroHttp {
+        try {
+            return Integer.parseInt(segmento);
+        } catch (NumberFormatException e) {
+            throw naoEncontrado();
+        }
+    }
+
+    private static int limite(Map<String, String> parametros) throws ErroHttp {
+        String valor = parametros.get("limite");
+        if (valor == null) {
+            return LIMITE_PADRAO;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new ErroHttp(400, "Limite inválido: " + valor);
+        }
+    }
+
+    private static void exigirGet(String metodo) throws ErroHttp {
+        if (!metodo.equals("GET")) {
+            throw metodoNaoPermitido(metodo);
+        }
+    }
+
+    private static ErroHttp metodoNaoPermitido(String metodo) {
+        return new ErroHttp(405, "Método não permitido: " + metodo);
+    }
+
+    private static ErroHttp naoEncontrado() {
+        return new ErroHttp(404, "Recurso não encontrado");
+    }
+
+    // ===== RESPOSTA =====
+
+    private static <T> Resposta encontrado(T entidade, Function<T, Object> conversor) throws ErroHttp {
+        if (entidade == null) {
+            throw naoEncontrado();
+        }
+        return new Resposta(200, conversor.apply(entidade));
+    }
+
+    private static <T> List<Object> listaJson(List<T> itens, Function<T, Object> conversor) {
+        List<Object> lista = new ArrayList<>(itens.size());
+        for (T item : itens) {
+            lista.add(conversor.apply(item));
+        }
+        return lista;
+    }
+
+    private static <T> Map<String, Object> paginaJson(Pagina<T> pagina, Function<T, Object> conversor) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("itens", listaJson(pagina.getItens(), conversor));
+        json.put("proximoToken", pagina.getProximoToken());
+        return json;
+    }
+
+    private Map<String, Object> alunoJson(Aluno aluno) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", aluno.getId());
+        json.put("nome", aluno.getNome());
+        json.put("matricula", aluno.getMatricula());
+        json.put("email", aluno.getEmail());
+        json.put("telefone", aluno.getTelefone());
+        json.put("dataCadastro", aluno.getDataCadastro());
+        return json;
+    }
+
+    private Map<String, Object> livroJson(Livro livro) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", livro.getId());
+        json.put("titulo", livro.getTitulo());
+        json.put("autor", livro.getAutor());
+        json.put("editora", livro.getEditora());
+        json.put("anoPublicacao", livro.getAnoPublicacao());
+        json.put("isbn", livro.getIsbn());
+        json.put("quantidadeTotal", livro.getQuantidadeTotal());
+        json.put("quantidadeDisponivel", livro.getQuantidadeDisponivel());
+        json.put("dataCadastro", livro.getDataCadastro());
+        return json;
+    }
+
+    private Map<String, Object> emprestimoJson(Emprestimo emprestimo, long agora) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", emprestimo.getId());
+        json.put("alunoId", emprestimo.getAlunoId());
+        json.put("livroId", emprestimo.getLivroId());
+        json.put("dataEmprestimo", emprestimo.getDataEmprestimo());
+        json.put("dataDevolucaoPrevista", emprestimo.getDataDevolucaoPrevista());
+        json.put("dataDevolucaoEfetiva", emprestimo.getDataDevolucaoEfetiva());
+        json.put("status", emprestimo.getStatus());
+        json.put("diasAtraso", emprestimo.getDiasAtraso(agora));
+        if (emprestimo.getAluno() != null) {
+            json.put("aluno", alunoJson(emprestimo.getAluno()));
+        }
+        if (emprestimo.getLivro() != null) {
+            json.put("livro", livroJson(emprestimo.getLivro()));
+        }
+        return json;
+    }
+
+    // ===== MÉTRICAS =====
+
+    /**
+     * Rota com os IDs substituídos por {id}, para agrupar as latências por operação.
+     */
+    private static String rotaNormalizada(List<String> caminho) {
+        StringBuilder rota = new StringBuilder();
+        for (String segmento : caminho) {
+            rota.append('/').append(segmento.chars().allMatch(Character::isDigit) ? "{id}" : segmento);
+        }
+        return rota.toString();
+    }
+
+    private HistogramaLatencia histogramaDaRota(String rota) {
+        HistogramaLatencia histograma = latenciaPorRota.get(rota);
+        if (histograma == null) {
+            // Caminhos arbitrários não podem criar histogramas sem limite
+            histograma = latenciaPorRota.size() < MAXIMO_ROTAS
+                    ? latenciaPorRota.computeIfAbsent(rota, r -> new HistogramaLatencia())
+                    : latenciaPorRota.computeIfAbsent("outras", r -> new HistogramaLatencia());
+        }
+        return histograma;
+    }
+
+    private static Map<String, Object> percentisJson(HistogramaLatencia histograma) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("contagem", histograma.getContagem());
+        json.put("p50Ms", histograma.percentilMs(50));
+        json.put("p90Ms", histograma.percentilMs(90));
+        json.put("p99Ms", histograma.percentilMs(99));
+        json.put("maximoMs", histograma.getMaximoMs());
+        return json;
+    }
+
+    public long getRequisicoes() {
+        return requisicoes.get();
+    }
+
+    public long getErrosServidor() {
+        return errosServidor.get();
+    }
+
+    /**
+     * @param percentil o percentil, entre 0 e 100
+     * @return o percentil da latência de todas as requisições, em milissegundos
+     */
+    public double getLatenciaMs(double percentil) {
+        return latenciaGeral.percentilMs(percentil);
+    }
+
+    public boolean isThreadsVirtuais() {
+        return threadsVirtuais;
+    }
+
+    @Override
+    public String toString() {
+        return "ServidorApi{" +
+                "porta=" + porta +
+                ", threadsVirtuais=" + threadsVirtuais +
+                ", requisicoes=" + getRequisicoes() +
+                ", errosServidor=" + getErrosServidor() +
+                ", p50Ms=" + getLatenciaMs(50) +
+                ", p99Ms=" + getLatenciaMs(99) +
+                '}';
+    }
+}
@@ -3,17 +3,45 @@ package src.dao;
 import src.model.Aluno;
 
 import java.sql.*;
+import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Classe responsável pelas operações de acesso a dados para a entidade Aluno.
  */
 public class AlunoDAO {
-    private Connection conexao;
+    /**
+     * Resultado da gravação de cada aluno em {@link #gravarLote(List)}.
+     */
+    public enum ResultadoGravacao {
+        INSERIDO,
+        ATUALIZADO,
+        // A matrícula já existia com os mesmos dados; nada foi gravado
+        INALTERADO
+    }
+
+    // Colunas lidas de alunos, na ordem esperada por mapear(ResultSet, int)
+    static final String COLUNAS = "id, nome, matricula, email, telefone, data_cadastro";
+    static final int TOTAL_COLUNAS = 6;
+
+    // Cache das buscas por ID e matrícula, compartilhado por todas as instâncias do DAO
+    private static final CacheEntidades<Aluno> CACHE = new CacheEntidades<>("alunos",
+            ConexaoDB.lerInteiro("BIBLIOTECA_CACHE_ALUNOS_BYTES", 8 * 1024 * 1024),
+            Aluno::getId, Aluno::getMatricula, AlunoDAO::estimarTamanho, AlunoDAO::copiar);
+
+    private PoolConexoes pool;
 
     public AlunoDAO() throws SQLException {
-        this.conexao = ConexaoDB.getConexao();
+        this.pool = ConexaoDB.getPool();
     }
 
     /**
@@ -25,7 +53,8 @@ public class AlunoDAO {
     public Aluno inserir(Aluno aluno) throws SQLException {
         String sql = "INSERT INTO alunos (nome, matricula, email, telefone) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, aluno.getNome());
             stmt.setString(2, aluno.getMatricula());
             stmt.setString(3, aluno.getEmail());
@@ -44,10 +73,10 @@ public class AlunoDAO {
                     throw new SQLException("Falha ao inserir aluno, nenhum ID obtido.");
                 }
             }
-            
-            // Busca o aluno completo (incluindo data de cadastro)
-            return buscarPorId(aluno.getId());
         }
+        
+        // Busca o aluno completo (incluindo data de cadastro)
+        return buscarPorId(aluno.getId());
     }
 
     /**
@@ -59,7 +88,8 @@ public class AlunoDAO {
     public boolean atualizar(Aluno aluno) throws SQLException {
         String sql = "UPDATE alunos SET nome = ?, matricula = ?, email = ?, telefone = ? WHERE id = ?";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, aluno.getNome());
             stmt.setString(2, aluno.getMatricula());
             stmt.setString(3, aluno.getEmail());
@@ -67,10 +97,171 @@ public class AlunoDAO {
             stmt.setInt(5, aluno.getId());
             
             int affectedRows = stmt.executeUpdate();
+            CACHE.invalidar(aluno.getId());
             return affectedRows > 0;
         }
     }
 
+    /**
+     * Insere ou atualiza vários alunos pela matrícula em uma única transação.
+     *
+     * As matrículas do lote são bloqueadas e comparadas com os dados informados: alunos
+     * sem alteração não são gravados, e os demais são enviados em lote com
+     * INSERT ... ON DUPLICATE KEY UPDATE. Email e telefone nulos mantêm o valor cadastrado.
+     * Os IDs (gerados ou existentes) são atribuídos aos alunos.
+     * @param alunos os alunos, com matrículas distintas
+     * @return o resultado de cada aluno, na ordem da lista
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public ResultadoGravacao[] gravarLote(List<Aluno> alunos) throws SQLException {
+        ResultadoGravacao[] resultados = new ResultadoGravacao[alunos.size()];
+        if (alunos.isEmpty()) {
+            return resultados;
+        }
+        
+        List<Integer> atualizados = new ArrayList<>();
+        
+        try (Connection conexao = pool.getConnection()) {
+            conexao.setAutoCommit(false);
+            try {
+                List<String> matriculas = new ArrayList<>();
+                for (Aluno aluno : alunos) {
+                    matriculas.add(aluno.getMatricula());
+                }
+                Map<String, Aluno> existentes = bloquearPorMatriculas(conexao, matriculas);
+                
+                List<Aluno> gravar = new ArrayList<>();
+                List<Aluno> inseridos = new ArrayList<>();
+                for (int i = 0; i < alunos.size(); i++) {
+                    Aluno aluno = alunos.get(i);
+                    Aluno atual = existentes.get(chaveMatricula(aluno.getMatricula()));
+                    
+                    if (atual == null) {
+                        resultados[i] = ResultadoGravacao.INSERIDO;
+                        gravar.add(aluno);
+                        inseridos.add(aluno);
+                        continue;
+                    }
+                    
+                    aluno.setId(atual.getId());
+                    if (aluno.getEmail() == null) {
+                        aluno.setEmail(atual.getEmail());
+                    }
+                    if (aluno.getTelefone() == null) {
+                        aluno.setTelefone(atual.getTelefone());
+                    }
+                    
+                    if (Objects.equals(aluno.getNome(), atual.getNome()) &&
+                        Objects.equals(aluno.getEmail(), atual.getEmail()) &&
+                        Objects.equals(aluno.getTelefone(), atual.getTelefone())) {
+                        resultados[i] = ResultadoGravacao.INALTERADO;
+                    } else {
+                        resultados[i] = ResultadoGravacao.ATUALIZADO;
+                        gravar.add(aluno);
+                        atualizados.add(aluno.getId());
+                    }
+                }
+                
+                gravarRegistros(conexao, gravar);
+                
+                // Os IDs gerados são lidos pela matrícula, já bloqueada por esta transação
+                if (!inseridos.isEmpty()) {
+                    List<String> novas = new ArrayList<>();
+                    for (Aluno aluno : inseridos) {
+                        novas.add(aluno.getMatricula());
+                    }
+                    Map<String, Aluno> gravados = bloquearPorMatriculas(conexao, novas);
+                    for (Aluno aluno : inseridos) {
+                        Aluno gravado = gravados.get(chaveMatricula(aluno.getMatricula()));
+                        if (gravado == null) {
+                            throw new SQLException("Falha ao gravar alunos, matrícula não encontrada após a inserção: " +
+                                                   aluno.getMatricula());
+                        }
+                        aluno.setId(gravado.getId());
+                    }
+                }
+                
+                conexao.commit();
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(true);
+            }
+        } finally {
+            for (Integer id : atualizados) {
+                CACHE.invalidar(id);
+            }
+        }
+        
+        return resultados;
+    }
+
+    private void gravarRegistros(Connection conexao, List<Aluno> alunos) throws SQLException {
+        if (alunos.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO alunos (nome, matricula, email, telefone) VALUES (?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE nome = VALUES(nome), email = VALUES(email), telefone = VALUES(telefone)";
+        
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (Aluno aluno : alunos) {
+                stmt.setString(1, aluno.getNome());
+                stmt.setString(2, aluno.getMatricula());
+                stmt.setString(3, aluno.getEmail());
+                stmt.setString(4, aluno.getTelefone());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Lê e bloqueia (SELECT ... FOR UPDATE) os alunos com as matrículas informadas, em
+     * ordem de matrícula para evitar deadlocks entre lotes concorrentes. Matrículas
+     * ausentes também ficam bloqueadas contra inserções concorrentes.
+     * @return mapa da matrícula normalizada ({@link #chaveMatricula(String)}) para o aluno
+     */
+    private Map<String, Aluno> bloquearPorMatriculas(Connection conexao, Collection<String> matriculas)
+            throws SQLException {
+        Map<String, Aluno> alunos = new HashMap<>();
+        List<String> lista = new ArrayList<>(new TreeSet<>(matriculas));
+        
+        for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+            List<String> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+            String sql = "SELECT " + COLUNAS + " FROM alunos WHERE matricula IN (" + UtilSql.placeholders(bloco.size()) + ") " +
+                         "ORDER BY matricula FOR UPDATE";
+            
+            try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+                for (int i = 0; i < bloco.size(); i++) {
+                    stmt.setString(i + 1, bloco.get(i));
+                }
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Aluno aluno = mapearResultSet(rs);
+                        alunos.put(chaveMatricula(aluno.getMatricula()), aluno);
+                    }
+                }
+            }
+        }
+        
+        return alunos;
+    }
+
+    /**
+     * Chave de comparação de matrículas equivalente à collation da coluna (sem diferença
+     * de maiúsculas e acentos).
+     * @param matricula a matrícula
+     * @return a matrícula normalizada
+     */
+    private static String chaveMatricula(String matricula) {
+        return Normalizer.normalize(matricula.trim(), Normalizer.Form.NFD)
+                         .replaceAll("\\p{M}", "")
+                         .toLowerCase();
+    }
+
     /**
      * Remove um aluno do banco de dados pelo ID.
      * @param id o ID do aluno a ser removido
@@ -80,10 +271,12 @@ public class AlunoDAO {
     public boolean remover(int id) throws SQLException {
         String sql = "DELETE FROM alunos WHERE id = ?";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, id);
             
             int affectedRows = stmt.executeUpdate();
+            CACHE.invalidar(id);
             return affectedRows > 0;
         }
     }
@@ -95,14 +288,23 @@ public class AlunoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public Aluno buscarPorId(int id) throws SQLException {
-        String sql = "SELECT * FROM alunos WHERE id = ?";
+        Aluno emCache = CACHE.buscar(id);
+        if (emCache != null) {
+            return emCache;
+        }
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        long versaoCache = CACHE.versao();
+        String sql = "SELECT " + COLUNAS + " FROM alunos WHERE id = ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapearResultSet(rs);
+                    Aluno aluno = mapearResultSet(rs);
+                    CACHE.armazenar(aluno, versaoCache);
+                    return aluno;
                 } else {
                     return null;
                 }
@@ -110,6 +312,88 @@ public class AlunoDAO {
         }
     }
 
+    /**
+     * Busca vários alunos pelos IDs, usando consultas WHERE id IN (...) em blocos
+     * de até {@value UtilSql#TAMANHO_BLOCO_IN} IDs.
+     * @param ids os IDs dos alunos a serem buscados
+     * @return mapa do ID para o aluno encontrado; IDs inexistentes ficam fora do mapa
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Map<Integer, Aluno> buscarPorIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Aluno> alunos = new HashMap<>();
+        
+        // Só os IDs ausentes do cache são consultados no banco
+        List<Integer> lista = new ArrayList<>();
+        for (Integer id : ids) {
+            Aluno emCache = CACHE.buscar(id);
+            if (emCache != null) {
+                alunos.put(id, emCache);
+            } else {
+                lista.add(id);
+            }
+        }
+        if (lista.isEmpty()) {
+            return alunos;
+        }
+        
+        long versaoCache = CACHE.versao();
+        
+        try (Connection conexao = pool.getConnection()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+                List<Integer> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+                String sql = "SELECT " + COLUNAS + " FROM alunos WHERE id IN (" + UtilSql.placeholders(bloco.size()) + ")";
+                
+                try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < bloco.size(); i++) {
+                        stmt.setInt(i + 1, bloco.get(i));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Aluno aluno = mapearResultSet(rs);
+                            CACHE.armazenar(aluno, versaoCache);
+                            alunos.put(aluno.getId(), aluno);
+                        }
+                    }
+                }
+            }
+        }
+        
+        return alunos;
+    }
+
+    /**
+     * Verifica, com consultas WHERE id IN (...), quais dos IDs informados pertencem a
+     * alunos cadastrados.
+     * @param conexao a conexão a ser usada
+     * @param ids os IDs a verificar
+     * @return os IDs existentes
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    Set<Integer> filtrarExistentes(Connection conexao, Collection<Integer> ids) throws SQLException {
+        Set<Integer> existentes = new HashSet<>();
+        List<Integer> lista = new ArrayList<>(new HashSet<>(ids));
+        
+        for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+            List<Integer> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+            String sql = "SELECT id FROM alunos WHERE id IN (" + UtilSql.placeholders(bloco.size()) + ")";
+            
+            try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+                for (int i = 0; i < bloco.size(); i++) {
+                    stmt.setInt(i + 1, bloco.get(i));
+                }
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        existentes.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        
+        return existentes;
+    }
+
     /**
      * Busca um aluno pela matrícula.
      * @param matricula a matrícula do aluno a ser buscado
@@ -117,14 +401,23 @@ public class AlunoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public Aluno buscarPorMatricula(String matricula) throws SQLException {
-        String sql = "SELECT * FROM alunos WHERE matricula = ?";
+        Aluno emCache = CACHE.buscarPorChave(matricula);
+        if (emCache != null) {
+            return emCache;
+        }
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        long versaoCache = CACHE.versao();
+        String sql = "SELECT " + COLUNAS + " FROM alunos WHERE matricula = ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, matricula);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapearResultSet(rs);
+                    Aluno aluno = mapearResultSet(rs);
+                    CACHE.armazenar(aluno, versaoCache);
+                    return aluno;
                 } else {
                     return null;
                 }
@@ -139,9 +432,10 @@ public class AlunoDAO {
      */
     public List<Aluno> listarTodos() throws SQLException {
         List<Aluno> alunos = new ArrayList<>();
-        String sql = "SELECT * FROM alunos ORDER BY nome";
+        String sql = "SELECT " + COLUNAS + " FROM alunos ORDER BY nome";
         
-        try (Statement stmt = conexao.createStatement();
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -152,6 +446,17 @@ public class AlunoDAO {
         return alunos;
     }
 
+    /**
+     * Percorre todos os alunos em ordem de nome lendo-os sob demanda de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de alunos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<Aluno> streamTodos() throws SQLException {
+        return CursorStream.abrir(pool, "SELECT " + COLUNAS + " FROM alunos ORDER BY nome", null,
+                                  this::mapearResultSet);
+    }
+
     /**
      * Busca alunos pelo nome (busca parcial).
      * @param nome parte do nome a ser buscado
@@ -160,9 +465,10 @@ public class AlunoDAO {
      */
     public List<Aluno> buscarPorNome(String nome) throws SQLException {
         List<Aluno> alunos = new ArrayList<>();
-        String sql = "SELECT * FROM alunos WHERE nome LIKE ? ORDER BY nome";
+        String sql = "SELECT " + COLUNAS + " FROM alunos WHERE nome LIKE ? ORDER BY nome";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, "%" + nome + "%");
             
             try (ResultSet rs = stmt.executeQuery()) {
@@ -176,19 +482,147 @@ public class AlunoDAO {
     }
 
     /**
-     * Mapeia um ResultSet para um objeto Aluno.
+     * Lista uma página de alunos em ordem de nome, usando paginação por chave.
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de alunos na página
+     * @return a página de alunos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Aluno> listarPagina(String token, int limite) throws SQLException {
+        return paginarPorNome(null, token, limite);
+    }
+
+    /**
+     * Busca uma página de alunos pelo nome (busca parcial), usando paginação por chave.
+     * @param nome parte do nome a ser buscado
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de alunos na página
+     * @return a página de alunos que contêm o nome buscado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Aluno> buscarPorNomePagina(String nome, String token, int limite) throws SQLException {
+        return paginarPorNome(nome, token, limite);
+    }
+
+    /**
+     * Consulta uma página ordenada por (nome, id), opcionalmente filtrada pelo nome.
+     */
+    private Pagina<Aluno> paginarPorNome(String filtroNome, String token, int limite) throws SQLException {
+        String[] chave = Pagina.decodificarToken(token, 2);
+        
+        List<String> condicoes = new ArrayList<>();
+        if (filtroNome != null) {
+            condicoes.add("nome LIKE ?");
+        }
+        if (chave != null) {
+            condicoes.add("(nome > ? OR (nome = ? AND id > ?))");
+        }
+        
+        String sql = "SELECT " + COLUNAS + " FROM alunos" +
+                     (condicoes.isEmpty() ? "" : " WHERE " + String.join(" AND ", condicoes)) +
+                     " ORDER BY nome, id";
+        
+        return Pagina.consultar(pool, sql, stmt -> {
+            int i = 1;
+            if (filtroNome != null) {
+                stmt.setString(i++, "%" + filtroNome + "%");
+            }
+            if (chave != null) {
+                stmt.setString(i++, chave[0]);
+                stmt.setString(i++, chave[0]);
+                stmt.setInt(i, Integer.parseInt(chave[1]));
+            }
+        }, limite, this::mapearResultSet, aluno -> new String[]{aluno.getNome(), String.valueOf(aluno.getId())});
+    }
+
+    /**
+     * Conta os alunos cadastrados.
+     * @return o número de alunos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int contar() throws SQLException {
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM alunos")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Percorre a matrícula de todos os alunos lendo apenas essa coluna de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de matrículas
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<String> streamMatriculas() throws SQLException {
+        return CursorStream.abrir(pool, "SELECT matricula FROM alunos WHERE matricula IS NOT NULL", null, rs -> rs.getString(1));
+    }
+
+    /**
+     * Conta os empréstimos (de qualquer status) de cada aluno, usado como popularidade.
+     * @return mapa do ID do aluno para o número de empréstimos; alunos sem empréstimos ficam fora do mapa
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Map<Integer, Integer> contarEmprestimos() throws SQLException {
+        Map<Integer, Integer> contagem = new HashMap<>();
+        String sql = "SELECT aluno_id, COUNT(*) AS total FROM emprestimos GROUP BY aluno_id";
+        
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                contagem.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        
+        return contagem;
+    }
+
+    /**
+     * @return o cache de alunos, para consulta das métricas
+     */
+    public static CacheEntidades<Aluno> getCache() {
+        return CACHE;
+    }
+
+    private static Aluno copiar(Aluno aluno) {
+        return new Aluno(aluno.getId(), aluno.getNome(), aluno.getMatricula(), aluno.getEmail(), aluno.getTelefone(),
+                         aluno.getDataCadastro() != null ? new Timestamp(aluno.getDataCadastro().getTime()) : null);
+    }
+
+    private static int estimarTamanho(Aluno aluno) {
+        // Objeto, ID e data de cadastro, mais os textos
+        return 80 + CacheEntidades.tamanhoTexto(aluno.getNome()) + CacheEntidades.tamanhoTexto(aluno.getMatricula()) +
+               CacheEntidades.tamanhoTexto(aluno.getEmail()) + CacheEntidades.tamanhoTexto(aluno.getTelefone());
+    }
+
+    /**
+     * Mapeia um ResultSet de uma consulta "SELECT " + COLUNAS para um objeto Aluno.
      * @param rs o ResultSet contendo os dados do aluno
      * @return o objeto Aluno mapeado
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     private Aluno mapearResultSet(ResultSet rs) throws SQLException {
+        return mapear(rs, 1);
+    }
+
+    /**
+     * Mapeia as colunas de COLUNAS para um objeto Aluno, lendo-as por posição a partir
+     * de {@code primeira}, sem procurar cada coluna pelo nome a cada linha.
+     * @param rs o ResultSet contendo os dados do aluno
+     * @param primeira a posição da coluna id no ResultSet (a partir de 1)
+     * @return o objeto Aluno mapeado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    static Aluno mapear(ResultSet rs, int primeira) throws SQLException {
         Aluno aluno = new Aluno();
-        aluno.setId(rs.getInt("id"));
-        aluno.setNome(rs.getString("nome"));
-        aluno.setMatricula(rs.getString("matricula"));
-        aluno.setEmail(rs.getString("email"));
-        aluno.setTelefone(rs.getString("telefone"));
-        aluno.setDataCadastro(rs.getTimestamp("data_cadastro"));
+        aluno.setId(rs.getInt(primeira));
+        aluno.setNome(rs.getString(primeira + 1));
+        aluno.setMatricula(rs.getString(primeira + 2));
+        aluno.setEmail(rs.getString(primeira + 3));
+        aluno.setTelefone(rs.getString(primeira + 4));
+        aluno.setDataCadastro(rs.getTimestamp(primeira + 5));
         return aluno;
     }
 }
\ No newline at end of file
@@ -0,0 +1,231 @@
+package src.dao;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache LRU de entidades por ID, com uma chave secundária opcional (ISBN, matrícula),
+ * limitado pelo tamanho estimado das entidades em bytes.
+ *
+ * As entidades são mutáveis, então o cache guarda e devolve cópias. Para não guardar
+ * uma leitura anterior a uma alteração, cada invalidação incrementa uma versão e o
+ * armazenamento só é aceito se a versão não mudou desde o início da leitura.
+ */
+public final class CacheEntidades<T> {
+    private final String nome;
+    private final long capacidadeBytes;
+    private final ToIntFunction<T> id;
+    private final Function<T, String> chaveSecundaria;
+    private final ToIntFunction<T> peso;
+    private final UnaryOperator<T> copiar;
+
+    // Em ordem de acesso: o primeiro é o menos usado recentemente
+    private final LinkedHashMap<Integer, Entrada<T>> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> idsPorChave = new HashMap<>();
+    private long bytes;
+    private long versao;
+
+    // Métricas
+    private long acertos;
+    private long falhas;
+    private long remocoes;
+    private long invalidacoes;
+
+    /**
+     * @param nome o nome exibido nas métricas
+     * @param capacidadeBytes o tamanho máximo estimado das entidades guardadas (0 desativa o cache)
+     * @param id extrai o ID da entidade
+     * @param chaveSecundaria extrai a chave secundária (pode retornar null)
+     * @param peso estima o tamanho da entidade em bytes
+     * @param copiar cria uma cópia independente da entidade
+     */
+    CacheEntidades(String nome, long capacidadeBytes, ToIntFunction<T> id, Function<T, String> chaveSecundaria,
+                   ToIntFunction<T> peso, UnaryOperator<T> copiar) {
+        this.nome = nome;
+        this.capacidadeBytes = capacidadeBytes;
+        this.id = id;
+        this.chaveSecundaria = chaveSecundaria;
+        this.peso = peso;
+        this.copiar = copiar;
+    }
+
+    /**
+     * Busca uma entidade pelo ID.
+     * @param chave o ID
+     * @return uma cópia da entidade, ou null se não estiver no cache
+     */
+    synchronized T buscar(int chave) {
+        Entrada<T> entrada = entradas.get(chave);
+        if (entrada == null) {
+            falhas++;
+            return null;
+        }
+        acertos++;
+        return copiar.apply(entrada.valor);
+    }
+
+    /**
+     * Busca uma entidade pela chave secundária.
+     * @param chave a chave secundária
+     * @return uma cópia da entidade, ou null se não estiver no cache
+     */
+    synchronized T buscarPorChave(String chave) {
+        Integer idEntidade = chave == null ? null : idsPorChave.get(chave);
+        if (idEntidade == null) {
+            falhas++;
+            return null;
+        }
+        return buscar(idEntidade);
+    }
+
+    /**
+     * @return a versão atual, a ser informada em {@link #armazenar(Object, long)} após a leitura no banco
+     */
+    synchronized long versao() {
+        return versao;
+    }
+
+    /**
+     * Guarda uma cópia da entidade lida do banco, se nenhuma invalidação ocorreu desde
+     * a versão informada.
+     * @param entidade a entidade lida
+     * @param versaoLida o valor de {@link #versao()} obtido antes da leitura
+     */
+    synchronized void armazenar(T entidade, long versaoLida) {
+        if (capacidadeBytes <= 0 || entidade == null || versaoLida != versao) {
+            return;
+        }
+
+        int tamanho = peso.applyAsInt(entidade);
+        if (tamanho > capacidadeBytes) {
+            return;
+        }
+
+        remover(id.applyAsInt(entidade));
+        Entrada<T> entrada = new Entrada<>(copiar.apply(entidade), chaveSecundaria.apply(entidade), tamanho);
+        entradas.put(id.applyAsInt(entidade), entrada);
+        if (entrada.chave != null) {
+            idsPorChave.put(entrada.chave, id.applyAsInt(entidade));
+        }
+        bytes += tamanho;
+
+        // Descarta as entradas menos usadas até caber na capacidade
+        Iterator<Map.Entry<Integer, Entrada<T>>> iterador = entradas.entrySet().iterator();
+        while (bytes > capacidadeBytes && iterador.hasNext()) {
+            Entrada<T> antiga = iterador.next().getValue();
+            iterador.remove();
+            descontar(antiga);
+            remocoes++;
+        }
+    }
+
+    /**
+     * Remove a entidade do cache após uma alteração no banco.
+     * @param chave o ID da entidade
+     */
+    synchronized void invalidar(int chave) {
+        versao++;
+        if (remover(chave)) {
+            invalidacoes++;
+        }
+    }
+
+    /**
+     * Remove todas as entidades do cache.
+     */
+    synchronized void limpar() {
+        versao++;
+        invalidacoes += entradas.size();
+        entradas.clear();
+        idsPorChave.clear();
+        bytes = 0;
+    }
+
+    private boolean remover(int chave) {
+        Entrada<T> entrada = entradas.remove(chave);
+        if (entrada == null) {
+            return false;
+        }
+        descontar(entrada);
+        return true;
+    }
+
+    private void descontar(Entrada<T> entrada) {
+        bytes -= entrada.peso;
+        if (entrada.chave != null) {
+            idsPorChave.remove(entrada.chave);
+        }
+    }
+
+    /**
+     * Estima o espaço ocupado por um texto (cabeçalho do objeto e chars em UTF-16).
+     * @param texto o texto (pode ser null)
+     * @return o tamanho estimado em bytes
+     */
+    static int tamanhoTexto(String texto) {
+        return texto == null ? 0 : 40 + 2 * texto.length();
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+
+    public synchronized long getRemocoes() {
+        return remocoes;
+    }
+
+    public synchronized long getInvalidacoes() {
+        return invalidacoes;
+    }
+
+    public synchronized int getTamanho() {
+        return entradas.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getCapacidadeBytes() {
+        return capacidadeBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CacheEntidades{" +
+                "nome='" + nome + '\'' +
+                ", tamanho=" + entradas.size() +
+                ", bytes=" + bytes +
+                ", capacidadeBytes=" + capacidadeBytes +
+                ", acertos=" + acertos +
+                ", falhas=" + falhas +
+                ", remocoes=" + remocoes +
+                ", invalidacoes=" + invalidacoes +
+                '}';
+    }
+
+    private static final class Entrada<T> {
+        private final T valor;
+        private final String chave;
+        private final int peso;
+
+        Entrada(T valor, String chave, int peso) {
+            this.valor = valor;
+            this.chave = chave;
+            this.peso = peso;
+        }
+    }
+}
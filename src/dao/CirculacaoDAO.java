@@ -0,0 +1,294 @@
+package src.dao;
+
+import src.model.CirculacaoDiaria;
+import src.model.CirculacaoDiaria.Dimensao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe responsável pela consolidação diária da circulação (tabela circulacao_diaria)
+ * e pela leitura das séries consolidadas.
+ *
+ * Cada dia é calculado a partir da posição do fim do dia anterior somada aos eventos do
+ * dia (empréstimos, devoluções e vencimentos), lidos por intervalos indexados de datas.
+ * O custo de consolidar um dia depende do movimento do dia, não do tamanho do histórico.
+ */
+public class CirculacaoDAO {
+    // Coorte do aluno: prefixo da matrícula (ano de ingresso)
+    private static final String COORTE = "LEFT(a.matricula, 4)";
+
+    private static final String SQL_BASE_EVENTOS =
+            "SELECT e.livro_id, " + COORTE + ", COUNT(*) " +
+            "FROM emprestimos e JOIN alunos a ON a.id = e.aluno_id ";
+
+    private static final String AGRUPAMENTO = " GROUP BY e.livro_id, " + COORTE;
+
+    private PoolConexoes pool;
+
+    public CirculacaoDAO() throws SQLException {
+        this.pool = ConexaoDB.getPool();
+    }
+
+    /**
+     * Consolida um dia, substituindo as linhas já existentes para ele. Se o dia anterior
+     * não estiver consolidado, a posição inicial é calculada diretamente dos empréstimos.
+     * @param dia o dia a consolidar (já encerrado, para que a posição final não mude)
+     * @return o número de linhas gravadas
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int consolidarDia(LocalDate dia) throws SQLException {
+        Timestamp inicio = Timestamp.valueOf(dia.atStartOfDay());
+        Timestamp fim = Timestamp.valueOf(dia.plusDays(1).atStartOfDay());
+        Map<String, CirculacaoDiaria> linhas = new LinkedHashMap<>();
+
+        try (Connection conexao = pool.getConnection()) {
+            conexao.setAutoCommit(false);
+            try {
+                if (!carregarPosicaoConsolidada(conexao, dia, linhas)) {
+                    calcularPosicao(conexao, dia, inicio, linhas);
+                }
+
+                // Empréstimos do dia
+                somarEventos(conexao, SQL_BASE_EVENTOS +
+                             "WHERE e.data_emprestimo >= ? AND e.data_emprestimo < ?" + AGRUPAMENTO,
+                             dia, linhas, new Timestamp[] {inicio, fim}, (linha, rs) -> {
+                    linha.setEmprestimos(linha.getEmprestimos() + rs.getInt(3));
+                    linha.setAtivos(linha.getAtivos() + rs.getInt(3));
+                });
+
+                // Devoluções do dia; as de empréstimos vencidos até o dia anterior saem dos atrasados
+                somarEventos(conexao, "SELECT e.livro_id, " + COORTE + ", COUNT(*), " +
+                             "SUM(e.data_devolucao_efetiva > e.data_devolucao_prevista), " +
+                             "SUM(e.data_devolucao_prevista < ? AND e.data_emprestimo < ?) " +
+                             "FROM emprestimos e JOIN alunos a ON a.id = e.aluno_id " +
+                             "WHERE e.data_devolucao_efetiva >= ? AND e.data_devolucao_efetiva < ?" + AGRUPAMENTO,
+                             dia, linhas, new Timestamp[] {inicio, inicio, inicio, fim}, (linha, rs) -> {
+                    linha.setDevolucoes(linha.getDevolucoes() + rs.getInt(3));
+                    linha.setDevolucoesAtrasadas(linha.getDevolucoesAtrasadas() + rs.getInt(4));
+                    linha.setAtivos(linha.getAtivos() - rs.getInt(3));
+                    linha.setAtrasados(linha.getAtrasados() - rs.getInt(5));
+                });
+
+                // Empréstimos que venceram no dia e continuam em aberto no fim dele
+                String emAbertoNoFim = " AND (e.data_devolucao_efetiva IS NULL OR e.data_devolucao_efetiva >= ?)";
+                somarEventos(conexao, SQL_BASE_EVENTOS +
+                             "WHERE e.data_devolucao_prevista >= ? AND e.data_devolucao_prevista < ? " +
+                             "AND e.data_emprestimo < ?" + emAbertoNoFim + AGRUPAMENTO,
+                             dia, linhas, new Timestamp[] {inicio, fim, fim, fim}, (linha, rs) ->
+                    linha.setAtrasados(linha.getAtrasados() + rs.getInt(3)));
+
+                // Empréstimos registrados no dia com devolução prevista anterior a ele
+                somarEventos(conexao, SQL_BASE_EVENTOS +
+                             "WHERE e.data_emprestimo >= ? AND e.data_emprestimo < ? " +
+                             "AND e.data_devolucao_prevista < ?" + emAbertoNoFim + AGRUPAMENTO,
+                             dia, linhas, new Timestamp[] {inicio, fim, inicio, fim}, (linha, rs) ->
+                    linha.setAtrasados(linha.getAtrasados() + rs.getInt(3)));
+
+                int gravadas = gravar(conexao, dia, linhas);
+                conexao.commit();
+                return gravadas;
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Carrega como posição inicial do dia os empréstimos em aberto no fim do dia anterior
+     * já consolidado.
+     * @return false se o dia anterior não está consolidado
+     */
+    private boolean carregarPosicaoConsolidada(Connection conexao, LocalDate dia, Map<String, CirculacaoDiaria> linhas)
+            throws SQLException {
+        String sql = "SELECT dimensao, chave, ativos, atrasados FROM circulacao_diaria " +
+                     "WHERE dia = ? AND (dimensao = 'GERAL' OR ativos > 0 OR atrasados > 0)";
+        boolean consolidado = false;
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(dia.minusDays(1)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Dimensao dimensao = Dimensao.valueOf(rs.getString(1));
+                    CirculacaoDiaria linha = obterLinha(linhas, dia, dimensao, rs.getString(2));
+                    linha.setAtivos(rs.getInt(3));
+                    linha.setAtrasados(rs.getInt(4));
+                    consolidado |= dimensao == Dimensao.GERAL;
+                }
+            }
+        }
+
+        return consolidado;
+    }
+
+    /**
+     * Calcula a posição do fim do dia anterior diretamente dos empréstimos. Percorre todo
+     * o histórico anterior ao dia, por isso só é usado no primeiro dia de uma reconstrução.
+     */
+    private void calcularPosicao(Connection conexao, LocalDate dia, Timestamp inicio,
+                                 Map<String, CirculacaoDiaria> linhas) throws SQLException {
+        linhas.clear();
+        somarEventos(conexao, "SELECT e.livro_id, " + COORTE + ", COUNT(*), SUM(e.data_devolucao_prevista < ?) " +
+                     "FROM emprestimos e JOIN alunos a ON a.id = e.aluno_id " +
+                     "WHERE e.data_emprestimo < ? " +
+                     "AND (e.data_devolucao_efetiva IS NULL OR e.data_devolucao_efetiva >= ?)" + AGRUPAMENTO,
+                     dia, linhas, new Timestamp[] {inicio, inicio, inicio}, (linha, rs) -> {
+            linha.setAtivos(linha.getAtivos() + rs.getInt(3));
+            linha.setAtrasados(linha.getAtrasados() + rs.getInt(4));
+        });
+    }
+
+    /**
+     * Executa uma consulta agrupada por (livro, coorte) e acumula cada linha do resultado
+     * nas três dimensões.
+     */
+    private void somarEventos(Connection conexao, String sql, LocalDate dia, Map<String, CirculacaoDiaria> linhas,
+                              Timestamp[] parametros, Acumulador acumulador) throws SQLException {
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setTimestamp(i + 1, parametros[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String livro = String.valueOf(rs.getInt(1));
+                    String coorte = rs.getString(2);
+                    acumulador.somar(obterLinha(linhas, dia, Dimensao.GERAL, ""), rs);
+                    acumulador.somar(obterLinha(linhas, dia, Dimensao.LIVRO, livro), rs);
+                    acumulador.somar(obterLinha(linhas, dia, Dimensao.COORTE, coorte), rs);
+                }
+            }
+        }
+    }
+
+    private CirculacaoDiaria obterLinha(Map<String, CirculacaoDiaria> linhas, LocalDate dia, Dimensao dimensao,
+                                        String chave) {
+        return linhas.computeIfAbsent(dimensao.name() + ":" + chave,
+                                      k -> new CirculacaoDiaria(dia, dimensao, chave, 0, 0, 0, 0, 0));
+    }
+
+    private int gravar(Connection conexao, LocalDate dia, Map<String, CirculacaoDiaria> linhas) throws SQLException {
+        try (PreparedStatement stmt = conexao.prepareStatement("DELETE FROM circulacao_diaria WHERE dia = ?")) {
+            stmt.setDate(1, Date.valueOf(dia));
+            stmt.executeUpdate();
+        }
+
+        // A linha GERAL é gravada mesmo sem movimento: ela marca o dia como consolidado
+        obterLinha(linhas, dia, Dimensao.GERAL, "");
+
+        String sql = "INSERT INTO circulacao_diaria (dia, dimensao, chave, emprestimos, devolucoes, " +
+                     "devolucoes_atrasadas, ativos, atrasados) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        int gravadas = 0;
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (CirculacaoDiaria linha : linhas.values()) {
+                if (linha.getDimensao() != Dimensao.GERAL && linha.getEmprestimos() == 0 &&
+                    linha.getDevolucoes() == 0 && linha.getAtivos() == 0 && linha.getAtrasados() == 0) {
+                    continue;
+                }
+
+                stmt.setDate(1, Date.valueOf(dia));
+                stmt.setString(2, linha.getDimensao().name());
+                stmt.setString(3, linha.getChave());
+                stmt.setInt(4, linha.getEmprestimos());
+                stmt.setInt(5, linha.getDevolucoes());
+                stmt.setInt(6, linha.getDevolucoesAtrasadas());
+                stmt.setInt(7, linha.getAtivos());
+                stmt.setInt(8, linha.getAtrasados());
+                stmt.addBatch();
+                gravadas++;
+            }
+            stmt.executeBatch();
+        }
+
+        return gravadas;
+    }
+
+    /**
+     * @return o último dia consolidado, ou null se nenhum dia foi consolidado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public LocalDate ultimoDiaConsolidado() throws SQLException {
+        String sql = "SELECT MAX(dia) FROM circulacao_diaria WHERE dimensao = 'GERAL' AND chave = ''";
+
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            Date dia = rs.next() ? rs.getDate(1) : null;
+            return dia != null ? dia.toLocalDate() : null;
+        }
+    }
+
+    /**
+     * @return o dia do empréstimo mais antigo, ou null se não há empréstimos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public LocalDate primeiroDiaComEmprestimos() throws SQLException {
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(data_emprestimo) FROM emprestimos")) {
+            Timestamp data = rs.next() ? rs.getTimestamp(1) : null;
+            return data != null ? data.toLocalDateTime().toLocalDate() : null;
+        }
+    }
+
+    /**
+     * Lista a série consolidada de uma chave. Dias sem linha (sem movimento nem
+     * empréstimos em aberto para a chave) não aparecem na lista.
+     * @param dimensao a dimensão
+     * @param chave a chave (vazia para GERAL, o ID do livro ou o prefixo da matrícula)
+     * @param inicio o primeiro dia (inclusive)
+     * @param fim o último dia (inclusive)
+     * @return as linhas em ordem de dia
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public List<CirculacaoDiaria> listar(Dimensao dimensao, String chave, LocalDate inicio, LocalDate fim)
+            throws SQLException {
+        String sql = "SELECT dia, dimensao, chave, emprestimos, devolucoes, devolucoes_atrasadas, ativos, atrasados " +
+                     "FROM circulacao_diaria WHERE dimensao = ? AND chave = ? AND dia BETWEEN ? AND ? " +
+                     "ORDER BY dia";
+        List<CirculacaoDiaria> linhas = new ArrayList<>();
+
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, dimensao.name());
+            stmt.setString(2, chave);
+            stmt.setDate(3, Date.valueOf(inicio));
+            stmt.setDate(4, Date.valueOf(fim));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(mapearResultSet(rs));
+                }
+            }
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Mapeia um ResultSet de listar(...) para um objeto CirculacaoDiaria, lendo as colunas por posição.
+     * @param rs o ResultSet contendo os dados da linha consolidada
+     * @return o objeto CirculacaoDiaria mapeado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private CirculacaoDiaria mapearResultSet(ResultSet rs) throws SQLException {
+        return new CirculacaoDiaria(rs.getDate(1).toLocalDate(), Dimensao.valueOf(rs.getString(2)),
+                                    rs.getString(3), rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7), rs.getInt(8));
+    }
+
+    /**
+     * Aplica uma linha de resultado de consulta agrupada a uma linha consolidada.
+     */
+    private interface Acumulador {
+        void somar(CirculacaoDiaria linha, ResultSet rs) throws SQLException;
+    }
+}
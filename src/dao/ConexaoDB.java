@@ -1,11 +1,10 @@
 package src.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Classe responsável por gerenciar a conexão com o banco de dados.
+ * Classe responsável por gerenciar as conexões com o banco de dados.
  */
 public class ConexaoDB {
     // Parâmetros de conexão
@@ -21,49 +20,64 @@ public class ConexaoDB {
                                           System.getenv("MYSQL_PASSWORD") : "root_password";
     
     private static final String URL = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE + 
-                                     "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+                                     "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC" +
+                                     "&rewriteBatchedStatements=true";
     
-    // Singleton para a conexão
-    private static Connection conexao = null;
+    // Parâmetros do pool de conexões
+    private static final int POOL_MINIMO = lerInteiro("MYSQL_POOL_MINIMO", 2);
+    private static final int POOL_MAXIMO = lerInteiro("MYSQL_POOL_MAXIMO", 10);
+    private static final int POOL_ESPERA_MS = lerInteiro("MYSQL_POOL_ESPERA_MS", 5000);
+    private static final int POOL_OCIOSO_MS = lerInteiro("MYSQL_POOL_OCIOSO_MS", 300000);
+    private static final int POOL_VAZAMENTO_MS = lerInteiro("MYSQL_POOL_VAZAMENTO_MS", 0);
+    
+    // Pool compartilhado por todos os DAOs
+    private static PoolConexoes pool = null;
     
     /**
-     * Obtém uma conexão com o banco de dados.
-     * @return objeto Connection representando a conexão
-     * @throws SQLException se ocorrer um erro ao conectar
+     * Obtém o pool de conexões, criando-o na primeira chamada.
+     * @return o pool de conexões
+     * @throws SQLException se o driver JDBC não estiver disponível
      */
-    public static Connection getConexao() throws SQLException {
-        if (conexao == null || conexao.isClosed()) {
+    public static synchronized PoolConexoes getPool() throws SQLException {
+        if (pool == null) {
             try {
                 // Carrega o driver JDBC
                 Class.forName("com.mysql.cj.jdbc.Driver");
                 
-                // Estabelece a conexão
-                conexao = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("Conexão com o banco de dados estabelecida com sucesso.");
+                pool = new PoolConexoes(URL, USER, PASSWORD, POOL_MINIMO, POOL_MAXIMO,
+                                        POOL_ESPERA_MS, POOL_OCIOSO_MS, POOL_VAZAMENTO_MS);
+                System.out.println("Pool de conexões com o banco de dados iniciado (" +
+                                   POOL_MINIMO + "-" + POOL_MAXIMO + " conexões).");
             } catch (ClassNotFoundException e) {
                 System.err.println("Driver JDBC não encontrado: " + e.getMessage());
                 throw new SQLException("Driver JDBC não encontrado", e);
-            } catch (SQLException e) {
-                System.err.println("Erro ao conectar ao banco de dados: " + e.getMessage());
-                throw e;
             }
         }
-        return conexao;
+        return pool;
     }
     
     /**
-     * Fecha a conexão com o banco de dados.
+     * Obtém uma conexão do pool. A conexão deve ser fechada após o uso para retornar ao pool.
+     * @return objeto Connection representando a conexão
+     * @throws SQLException se ocorrer um erro ao conectar
      */
-    public static void fecharConexao() {
-        if (conexao != null) {
-            try {
-                conexao.close();
-                System.out.println("Conexão com o banco de dados fechada.");
-            } catch (SQLException e) {
-                System.err.println("Erro ao fechar conexão: " + e.getMessage());
-            } finally {
-                conexao = null;
-            }
+    public static Connection getConexao() throws SQLException {
+        try {
+            return getPool().getConnection();
+        } catch (SQLException e) {
+            System.err.println("Erro ao conectar ao banco de dados: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Fecha o pool e as conexões com o banco de dados.
+     */
+    public static synchronized void fecharConexao() {
+        if (pool != null) {
+            pool.fechar();
+            pool = null;
+            System.out.println("Conexões com o banco de dados fechadas.");
         }
     }
     
@@ -72,12 +86,30 @@ public class ConexaoDB {
      * @return true se a conexão foi estabelecida com sucesso, false caso contrário
      */
     public static boolean testarConexao() {
-        try {
-            Connection conn = getConexao();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConexao()) {
+            return conn != null && conn.isValid(2);
         } catch (SQLException e) {
             System.err.println("Teste de conexão falhou: " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Lê um parâmetro inteiro de uma variável de ambiente.
+     * @param nome o nome da variável
+     * @param padrao o valor usado se a variável não estiver definida ou for inválida
+     * @return o valor configurado
+     */
+    public static int lerInteiro(String nome, int padrao) {
+        String valor = System.getenv(nome);
+        if (valor == null || valor.trim().isEmpty()) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + nome + ": " + valor + ". Usando " + padrao + ".");
+            return padrao;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package src.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expõe o resultado de uma consulta como um Stream lido sob demanda de um cursor
+ * somente-leitura, sem materializar todas as linhas em memória.
+ *
+ * A conexão fica reservada até o Stream ser fechado, portanto o chamador deve
+ * consumi-lo dentro de um try-with-resources.
+ */
+final class CursorStream {
+    // Com o Connector/J, Integer.MIN_VALUE ativa a leitura linha a linha (streaming) do MySQL
+    private static final int TAMANHO_BUSCA_STREAMING = Integer.MIN_VALUE;
+
+    private CursorStream() {
+    }
+
+    /**
+     * Converte uma linha do ResultSet em um objeto.
+     */
+    interface MapeadorLinha<T> {
+        T mapear(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Processa uma linha do ResultSet sem convertê-la em objeto.
+     */
+    interface ProcessadorLinha {
+        void processar(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Define os parâmetros de uma consulta preparada.
+     */
+    interface PreparadorConsulta {
+        void preparar(PreparedStatement stmt) throws SQLException;
+    }
+
+    /**
+     * Abre o cursor para a consulta e retorna o Stream correspondente.
+     * @param pool o pool de onde a conexão é obtida
+     * @param sql a consulta
+     * @param preparador define os parâmetros da consulta (pode ser null)
+     * @param mapeador converte cada linha
+     * @return Stream que deve ser fechado para liberar a conexão
+     * @throws SQLException se ocorrer um erro ao executar a consulta
+     */
+    static <T> Stream<T> abrir(PoolConexoes pool, String sql, PreparadorConsulta preparador,
+                               MapeadorLinha<T> mapeador) throws SQLException {
+        Connection conexao = pool.getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            stmt = conexao.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(TAMANHO_BUSCA_STREAMING);
+            if (preparador != null) {
+                preparador.preparar(stmt);
+            }
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            fechar(rs, stmt, conexao);
+            throw e;
+        }
+
+        final ResultSet cursor = rs;
+        final PreparedStatement consulta = stmt;
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapeador.mapear(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Erro ao ler o cursor: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                            .onClose(() -> fechar(cursor, consulta, conexao));
+    }
+
+    /**
+     * Executa a consulta lendo-a linha a linha do cursor e entrega cada linha ao processador,
+     * sem criar um objeto por linha. A conexão é devolvida ao final.
+     * @param pool o pool de onde a conexão é obtida
+     * @param sql a consulta
+     * @param preparador define os parâmetros da consulta (pode ser null)
+     * @param processador recebe cada linha
+     * @return o número de linhas lidas
+     * @throws SQLException se ocorrer um erro ao executar a consulta
+     */
+    static long percorrer(PoolConexoes pool, String sql, PreparadorConsulta preparador,
+                          ProcessadorLinha processador) throws SQLException {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                               ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(TAMANHO_BUSCA_STREAMING);
+            if (preparador != null) {
+                preparador.preparar(stmt);
+            }
+
+            long linhas = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    processador.processar(rs);
+                    linhas++;
+                }
+            }
+            return linhas;
+        }
+    }
+
+    private static void fechar(ResultSet rs, PreparedStatement stmt, Connection conexao) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar cursor: " + e.getMessage());
+        } finally {
+            try {
+                conexao.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao devolver conexão do cursor: " + e.getMessage());
+            }
+        }
+    }
+}
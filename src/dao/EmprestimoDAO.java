@@ -4,167 +4,520 @@ import src.model.Emprestimo;
 import src.model.Emprestimo.StatusEmprestimo;
 import src.model.Aluno;
 import src.model.Livro;
+import src.model.ErroNegocio;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Classe responsável pelas operações de acesso a dados para a entidade Emprestimo.
  */
 public class EmprestimoDAO {
-    private Connection conexao;
+    // Colunas lidas de emprestimos, na ordem esperada por mapearResultSet
+    private static final String COLUNAS = "id, aluno_id, livro_id, data_emprestimo, data_devolucao_prevista, " +
+                                          "data_devolucao_efetiva, status";
+    private static final int TOTAL_COLUNAS = 7;
+
+    // Consulta base que carrega o empréstimo junto com o aluno e o livro em uma única ida ao banco
+    private static final String SQL_SELECT_COMPLETO =
+            "SELECT " + UtilSql.qualificar("e", COLUNAS) + ", " + UtilSql.qualificar("a", AlunoDAO.COLUNAS) + ", " +
+            UtilSql.qualificar("l", LivroDAO.COLUNAS) + " " +
+            "FROM emprestimos e " +
+            "JOIN alunos a ON a.id = e.aluno_id " +
+            "JOIN livros l ON l.id = e.livro_id ";
+
+    // Posições da primeira coluna do aluno e do livro em SQL_SELECT_COMPLETO
+    private static final int PRIMEIRA_COLUNA_ALUNO = TOTAL_COLUNAS + 1;
+    private static final int PRIMEIRA_COLUNA_LIVRO = PRIMEIRA_COLUNA_ALUNO + AlunoDAO.TOTAL_COLUNAS;
+
+    // Consulta base sem junção, usada no carregamento em lote das associações
+    private static final String SQL_SELECT_SIMPLES = "SELECT " + UtilSql.qualificar("e", COLUNAS) + " FROM emprestimos e ";
+
+    // Status por nome, montado uma vez para não chamar StatusEmprestimo.valueOf a cada linha
+    private static final Map<String, StatusEmprestimo> STATUS_POR_NOME = new HashMap<>();
+
+    static {
+        for (StatusEmprestimo status : StatusEmprestimo.values()) {
+            STATUS_POR_NOME.put(status.name(), status);
+        }
+    }
+
+    // Filtros e ordenações compartilhados pelas listagens e pelos cursores
+    private static final String ORDEM_TODOS = "ORDER BY e.data_emprestimo DESC";
+    // Empréstimos vencidos passam de ATIVO para ATRASADO pela varredura periódica (marcarAtrasados),
+    // então os ativos incluem os atrasados ainda não devolvidos e os atrasados são uma igualdade no índice
+    private static final String CONDICAO_ATIVOS =
+            "e.status IN ('ATIVO', 'ATRASADO') AND e.data_devolucao_efetiva IS NULL";
+    private static final String CONDICAO_ATRASADOS = "e.status = 'ATRASADO'";
+    private static final String FILTRO_ATIVOS = "WHERE " + CONDICAO_ATIVOS + " ORDER BY e.data_devolucao_prevista";
+    private static final String FILTRO_ATRASADOS = "WHERE " + CONDICAO_ATRASADOS + " ORDER BY e.data_devolucao_prevista";
+
+    /**
+     * Estratégia de carregamento de aluno e livro nas listagens de empréstimos.
+     */
+    public enum ModoCarregamento {
+        // Uma única consulta com JOIN em alunos e livros
+        JUNCAO,
+        // Consulta dos empréstimos seguida de uma consulta WHERE id IN (...) para alunos e outra para livros
+        LOTE
+    }
+
+    /**
+     * Desfecho de cada empréstimo de uma inserção em lote.
+     */
+    public enum ResultadoInsercao {
+        INSERIDO,
+        ALUNO_NAO_ENCONTRADO,
+        LIVRO_NAO_ENCONTRADO,
+        LIVRO_INDISPONIVEL
+    }
+
+    /**
+     * Desfecho de cada empréstimo de uma devolução em lote.
+     */
+    public enum ResultadoDevolucao {
+        DEVOLVIDO,
+        DEVOLVIDO_COM_ATRASO,
+        NAO_ENCONTRADO,
+        JA_DEVOLVIDO
+    }
+
+    /**
+     * Recebe as colunas de um empréstimo como tipos primitivos, sem criar objetos por linha.
+     */
+    public interface ConsumidorColunas {
+        /**
+         * @param id o ID do empréstimo
+         * @param alunoId o ID do aluno
+         * @param livroId o ID do livro
+         * @param dataEmprestimo a data do empréstimo, em milissegundos desde a época
+         * @param dataDevolucaoPrevista a data prevista de devolução, em milissegundos desde a época
+         * @param dataDevolucaoEfetiva a data efetiva de devolução, ou Emprestimo.SEM_DATA
+         * @param status o ordinal de StatusEmprestimo, ou -1 se não informado
+         */
+        void aceitar(int id, int alunoId, int livroId, long dataEmprestimo, long dataDevolucaoPrevista,
+                     long dataDevolucaoEfetiva, byte status);
+    }
+
+    // Código de erro do MySQL para violação de chave estrangeira (ER_NO_REFERENCED_ROW_2)
+    private static final int ERRO_CHAVE_ESTRANGEIRA = 1452;
+
+    private PoolConexoes pool;
     private AlunoDAO alunoDAO;
     private LivroDAO livroDAO;
+    private ModoCarregamento modoCarregamento = ModoCarregamento.JUNCAO;
 
     public EmprestimoDAO() throws SQLException {
-        this.conexao = ConexaoDB.getConexao();
+        this.pool = ConexaoDB.getPool();
         this.alunoDAO = new AlunoDAO();
         this.livroDAO = new LivroDAO();
+        
+        // Permite escolher o carregamento em lote das associações sem alterar o código
+        String modo = System.getenv("BIBLIOTECA_CARREGAMENTO_EMPRESTIMOS");
+        if (modo != null && !modo.trim().isEmpty()) {
+            try {
+                this.modoCarregamento = ModoCarregamento.valueOf(modo.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Modo de carregamento inválido: " + modo + ". Usando " + modoCarregamento + ".");
+            }
+        }
     }
 
     /**
      * Insere um novo empréstimo no banco de dados.
+     *
+     * A reserva do exemplar é feita por uma atualização condicional relativa em livros,
+     * e o sucesso é decidido pelo número de linhas afetadas; a existência do aluno é
+     * garantida pela chave estrangeira. Assim a transação tem apenas dois comandos e não
+     * há leitura seguida de escrita que possa perder atualizações concorrentes.
      * @param emprestimo o empréstimo a ser inserido
-     * @return o empréstimo com o ID gerado
+     * @return o empréstimo com o ID gerado, com aluno e livro carregados
      * @throws SQLException se ocorrer um erro no banco de dados
+     * @throws ErroNegocio se o livro não estiver disponível ou o aluno/livro não existir
      */
-    public Emprestimo inserir(Emprestimo emprestimo) throws SQLException {
-        // Verifica se o livro está disponível
-        Livro livro = livroDAO.buscarPorId(emprestimo.getLivroId());
-        if (livro == null) {
-            throw new SQLException("Livro não encontrado.");
+    public Emprestimo inserir(Emprestimo emprestimo) throws SQLException, ErroNegocio {
+        boolean reservado;
+        
+        // Inicia transação em uma conexão exclusiva desta operação
+        try (Connection conexao = pool.getConnection()) {
+            conexao.setAutoCommit(false);
+            
+            try {
+                // Reserva um exemplar; nenhuma linha afetada indica livro inexistente ou indisponível
+                reservado = livroDAO.decrementarDisponivel(conexao, emprestimo.getLivroId());
+                
+                if (reservado) {
+                    inserirRegistro(conexao, emprestimo);
+                    
+                    // Confirma a transação
+                    conexao.commit();
+                } else {
+                    conexao.rollback();
+                }
+            } catch (SQLException e) {
+                // Reverte a transação em caso de erro
+                conexao.rollback();
+                
+                if (e.getErrorCode() == ERRO_CHAVE_ESTRANGEIRA) {
+                    throw ErroNegocio.naoEncontrado("Aluno não encontrado.", e);
+                }
+                throw e;
+            } finally {
+                // Restaura o modo de auto-commit
+                conexao.setAutoCommit(true);
+            }
+        } finally {
+            // O estoque em cache só é descartado após o fim da transação
+            livroDAO.invalidarCache(Collections.singleton(emprestimo.getLivroId()));
         }
         
-        if (livro.getQuantidadeDisponivel() <= 0) {
-            throw new SQLException("Livro não disponível para empréstimo.");
+        if (!reservado) {
+            // Caminho de falha: só aqui uma leitura extra é feita para explicar o motivo
+            if (livroDAO.buscarPorId(emprestimo.getLivroId()) == null) {
+                throw ErroNegocio.naoEncontrado("Livro não encontrado.");
+            }
+            throw ErroNegocio.conflito("Livro não disponível para empréstimo.");
         }
         
-        // Verifica se o aluno existe
-        Aluno aluno = alunoDAO.buscarPorId(emprestimo.getAlunoId());
-        if (aluno == null) {
-            throw new SQLException("Aluno não encontrado.");
+        // Busca o empréstimo completo
+        return buscarPorId(emprestimo.getId());
+    }
+
+    /**
+     * Insere o registro do empréstimo na transação informada.
+     * @param conexao a conexão da transação
+     * @param emprestimo o empréstimo a ser inserido; recebe o ID gerado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private void inserirRegistro(Connection conexao, Emprestimo emprestimo) throws SQLException {
+        String sql = "INSERT INTO emprestimos (aluno_id, livro_id, data_emprestimo, " +
+                     "data_devolucao_prevista, status) VALUES (?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, emprestimo.getAlunoId());
+            stmt.setInt(2, emprestimo.getLivroId());
+            stmt.setTimestamp(3, emprestimo.getDataEmprestimo());
+            stmt.setTimestamp(4, emprestimo.getDataDevolucaoPrevista());
+            stmt.setString(5, emprestimo.getStatus().name());
+            
+            int affectedRows = stmt.executeUpdate();
+            
+            if (affectedRows == 0) {
+                throw new SQLException("Falha ao inserir empréstimo, nenhuma linha afetada.");
+            }
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    emprestimo.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new SQLException("Falha ao inserir empréstimo, nenhum ID obtido.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Insere vários empréstimos em uma única transação.
+     *
+     * Os alunos são verificados e os livros bloqueados com consultas WHERE id IN (...);
+     * os exemplares são distribuídos na ordem da lista, e as baixas de estoque e as
+     * inserções são enviadas em lote (addBatch/executeBatch). Empréstimos sem aluno,
+     * sem livro ou sem exemplar disponível são apenas ignorados, sem afetar os demais.
+     * @param emprestimos os empréstimos a serem inseridos; os inseridos recebem o ID gerado
+     * @return o desfecho de cada empréstimo, na mesma ordem da lista
+     * @throws SQLException se ocorrer um erro no banco de dados (nenhum empréstimo é inserido)
+     */
+    public ResultadoInsercao[] inserirLote(List<Emprestimo> emprestimos) throws SQLException {
+        ResultadoInsercao[] resultados = new ResultadoInsercao[emprestimos.size()];
+        if (emprestimos.isEmpty()) {
+            return resultados;
         }
         
-        // Inicia transação
-        boolean autoCommit = conexao.getAutoCommit();
-        conexao.setAutoCommit(false);
+        Set<Integer> alunoIds = new HashSet<>();
+        Set<Integer> livroIds = new HashSet<>();
+        for (Emprestimo emprestimo : emprestimos) {
+            alunoIds.add(emprestimo.getAlunoId());
+            livroIds.add(emprestimo.getLivroId());
+        }
         
-        try {
-            // Insere o empréstimo
-            String sql = "INSERT INTO emprestimos (aluno_id, livro_id, data_emprestimo, " +
-                         "data_devolucao_prevista, status) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conexao = pool.getConnection()) {
+            conexao.setAutoCommit(false);
             
-            try (PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try {
+                Set<Integer> alunosExistentes = alunoDAO.filtrarExistentes(conexao, alunoIds);
+                Map<Integer, Integer> disponiveis = livroDAO.bloquearDisponiveis(conexao, livroIds);
+                
+                // Distribui os exemplares disponíveis na ordem dos pedidos
+                Map<Integer, Integer> reservas = new HashMap<>();
+                List<Emprestimo> aceitos = new ArrayList<>();
+                for (int i = 0; i < emprestimos.size(); i++) {
+                    Emprestimo emprestimo = emprestimos.get(i);
+                    Integer disponivel = disponiveis.get(emprestimo.getLivroId());
+                    
+                    if (!alunosExistentes.contains(emprestimo.getAlunoId())) {
+                        resultados[i] = ResultadoInsercao.ALUNO_NAO_ENCONTRADO;
+                    } else if (disponivel == null) {
+                        resultados[i] = ResultadoInsercao.LIVRO_NAO_ENCONTRADO;
+                    } else if (disponivel == 0) {
+                        resultados[i] = ResultadoInsercao.LIVRO_INDISPONIVEL;
+                    } else {
+                        disponiveis.put(emprestimo.getLivroId(), disponivel - 1);
+                        reservas.merge(emprestimo.getLivroId(), 1, Integer::sum);
+                        aceitos.add(emprestimo);
+                        resultados[i] = ResultadoInsercao.INSERIDO;
+                    }
+                }
+                
+                livroDAO.decrementarDisponiveis(conexao, reservas);
+                inserirRegistros(conexao, aceitos);
+                
+                // Confirma a transação
+                conexao.commit();
+            } catch (SQLException e) {
+                // Reverte a transação em caso de erro
+                conexao.rollback();
+                throw e;
+            } finally {
+                // Restaura o modo de auto-commit
+                conexao.setAutoCommit(true);
+            }
+        } finally {
+            livroDAO.invalidarCache(livroIds);
+        }
+        
+        return resultados;
+    }
+
+    /**
+     * Insere os registros dos empréstimos em lote na transação informada.
+     * @param conexao a conexão da transação
+     * @param emprestimos os empréstimos a serem inseridos; recebem os IDs gerados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private void inserirRegistros(Connection conexao, List<Emprestimo> emprestimos) throws SQLException {
+        if (emprestimos.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO emprestimos (aluno_id, livro_id, data_emprestimo, " +
+                     "data_devolucao_prevista, status) VALUES (?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Emprestimo emprestimo : emprestimos) {
                 stmt.setInt(1, emprestimo.getAlunoId());
                 stmt.setInt(2, emprestimo.getLivroId());
                 stmt.setTimestamp(3, emprestimo.getDataEmprestimo());
                 stmt.setTimestamp(4, emprestimo.getDataDevolucaoPrevista());
                 stmt.setString(5, emprestimo.getStatus().name());
-                
-                int affectedRows = stmt.executeUpdate();
-                
-                if (affectedRows == 0) {
-                    throw new SQLException("Falha ao inserir empréstimo, nenhuma linha afetada.");
-                }
-                
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        emprestimo.setId(generatedKeys.getInt(1));
-                    } else {
-                        throw new SQLException("Falha ao inserir empréstimo, nenhum ID obtido.");
-                    }
-                }
+                stmt.addBatch();
             }
             
-            // Atualiza a quantidade disponível do livro
-            livro.setQuantidadeDisponivel(livro.getQuantidadeDisponivel() - 1);
-            livroDAO.atualizarQuantidadeDisponivel(livro.getId(), livro.getQuantidadeDisponivel());
-            
-            // Confirma a transação
-            conexao.commit();
+            stmt.executeBatch();
             
-            // Busca o empréstimo completo
-            Emprestimo emprestimoCompleto = buscarPorId(emprestimo.getId());
-            emprestimoCompleto.setAluno(aluno);
-            emprestimoCompleto.setLivro(livro);
-            
-            return emprestimoCompleto;
-        } catch (SQLException e) {
-            // Reverte a transação em caso de erro
-            conexao.rollback();
-            throw e;
-        } finally {
-            // Restaura o modo de auto-commit
-            conexao.setAutoCommit(autoCommit);
+            // As chaves geradas vêm na mesma ordem dos comandos do lote
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                for (Emprestimo emprestimo : emprestimos) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Falha ao inserir empréstimos, IDs não obtidos.");
+                    }
+                    emprestimo.setId(generatedKeys.getInt(1));
+                }
+            }
         }
     }
 
     /**
      * Registra a devolução de um livro.
+     *
+     * O empréstimo e o estoque do livro são atualizados por um único comando UPDATE
+     * com junção, condicionado a o empréstimo ainda não ter sido devolvido.
      * @param id o ID do empréstimo
      * @param dataDevolucao a data de devolução efetiva
-     * @return o empréstimo atualizado
+     * @return o empréstimo atualizado, ou null se o empréstimo não existir
      * @throws SQLException se ocorrer um erro no banco de dados
+     * @throws ErroNegocio se o livro já tiver sido devolvido
      */
-    public Emprestimo registrarDevolucao(int id, Timestamp dataDevolucao) throws SQLException {
-        // Busca o empréstimo
-        Emprestimo emprestimo = buscarPorId(id);
-        if (emprestimo == null) {
-            throw new SQLException("Empréstimo não encontrado.");
+    public Emprestimo registrarDevolucao(int id, Timestamp dataDevolucao) throws SQLException, ErroNegocio {
+        // O status depende da data de devolução; o estoque nunca ultrapassa a quantidade total
+        String sql = "UPDATE emprestimos e JOIN livros l ON l.id = e.livro_id " +
+                     "SET e.data_devolucao_efetiva = ?, " +
+                     "e.status = IF(? > e.data_devolucao_prevista, 'ATRASADO', 'DEVOLVIDO'), " +
+                     "l.quantidade_disponivel = LEAST(l.quantidade_disponivel + 1, l.quantidade_total) " +
+                     "WHERE e.id = ? AND e.data_devolucao_efetiva IS NULL";
+        
+        int affectedRows;
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setTimestamp(1, dataDevolucao);
+            stmt.setTimestamp(2, dataDevolucao);
+            stmt.setInt(3, id);
+            
+            affectedRows = stmt.executeUpdate();
         }
         
-        // Verifica se o empréstimo já foi devolvido
-        if (emprestimo.getStatus() == StatusEmprestimo.DEVOLVIDO) {
-            throw new SQLException("Este livro já foi devolvido.");
+        // Busca o empréstimo atualizado (ou, sem linhas afetadas, o motivo da falha)
+        Emprestimo emprestimo = buscarPorId(id);
+        
+        if (affectedRows > 0 && emprestimo != null) {
+            livroDAO.invalidarCache(Collections.singleton(emprestimo.getLivroId()));
         }
         
-        // Busca o livro
-        Livro livro = livroDAO.buscarPorId(emprestimo.getLivroId());
-        if (livro == null) {
-            throw new SQLException("Livro não encontrado.");
+        if (affectedRows == 0 && emprestimo != null) {
+            throw ErroNegocio.conflito("Este livro já foi devolvido.");
         }
         
-        // Inicia transação
-        boolean autoCommit = conexao.getAutoCommit();
-        conexao.setAutoCommit(false);
+        return emprestimo;
+    }
+
+    /**
+     * Registra a devolução de vários empréstimos em uma única transação.
+     *
+     * Os empréstimos são lidos e bloqueados com consultas WHERE id IN (...) FOR UPDATE,
+     * as datas e status são gravados em um lote de atualizações e o estoque é devolvido
+     * com uma atualização por livro, agrupando os empréstimos pelo livro_id.
+     * @param ids os IDs dos empréstimos; IDs repetidos são devolvidos uma única vez
+     * @param dataDevolucao a data de devolução efetiva
+     * @return o desfecho de cada ID, na mesma ordem da lista
+     * @throws SQLException se ocorrer um erro no banco de dados (nenhuma devolução é registrada)
+     */
+    public ResultadoDevolucao[] registrarDevolucoes(List<Integer> ids, Timestamp dataDevolucao) throws SQLException {
+        ResultadoDevolucao[] resultados = new ResultadoDevolucao[ids.size()];
+        if (ids.isEmpty()) {
+            return resultados;
+        }
         
-        try {
-            // Determina o status com base na data de devolução
-            StatusEmprestimo status = (dataDevolucao.after(emprestimo.getDataDevolucaoPrevista())) ? 
-                                     StatusEmprestimo.ATRASADO : StatusEmprestimo.DEVOLVIDO;
+        try (Connection conexao = pool.getConnection()) {
+            conexao.setAutoCommit(false);
             
-            // Atualiza o empréstimo
-            String sql = "UPDATE emprestimos SET data_devolucao_efetiva = ?, status = ? WHERE id = ?";
+            try {
+                Map<Integer, Emprestimo> emprestimos = bloquearPorIds(conexao, ids);
+                
+                List<Emprestimo> devolvidos = new ArrayList<>();
+                Map<Integer, Integer> exemplaresPorLivro = new HashMap<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    Emprestimo emprestimo = emprestimos.get(ids.get(i));
+                    
+                    if (emprestimo == null) {
+                        resultados[i] = ResultadoDevolucao.NAO_ENCONTRADO;
+                    } else if (emprestimo.isDevolvido()) {
+                        // Inclui IDs repetidos na lista, já devolvidos pela primeira ocorrência
+                        resultados[i] = ResultadoDevolucao.JA_DEVOLVIDO;
+                    } else {
+                        emprestimo.registrarDevolucao(dataDevolucao);
+                        boolean atrasado = emprestimo.getStatus() == StatusEmprestimo.ATRASADO;
+                        devolvidos.add(emprestimo);
+                        exemplaresPorLivro.merge(emprestimo.getLivroId(), 1, Integer::sum);
+                        resultados[i] = atrasado ? ResultadoDevolucao.DEVOLVIDO_COM_ATRASO : ResultadoDevolucao.DEVOLVIDO;
+                    }
+                }
+                
+                atualizarDevolucoes(conexao, devolvidos);
+                livroDAO.incrementarDisponiveis(conexao, exemplaresPorLivro);
+                
+                // Confirma a transação
+                conexao.commit();
+                livroDAO.invalidarCache(exemplaresPorLivro.keySet());
+            } catch (SQLException e) {
+                // Reverte a transação em caso de erro
+                conexao.rollback();
+                throw e;
+            } finally {
+                // Restaura o modo de auto-commit
+                conexao.setAutoCommit(true);
+            }
+        }
+        
+        return resultados;
+    }
+
+    /**
+     * Lê e bloqueia (FOR UPDATE) os empréstimos informados, sem aluno e livro, dentro de
+     * uma transação em andamento.
+     * @param conexao a conexão da transação
+     * @param ids os IDs dos empréstimos
+     * @return mapa do ID para o empréstimo; IDs inexistentes ficam fora do mapa
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private Map<Integer, Emprestimo> bloquearPorIds(Connection conexao, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Emprestimo> emprestimos = new HashMap<>();
+        List<Integer> lista = new ArrayList<>(new TreeSet<>(ids));
+        
+        for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+            List<Integer> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+            String sql = SQL_SELECT_SIMPLES + "WHERE e.id IN (" + UtilSql.placeholders(bloco.size()) +
+                         ") ORDER BY e.id FOR UPDATE";
             
             try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
-                stmt.setTimestamp(1, dataDevolucao);
-                stmt.setString(2, status.name());
-                stmt.setInt(3, id);
-                
-                int affectedRows = stmt.executeUpdate();
+                for (int i = 0; i < bloco.size(); i++) {
+                    stmt.setInt(i + 1, bloco.get(i));
+                }
                 
-                if (affectedRows == 0) {
-                    throw new SQLException("Falha ao atualizar empréstimo, nenhuma linha afetada.");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Emprestimo emprestimo = mapearResultSet(rs, false);
+                        emprestimos.put(emprestimo.getId(), emprestimo);
+                    }
                 }
             }
+        }
+        
+        return emprestimos;
+    }
+
+    /**
+     * Grava a data de devolução e o status dos empréstimos em lote na transação informada.
+     * @param conexao a conexão da transação
+     * @param emprestimos os empréstimos devolvidos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private void atualizarDevolucoes(Connection conexao, List<Emprestimo> emprestimos) throws SQLException {
+        if (emprestimos.isEmpty()) {
+            return;
+        }
+        
+        String sql = "UPDATE emprestimos SET data_devolucao_efetiva = ?, status = ? " +
+                     "WHERE id = ? AND data_devolucao_efetiva IS NULL";
+        
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (Emprestimo emprestimo : emprestimos) {
+                stmt.setTimestamp(1, emprestimo.getDataDevolucaoEfetiva());
+                stmt.setString(2, emprestimo.getStatus().name());
+                stmt.setInt(3, emprestimo.getId());
+                stmt.addBatch();
+            }
             
-            // Atualiza a quantidade disponível do livro
-            livro.setQuantidadeDisponivel(livro.getQuantidadeDisponivel() + 1);
-            livroDAO.atualizarQuantidadeDisponivel(livro.getId(), livro.getQuantidadeDisponivel());
-            
-            // Confirma a transação
-            conexao.commit();
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Marca como ATRASADO um bloco de empréstimos ativos com devolução prevista anterior
+     * à data de referência, começando pelos mais antigos.
+     * @param referencia a data de referência
+     * @param limite o número máximo de empréstimos alterados
+     * @return o número de empréstimos alterados; menor que o limite quando não restam outros
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int marcarAtrasados(Timestamp referencia, int limite) throws SQLException {
+        String sql = "UPDATE emprestimos SET status = 'ATRASADO' " +
+                     "WHERE status = 'ATIVO' AND data_devolucao_prevista < ? " +
+                     "ORDER BY data_devolucao_prevista LIMIT ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setTimestamp(1, referencia);
+            stmt.setInt(2, limite);
             
-            // Busca o empréstimo atualizado
-            return buscarPorId(id);
-        } catch (SQLException e) {
-            // Reverte a transação em caso de erro
-            conexao.rollback();
-            throw e;
-        } finally {
-            // Restaura o modo de auto-commit
-            conexao.setAutoCommit(autoCommit);
+            return stmt.executeUpdate();
         }
     }
 
@@ -175,20 +528,15 @@ public class EmprestimoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public Emprestimo buscarPorId(int id) throws SQLException {
-        String sql = "SELECT * FROM emprestimos WHERE id = ?";
+        String sql = SQL_SELECT_COMPLETO + "WHERE e.id = ?";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Emprestimo emprestimo = mapearResultSet(rs);
-                    
-                    // Carrega aluno e livro associados
-                    emprestimo.setAluno(alunoDAO.buscarPorId(emprestimo.getAlunoId()));
-                    emprestimo.setLivro(livroDAO.buscarPorId(emprestimo.getLivroId()));
-                    
-                    return emprestimo;
+                    return mapearResultSet(rs, true);
                 } else {
                     return null;
                 }
@@ -202,24 +550,12 @@ public class EmprestimoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Emprestimo> listarTodos() throws SQLException {
-        List<Emprestimo> emprestimos = new ArrayList<>();
-        String sql = "SELECT * FROM emprestimos ORDER BY data_emprestimo DESC";
+        String sql = sqlListagem() + ORDEM_TODOS;
         
-        try (Statement stmt = conexao.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Emprestimo emprestimo = mapearResultSet(rs);
-                
-                // Carrega aluno e livro associados
-                emprestimo.setAluno(alunoDAO.buscarPorId(emprestimo.getAlunoId()));
-                emprestimo.setLivro(livroDAO.buscarPorId(emprestimo.getLivroId()));
-                
-                emprestimos.add(emprestimo);
-            }
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            return listar(stmt);
         }
-        
-        return emprestimos;
     }
 
     /**
@@ -228,24 +564,12 @@ public class EmprestimoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Emprestimo> listarAtivos() throws SQLException {
-        List<Emprestimo> emprestimos = new ArrayList<>();
-        String sql = "SELECT * FROM emprestimos WHERE status = 'ATIVO' ORDER BY data_devolucao_prevista";
+        String sql = sqlListagem() + FILTRO_ATIVOS;
         
-        try (Statement stmt = conexao.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Emprestimo emprestimo = mapearResultSet(rs);
-                
-                // Carrega aluno e livro associados
-                emprestimo.setAluno(alunoDAO.buscarPorId(emprestimo.getAlunoId()));
-                emprestimo.setLivro(livroDAO.buscarPorId(emprestimo.getLivroId()));
-                
-                emprestimos.add(emprestimo);
-            }
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            return listar(stmt);
         }
-        
-        return emprestimos;
     }
 
     /**
@@ -254,25 +578,12 @@ public class EmprestimoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Emprestimo> listarAtrasados() throws SQLException {
-        List<Emprestimo> emprestimos = new ArrayList<>();
-        String sql = "SELECT * FROM emprestimos WHERE (status = 'ATIVO' AND data_devolucao_prevista < NOW()) " +
-                     "OR status = 'ATRASADO' ORDER BY data_devolucao_prevista";
+        String sql = sqlListagem() + FILTRO_ATRASADOS;
         
-        try (Statement stmt = conexao.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Emprestimo emprestimo = mapearResultSet(rs);
-                
-                // Carrega aluno e livro associados
-                emprestimo.setAluno(alunoDAO.buscarPorId(emprestimo.getAlunoId()));
-                emprestimo.setLivro(livroDAO.buscarPorId(emprestimo.getLivroId()));
-                
-                emprestimos.add(emprestimo);
-            }
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            return listar(stmt);
         }
-        
-        return emprestimos;
     }
 
     /**
@@ -282,26 +593,13 @@ public class EmprestimoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Emprestimo> listarPorAluno(int alunoId) throws SQLException {
-        List<Emprestimo> emprestimos = new ArrayList<>();
-        String sql = "SELECT * FROM emprestimos WHERE aluno_id = ? ORDER BY data_emprestimo DESC";
+        String sql = sqlListagem() + "WHERE e.aluno_id = ? ORDER BY e.data_emprestimo DESC";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, alunoId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Emprestimo emprestimo = mapearResultSet(rs);
-                    
-                    // Carrega aluno e livro associados
-                    emprestimo.setAluno(alunoDAO.buscarPorId(emprestimo.getAlunoId()));
-                    emprestimo.setLivro(livroDAO.buscarPorId(emprestimo.getLivroId()));
-                    
-                    emprestimos.add(emprestimo);
-                }
-            }
+            return listar(stmt);
         }
-        
-        return emprestimos;
     }
 
     /**
@@ -311,49 +609,303 @@ public class EmprestimoDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Emprestimo> listarPorLivro(int livroId) throws SQLException {
-        List<Emprestimo> emprestimos = new ArrayList<>();
-        String sql = "SELECT * FROM emprestimos WHERE livro_id = ? ORDER BY data_emprestimo DESC";
+        String sql = sqlListagem() + "WHERE e.livro_id = ? ORDER BY e.data_emprestimo DESC";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, livroId);
+            return listar(stmt);
+        }
+    }
+
+    /**
+     * Lista uma página de empréstimos, do mais recente para o mais antigo, usando paginação por chave.
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de empréstimos na página
+     * @return a página de empréstimos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Emprestimo> listarPagina(String token, int limite) throws SQLException {
+        String[] chave = Pagina.decodificarToken(token, 2);
+        boolean juncao = modoCarregamento == ModoCarregamento.JUNCAO;
+        
+        String sql = sqlListagem() +
+                     (chave != null ? "WHERE (e.data_emprestimo < ? OR (e.data_emprestimo = ? AND e.id < ?)) " : "") +
+                     "ORDER BY e.data_emprestimo DESC, e.id DESC";
+        
+        Pagina<Emprestimo> pagina = Pagina.consultar(pool, sql, stmt -> {
+            if (chave != null) {
+                Timestamp data = Timestamp.valueOf(chave[0]);
+                stmt.setTimestamp(1, data);
+                stmt.setTimestamp(2, data);
+                stmt.setInt(3, Integer.parseInt(chave[1]));
+            }
+        }, limite, rs -> mapearResultSet(rs, juncao),
+           emprestimo -> new String[]{emprestimo.getDataEmprestimo().toString(), String.valueOf(emprestimo.getId())});
+        
+        if (!juncao) {
+            carregarAssociacoes(pagina.getItens());
+        }
+        
+        return pagina;
+    }
+
+    /**
+     * Lista uma página de empréstimos ativos (incluindo os atrasados não devolvidos), da
+     * devolução prevista mais próxima para a mais distante, usando paginação por chave.
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de empréstimos na página
+     * @return a página de empréstimos ativos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Emprestimo> listarPaginaAtivos(String token, int limite) throws SQLException {
+        return paginarPorPrevista(CONDICAO_ATIVOS, token, limite);
+    }
+
+    /**
+     * Lista uma página de empréstimos atrasados, da devolução prevista mais antiga para a
+     * mais recente, usando paginação por chave.
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de empréstimos na página
+     * @return a página de empréstimos atrasados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Emprestimo> listarPaginaAtrasados(String token, int limite) throws SQLException {
+        return paginarPorPrevista(CONDICAO_ATRASADOS, token, limite);
+    }
+
+    /**
+     * Consulta uma página filtrada, ordenada por (data_devolucao_prevista, id), que segue o
+     * índice (status, data_devolucao_prevista).
+     */
+    private Pagina<Emprestimo> paginarPorPrevista(String condicao, String token, int limite) throws SQLException {
+        String[] chave = Pagina.decodificarToken(token, 2);
+        boolean juncao = modoCarregamento == ModoCarregamento.JUNCAO;
+        
+        String sql = sqlListagem() + "WHERE " + condicao +
+                     (chave != null ? " AND (e.data_devolucao_prevista > ? OR " +
+                                      "(e.data_devolucao_prevista = ? AND e.id > ?))" : "") +
+                     " ORDER BY e.data_devolucao_prevista, e.id";
+        
+        Pagina<Emprestimo> pagina = Pagina.consultar(pool, sql, stmt -> {
+            if (chave != null) {
+                Timestamp data = Timestamp.valueOf(chave[0]);
+                stmt.setTimestamp(1, data);
+                stmt.setTimestamp(2, data);
+                stmt.setInt(3, Integer.parseInt(chave[1]));
+            }
+        }, limite, rs -> mapearResultSet(rs, juncao),
+           emprestimo -> new String[]{emprestimo.getDataDevolucaoPrevista().toString(),
+                                      String.valueOf(emprestimo.getId())});
+        
+        if (!juncao) {
+            carregarAssociacoes(pagina.getItens());
+        }
+        
+        return pagina;
+    }
+
+    /**
+     * Percorre todos os empréstimos, com aluno e livro, lendo-os sob demanda de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de empréstimos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<Emprestimo> streamTodos() throws SQLException {
+        return streamCompletos(SQL_SELECT_COMPLETO + ORDEM_TODOS);
+    }
+
+    /**
+     * Percorre os empréstimos ativos, com aluno e livro, lendo-os sob demanda de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de empréstimos ativos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<Emprestimo> streamAtivos() throws SQLException {
+        return streamCompletos(SQL_SELECT_COMPLETO + FILTRO_ATIVOS);
+    }
+
+    /**
+     * Percorre os empréstimos atrasados, com aluno e livro, lendo-os sob demanda de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de empréstimos atrasados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<Emprestimo> streamAtrasados() throws SQLException {
+        return streamCompletos(SQL_SELECT_COMPLETO + FILTRO_ATRASADOS);
+    }
+
+    /**
+     * Percorre todos os empréstimos, em ordem de ID, lendo apenas as colunas da própria
+     * tabela de um cursor e entregando-as como tipos primitivos ao consumidor.
+     * @param consumidor recebe as colunas de cada empréstimo
+     * @return o número de empréstimos lidos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public long percorrerColunas(ConsumidorColunas consumidor) throws SQLException {
+        String sql = "SELECT " + COLUNAS + " FROM emprestimos ORDER BY id";
+        
+        return CursorStream.percorrer(pool, sql, null, rs -> {
+            String status = rs.getString(7);
+            consumidor.aceitar(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                               millis(rs.getTimestamp(4)), millis(rs.getTimestamp(5)), millis(rs.getTimestamp(6)),
+                               status != null ? (byte) statusPorNome(status).ordinal() : -1);
+        });
+    }
+
+    private static long millis(Timestamp data) {
+        return data != null ? data.getTime() : Emprestimo.SEM_DATA;
+    }
+
+    /**
+     * Abre um cursor para uma consulta baseada em SQL_SELECT_COMPLETO. As associações vêm
+     * da junção, pois a conexão fica ocupada pelo cursor até o Stream ser fechado.
+     */
+    private Stream<Emprestimo> streamCompletos(String sql) throws SQLException {
+        return CursorStream.abrir(pool, sql, null, rs -> mapearResultSet(rs, true));
+    }
+
+    /**
+     * Define como aluno e livro são carregados nas listagens.
+     * @param modoCarregamento o modo de carregamento das associações
+     */
+    public void setModoCarregamento(ModoCarregamento modoCarregamento) {
+        this.modoCarregamento = modoCarregamento;
+    }
+
+    /**
+     * @return o modo de carregamento das associações usado nas listagens
+     */
+    public ModoCarregamento getModoCarregamento() {
+        return modoCarregamento;
+    }
+
+    /**
+     * Retorna o início da consulta de listagem de acordo com o modo de carregamento.
+     * @return SELECT ... FROM com o alias "e" para a tabela emprestimos
+     */
+    private String sqlListagem() {
+        return modoCarregamento == ModoCarregamento.JUNCAO ? SQL_SELECT_COMPLETO : SQL_SELECT_SIMPLES;
+    }
+
+    /**
+     * Executa uma consulta obtida de sqlListagem() e mapeia os empréstimos com aluno e livro.
+     * Em ambos os modos, ids repetidos compartilham a mesma instância de Aluno e Livro.
+     * @param stmt a consulta já parametrizada
+     * @return lista de empréstimos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private List<Emprestimo> listar(PreparedStatement stmt) throws SQLException {
+        List<Emprestimo> emprestimos = new ArrayList<>();
+        
+        if (modoCarregamento == ModoCarregamento.JUNCAO) {
+            Map<Integer, Aluno> alunos = new HashMap<>();
+            Map<Integer, Livro> livros = new HashMap<>();
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Emprestimo emprestimo = mapearResultSet(rs);
+                    Emprestimo emprestimo = mapearResultSet(rs, false);
                     
-                    // Carrega aluno e livro associados
-                    emprestimo.setAluno(alunoDAO.buscarPorId(emprestimo.getAlunoId()));
-                    emprestimo.setLivro(livroDAO.buscarPorId(emprestimo.getLivroId()));
+                    Aluno aluno = alunos.get(emprestimo.getAlunoId());
+                    if (aluno == null) {
+                        aluno = AlunoDAO.mapear(rs, PRIMEIRA_COLUNA_ALUNO);
+                        alunos.put(aluno.getId(), aluno);
+                    }
+                    emprestimo.setAluno(aluno);
+                    
+                    Livro livro = livros.get(emprestimo.getLivroId());
+                    if (livro == null) {
+                        livro = LivroDAO.mapear(rs, PRIMEIRA_COLUNA_LIVRO);
+                        livros.put(livro.getId(), livro);
+                    }
+                    emprestimo.setLivro(livro);
                     
                     emprestimos.add(emprestimo);
                 }
             }
+        } else {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    emprestimos.add(mapearResultSet(rs, false));
+                }
+            }
+            
+            carregarAssociacoes(emprestimos);
         }
         
         return emprestimos;
     }
 
     /**
-     * Mapeia um ResultSet para um objeto Emprestimo.
+     * Carrega aluno e livro de uma lista de empréstimos com uma consulta por entidade
+     * (WHERE id IN (...)), compartilhando a instância entre empréstimos com o mesmo id.
+     * @param emprestimos os empréstimos a completar
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private void carregarAssociacoes(List<Emprestimo> emprestimos) throws SQLException {
+        if (emprestimos.isEmpty()) {
+            return;
+        }
+        
+        Set<Integer> alunoIds = new HashSet<>();
+        Set<Integer> livroIds = new HashSet<>();
+        for (Emprestimo emprestimo : emprestimos) {
+            alunoIds.add(emprestimo.getAlunoId());
+            livroIds.add(emprestimo.getLivroId());
+        }
+        
+        Map<Integer, Aluno> alunos = alunoDAO.buscarPorIds(alunoIds);
+        Map<Integer, Livro> livros = livroDAO.buscarPorIds(livroIds);
+        
+        for (Emprestimo emprestimo : emprestimos) {
+            emprestimo.setAluno(alunos.get(emprestimo.getAlunoId()));
+            emprestimo.setLivro(livros.get(emprestimo.getLivroId()));
+        }
+    }
+
+    /**
+     * Mapeia um ResultSet de SQL_SELECT_SIMPLES ou SQL_SELECT_COMPLETO para um objeto
+     * Emprestimo, lendo as colunas por posição.
      * @param rs o ResultSet contendo os dados do empréstimo
+     * @param comAssociacoes true se o ResultSet vem de SQL_SELECT_COMPLETO e o aluno e o livro
+     *                       devem ser preenchidos a partir das colunas da junção
      * @return o objeto Emprestimo mapeado
      * @throws SQLException se ocorrer um erro no banco de dados
      */
-    private Emprestimo mapearResultSet(ResultSet rs) throws SQLException {
+    private Emprestimo mapearResultSet(ResultSet rs, boolean comAssociacoes) throws SQLException {
         Emprestimo emprestimo = new Emprestimo();
-        emprestimo.setId(rs.getInt("id"));
-        emprestimo.setAlunoId(rs.getInt("aluno_id"));
-        emprestimo.setLivroId(rs.getInt("livro_id"));
-        emprestimo.setDataEmprestimo(rs.getTimestamp("data_emprestimo"));
-        emprestimo.setDataDevolucaoPrevista(rs.getTimestamp("data_devolucao_prevista"));
-        emprestimo.setDataDevolucaoEfetiva(rs.getTimestamp("data_devolucao_efetiva"));
+        emprestimo.setId(rs.getInt(1));
+        emprestimo.setAlunoId(rs.getInt(2));
+        emprestimo.setLivroId(rs.getInt(3));
+        emprestimo.setDataEmprestimo(rs.getTimestamp(4));
+        emprestimo.setDataDevolucaoPrevista(rs.getTimestamp(5));
+        emprestimo.setDataDevolucaoEfetiva(rs.getTimestamp(6));
         
         // Converte a string do status para o enum
-        String statusStr = rs.getString("status");
+        String statusStr = rs.getString(7);
         if (statusStr != null) {
-            emprestimo.setStatus(StatusEmprestimo.valueOf(statusStr));
+            emprestimo.setStatus(statusPorNome(statusStr));
+        }
+        
+        if (comAssociacoes) {
+            emprestimo.setAluno(AlunoDAO.mapear(rs, PRIMEIRA_COLUNA_ALUNO));
+            emprestimo.setLivro(LivroDAO.mapear(rs, PRIMEIRA_COLUNA_LIVRO));
         }
         
         return emprestimo;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converte o valor da coluna status para o enum, por uma tabela montada uma única vez.
+     * @param nome o valor da coluna
+     * @return o status correspondente
+     * @throws SQLException se o valor não corresponder a nenhum status
+     */
+    static StatusEmprestimo statusPorNome(String nome) throws SQLException {
+        StatusEmprestimo status = STATUS_POR_NOME.get(nome);
+        if (status == null) {
+            throw new SQLException("Status de empréstimo desconhecido: " + nome);
+        }
+        return status;
+    }
+}
@@ -4,16 +4,71 @@ import src.model.Livro;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Classe responsável pelas operações de acesso a dados para a entidade Livro.
  */
 public class LivroDAO {
-    private Connection conexao;
+    /**
+     * Estratégia das buscas por título e autor.
+     */
+    public enum ModoBusca {
+        // MATCH ... AGAINST em modo booleano sobre os índices FULLTEXT, ordenado por relevância
+        TEXTO_COMPLETO,
+        // LIKE '%termo%', que percorre a tabela inteira
+        LIKE
+    }
+
+    // Código de erro do MySQL quando não há índice FULLTEXT para as colunas do MATCH (ER_FT_MATCHING_KEY_NOT_FOUND)
+    private static final int ERRO_INDICE_TEXTO_AUSENTE = 1191;
+    // Tamanho mínimo de palavra indexada pelo InnoDB (innodb_ft_min_token_size)
+    private static final int TAMANHO_MINIMO_PALAVRA = 3;
+
+    // A quantidade disponível nunca é gravada a partir de um valor lido antes: empréstimos
+    // e devoluções a alteram concorrentemente. Uma mudança no total é aplicada a ela como
+    // diferença, calculada antes de quantidade_total ser alterada (o MySQL avalia as
+    // atribuições do SET da esquerda para a direita).
+    private static final String SQL_AJUSTE_QUANTIDADES =
+            "quantidade_disponivel = GREATEST(0, quantidade_disponivel + (? - quantidade_total)), " +
+            "quantidade_total = ?";
+
+    // Compartilhado entre as instâncias: após detectar a ausência dos índices, as buscas usam LIKE
+    private static volatile boolean indiceTextoDisponivel = true;
+
+    // Colunas lidas de livros, na ordem esperada por mapear(ResultSet, int)
+    static final String COLUNAS = "id, titulo, autor, editora, ano_publicacao, isbn, quantidade_total, " +
+                                  "quantidade_disponivel, data_cadastro";
+    static final int TOTAL_COLUNAS = 9;
+
+    // Cache das buscas por ID e ISBN, compartilhado por todas as instâncias do DAO
+    private static final CacheEntidades<Livro> CACHE = new CacheEntidades<>("livros",
+            ConexaoDB.lerInteiro("BIBLIOTECA_CACHE_LIVROS_BYTES", 8 * 1024 * 1024),
+            Livro::getId, Livro::getIsbn, LivroDAO::estimarTamanho, LivroDAO::copiar);
+
+    private PoolConexoes pool;
+    private ModoBusca modoBusca = ModoBusca.TEXTO_COMPLETO;
 
     public LivroDAO() throws SQLException {
-        this.conexao = ConexaoDB.getConexao();
+        this.pool = ConexaoDB.getPool();
+        
+        // Permite voltar às buscas com LIKE sem alterar o código
+        String modo = System.getenv("BIBLIOTECA_BUSCA_LIVROS");
+        if (modo != null && !modo.trim().isEmpty()) {
+            try {
+                this.modoBusca = ModoBusca.valueOf(modo.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Modo de busca inválido: " + modo + ". Usando " + modoBusca + ".");
+            }
+        }
     }
 
     /**
@@ -26,7 +81,8 @@ public class LivroDAO {
         String sql = "INSERT INTO livros (titulo, autor, editora, ano_publicacao, isbn, " +
                      "quantidade_total, quantidade_disponivel) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, livro.getTitulo());
             stmt.setString(2, livro.getAutor());
             stmt.setString(3, livro.getEditora());
@@ -48,33 +104,60 @@ public class LivroDAO {
                     throw new SQLException("Falha ao inserir livro, nenhum ID obtido.");
                 }
             }
-            
-            // Busca o livro completo (incluindo data de cadastro)
-            return buscarPorId(livro.getId());
         }
+        
+        // Busca o livro completo (incluindo data de cadastro)
+        return buscarPorId(livro.getId());
     }
 
     /**
      * Atualiza um livro existente no banco de dados.
+     * A quantidade disponível do objeto é ignorada; apenas a diferença na quantidade total
+     * é aplicada a ela.
      * @param livro o livro a ser atualizado
      * @return true se a atualização foi bem-sucedida, false caso contrário
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public boolean atualizar(Livro livro) throws SQLException {
         String sql = "UPDATE livros SET titulo = ?, autor = ?, editora = ?, ano_publicacao = ?, " +
-                     "isbn = ?, quantidade_total = ?, quantidade_disponivel = ? WHERE id = ?";
+                     "isbn = ?, " + SQL_AJUSTE_QUANTIDADES + " WHERE id = ?";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, livro.getTitulo());
             stmt.setString(2, livro.getAutor());
             stmt.setString(3, livro.getEditora());
             stmt.setInt(4, livro.getAnoPublicacao());
             stmt.setString(5, livro.getIsbn());
             stmt.setInt(6, livro.getQuantidadeTotal());
-            stmt.setInt(7, livro.getQuantidadeDisponivel());
+            stmt.setInt(7, livro.getQuantidadeTotal());
             stmt.setInt(8, livro.getId());
             
             int affectedRows = stmt.executeUpdate();
+            CACHE.invalidar(livro.getId());
+            return affectedRows > 0;
+        }
+    }
+
+    /**
+     * Altera a quantidade total de exemplares de um livro, ajustando a quantidade disponível
+     * pela mesma diferença (sem ficar negativa) em uma única instrução.
+     * @param id o ID do livro
+     * @param quantidadeTotal a nova quantidade total
+     * @return true se a atualização foi bem-sucedida, false caso contrário
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public boolean atualizarQuantidadeTotal(int id, int quantidadeTotal) throws SQLException {
+        String sql = "UPDATE livros SET " + SQL_AJUSTE_QUANTIDADES + " WHERE id = ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, quantidadeTotal);
+            stmt.setInt(2, quantidadeTotal);
+            stmt.setInt(3, id);
+            
+            int affectedRows = stmt.executeUpdate();
+            CACHE.invalidar(id);
             return affectedRows > 0;
         }
     }
@@ -88,10 +171,12 @@ public class LivroDAO {
     public boolean remover(int id) throws SQLException {
         String sql = "DELETE FROM livros WHERE id = ?";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, id);
             
             int affectedRows = stmt.executeUpdate();
+            CACHE.invalidar(id);
             return affectedRows > 0;
         }
     }
@@ -103,14 +188,23 @@ public class LivroDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public Livro buscarPorId(int id) throws SQLException {
-        String sql = "SELECT * FROM livros WHERE id = ?";
+        Livro emCache = CACHE.buscar(id);
+        if (emCache != null) {
+            return emCache;
+        }
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        long versaoCache = CACHE.versao();
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE id = ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapearResultSet(rs);
+                    Livro livro = mapearResultSet(rs);
+                    CACHE.armazenar(livro, versaoCache);
+                    return livro;
                 } else {
                     return null;
                 }
@@ -118,6 +212,56 @@ public class LivroDAO {
         }
     }
 
+    /**
+     * Busca vários livros pelos IDs, usando consultas WHERE id IN (...) em blocos
+     * de até {@value UtilSql#TAMANHO_BLOCO_IN} IDs.
+     * @param ids os IDs dos livros a serem buscados
+     * @return mapa do ID para o livro encontrado; IDs inexistentes ficam fora do mapa
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Map<Integer, Livro> buscarPorIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Livro> livros = new HashMap<>();
+        
+        // Só os IDs ausentes do cache são consultados no banco
+        List<Integer> lista = new ArrayList<>();
+        for (Integer id : ids) {
+            Livro emCache = CACHE.buscar(id);
+            if (emCache != null) {
+                livros.put(id, emCache);
+            } else {
+                lista.add(id);
+            }
+        }
+        if (lista.isEmpty()) {
+            return livros;
+        }
+        
+        long versaoCache = CACHE.versao();
+        
+        try (Connection conexao = pool.getConnection()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+                List<Integer> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+                String sql = "SELECT " + COLUNAS + " FROM livros WHERE id IN (" + UtilSql.placeholders(bloco.size()) + ")";
+                
+                try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < bloco.size(); i++) {
+                        stmt.setInt(i + 1, bloco.get(i));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Livro livro = mapearResultSet(rs);
+                            CACHE.armazenar(livro, versaoCache);
+                            livros.put(livro.getId(), livro);
+                        }
+                    }
+                }
+            }
+        }
+        
+        return livros;
+    }
+
     /**
      * Busca um livro pelo ISBN.
      * @param isbn o ISBN do livro a ser buscado
@@ -125,14 +269,23 @@ public class LivroDAO {
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public Livro buscarPorIsbn(String isbn) throws SQLException {
-        String sql = "SELECT * FROM livros WHERE isbn = ?";
+        Livro emCache = CACHE.buscarPorChave(isbn);
+        if (emCache != null) {
+            return emCache;
+        }
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        long versaoCache = CACHE.versao();
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE isbn = ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, isbn);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapearResultSet(rs);
+                    Livro livro = mapearResultSet(rs);
+                    CACHE.armazenar(livro, versaoCache);
+                    return livro;
                 } else {
                     return null;
                 }
@@ -147,9 +300,10 @@ public class LivroDAO {
      */
     public List<Livro> listarTodos() throws SQLException {
         List<Livro> livros = new ArrayList<>();
-        String sql = "SELECT * FROM livros ORDER BY titulo";
+        String sql = "SELECT " + COLUNAS + " FROM livros ORDER BY titulo";
         
-        try (Statement stmt = conexao.createStatement();
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -161,16 +315,35 @@ public class LivroDAO {
     }
 
     /**
-     * Busca livros pelo título (busca parcial).
+     * Percorre todos os livros em ordem de título lendo-os sob demanda de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de livros
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<Livro> streamTodos() throws SQLException {
+        return CursorStream.abrir(pool, "SELECT " + COLUNAS + " FROM livros ORDER BY titulo", null,
+                                  this::mapearResultSet);
+    }
+
+    /**
+     * Busca livros pelo título. No modo de texto completo, cada palavra é buscada como
+     * prefixo e os resultados vêm por relevância; sem o índice FULLTEXT, a busca é
+     * parcial com LIKE.
      * @param titulo parte do título a ser buscado
      * @return lista de livros que contêm o título buscado
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Livro> buscarPorTitulo(String titulo) throws SQLException {
+        List<Livro> encontrados = buscarTexto("titulo", montarConsultaBooleana(titulo), 0);
+        if (encontrados != null) {
+            return encontrados;
+        }
+        
         List<Livro> livros = new ArrayList<>();
-        String sql = "SELECT * FROM livros WHERE titulo LIKE ? ORDER BY titulo";
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE titulo LIKE ? ORDER BY titulo";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, "%" + titulo + "%");
             
             try (ResultSet rs = stmt.executeQuery()) {
@@ -184,16 +357,22 @@ public class LivroDAO {
     }
 
     /**
-     * Busca livros pelo autor (busca parcial).
+     * Busca livros pelo autor, com as mesmas regras de {@link #buscarPorTitulo(String)}.
      * @param autor parte do nome do autor a ser buscado
      * @return lista de livros que contêm o autor buscado
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     public List<Livro> buscarPorAutor(String autor) throws SQLException {
+        List<Livro> encontrados = buscarTexto("autor", montarConsultaBooleana(autor), 0);
+        if (encontrados != null) {
+            return encontrados;
+        }
+        
         List<Livro> livros = new ArrayList<>();
-        String sql = "SELECT * FROM livros WHERE autor LIKE ? ORDER BY autor, titulo";
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE autor LIKE ? ORDER BY autor, titulo";
         
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, "%" + autor + "%");
             
             try (ResultSet rs = stmt.executeQuery()) {
@@ -207,24 +386,343 @@ public class LivroDAO {
     }
 
     /**
-     * Atualiza a quantidade disponível de um livro.
+     * Busca livros pelo título ou pelo autor em uma única consulta, ordenados por relevância.
+     * Sem o índice FULLTEXT, ou se o termo não tiver palavras indexáveis, usa LIKE em
+     * ambas as colunas, em ordem de título.
+     * @param termo as palavras buscadas
+     * @param limite o número máximo de livros retornados
+     * @return lista de livros encontrados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public List<Livro> buscarTextoCompleto(String termo, int limite) throws SQLException {
+        List<Livro> encontrados = buscarTexto("titulo, autor", montarConsultaBooleana(termo), limite);
+        if (encontrados != null) {
+            return encontrados;
+        }
+        
+        List<Livro> livros = new ArrayList<>();
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE titulo LIKE ? OR autor LIKE ? ORDER BY titulo LIMIT ?";
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, "%" + termo + "%");
+            stmt.setString(2, "%" + termo + "%");
+            stmt.setInt(3, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    livros.add(mapearResultSet(rs));
+                }
+            }
+        }
+        
+        return livros;
+    }
+
+    /**
+     * Busca avançada pelo título ou pelo autor: a expressão é enviada ao MySQL como está,
+     * com os operadores do modo booleano (ex.: "+machado -assis", "\"dom casmurro\"").
+     * Sem o índice FULLTEXT, equivale a {@link #buscarTextoCompleto(String, int)}.
+     * @param expressao a expressão booleana
+     * @param limite o número máximo de livros retornados
+     * @return lista de livros encontrados, por relevância
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public List<Livro> buscarPorExpressaoBooleana(String expressao, int limite) throws SQLException {
+        String consulta = expressao == null || expressao.trim().isEmpty() ? null : expressao.trim();
+        List<Livro> encontrados = buscarTexto("titulo, autor", consulta, limite);
+        if (encontrados != null) {
+            return encontrados;
+        }
+        return buscarTextoCompleto(expressao, limite);
+    }
+
+    /**
+     * Executa uma busca MATCH ... AGAINST em modo booleano sobre as colunas informadas.
+     * @param colunas as colunas de um dos índices FULLTEXT de livros
+     * @param consulta a expressão booleana, ou null se o termo não tiver palavras indexáveis
+     * @param limite o número máximo de livros, ou 0 para todos
+     * @return os livros por relevância, ou null se a busca deve usar LIKE (modo LIKE,
+     *         índice ausente ou termo sem palavras indexáveis)
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private List<Livro> buscarTexto(String colunas, String consulta, int limite) throws SQLException {
+        if (modoBusca != ModoBusca.TEXTO_COMPLETO || !indiceTextoDisponivel || consulta == null) {
+            return null;
+        }
+        
+        String match = "MATCH(" + colunas + ") AGAINST (? IN BOOLEAN MODE)";
+        String sql = "SELECT " + COLUNAS + ", " + match + " AS relevancia FROM livros WHERE " + match +
+                     " ORDER BY relevancia DESC, titulo" + (limite > 0 ? " LIMIT ?" : "");
+        
+        List<Livro> livros = new ArrayList<>();
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, consulta);
+            stmt.setString(2, consulta);
+            if (limite > 0) {
+                stmt.setInt(3, limite);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    livros.add(mapearResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ERRO_INDICE_TEXTO_AUSENTE) {
+                throw e;
+            }
+            System.err.println("Índice FULLTEXT de livros não encontrado. Usando busca com LIKE.");
+            indiceTextoDisponivel = false;
+            return null;
+        }
+        
+        return livros;
+    }
+
+    /**
+     * Converte o termo digitado em uma expressão do modo booleano: cada palavra indexável
+     * se torna obrigatória e buscada como prefixo ("dom casmur" vira "+dom* +casmur*").
+     * Os operadores do modo booleano no termo são tratados como separadores de palavras,
+     * então "Jean-Paul Sartre" busca as três palavras; expressões booleanas só são
+     * aceitas por {@link #buscarPorExpressaoBooleana(String, int)}.
+     * @param termo o termo digitado
+     * @return a expressão booleana, ou null se não houver palavras indexáveis
+     */
+    static String montarConsultaBooleana(String termo) {
+        if (termo == null || termo.trim().isEmpty()) {
+            return null;
+        }
+        
+        StringBuilder consulta = new StringBuilder();
+        for (String palavra : termo.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (palavra.length() >= TAMANHO_MINIMO_PALAVRA) {
+                if (consulta.length() > 0) {
+                    consulta.append(' ');
+                }
+                consulta.append('+').append(palavra).append('*');
+            }
+        }
+        
+        return consulta.length() > 0 ? consulta.toString() : null;
+    }
+
+    /**
+     * Define a estratégia das buscas por título e autor.
+     * @param modoBusca o modo de busca
+     */
+    public void setModoBusca(ModoBusca modoBusca) {
+        this.modoBusca = modoBusca;
+    }
+
+    /**
+     * @return a estratégia atual das buscas por título e autor
+     */
+    public ModoBusca getModoBusca() {
+        return modoBusca;
+    }
+
+    /**
+     * Lista uma página de livros em ordem de título, usando paginação por chave.
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de livros na página
+     * @return a página de livros
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Livro> listarPagina(String token, int limite) throws SQLException {
+        return paginarPorTitulo(null, token, limite);
+    }
+
+    /**
+     * Busca uma página de livros pelo título (busca parcial), usando paginação por chave.
+     * @param titulo parte do título a ser buscado
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de livros na página
+     * @return a página de livros que contêm o título buscado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Livro> buscarPorTituloPagina(String titulo, String token, int limite) throws SQLException {
+        return paginarPorTitulo(titulo, token, limite);
+    }
+
+    /**
+     * Busca uma página de livros pelo autor (busca parcial), usando paginação por chave
+     * na ordem (autor, título).
+     * @param autor parte do nome do autor a ser buscado
+     * @param token o token retornado pela página anterior, ou null para a primeira página
+     * @param limite o número máximo de livros na página
+     * @return a página de livros que contêm o autor buscado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Pagina<Livro> buscarPorAutorPagina(String autor, String token, int limite) throws SQLException {
+        String[] chave = Pagina.decodificarToken(token, 3);
+        
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE autor LIKE ?" +
+                     (chave != null ? " AND (autor > ? OR (autor = ? AND (titulo > ? OR (titulo = ? AND id > ?))))" : "") +
+                     " ORDER BY autor, titulo, id";
+        
+        return Pagina.consultar(pool, sql, stmt -> {
+            stmt.setString(1, "%" + autor + "%");
+            if (chave != null) {
+                stmt.setString(2, chave[0]);
+                stmt.setString(3, chave[0]);
+                stmt.setString(4, chave[1]);
+                stmt.setString(5, chave[1]);
+                stmt.setInt(6, Integer.parseInt(chave[2]));
+            }
+        }, limite, this::mapearResultSet,
+           livro -> new String[]{livro.getAutor(), livro.getTitulo(), String.valueOf(livro.getId())});
+    }
+
+    /**
+     * Consulta uma página ordenada por (título, id), opcionalmente filtrada pelo título.
+     */
+    private Pagina<Livro> paginarPorTitulo(String filtroTitulo, String token, int limite) throws SQLException {
+        String[] chave = Pagina.decodificarToken(token, 2);
+        
+        List<String> condicoes = new ArrayList<>();
+        if (filtroTitulo != null) {
+            condicoes.add("titulo LIKE ?");
+        }
+        if (chave != null) {
+            condicoes.add("(titulo > ? OR (titulo = ? AND id > ?))");
+        }
+        
+        String sql = "SELECT " + COLUNAS + " FROM livros" +
+                     (condicoes.isEmpty() ? "" : " WHERE " + String.join(" AND ", condicoes)) +
+                     " ORDER BY titulo, id";
+        
+        return Pagina.consultar(pool, sql, stmt -> {
+            int i = 1;
+            if (filtroTitulo != null) {
+                stmt.setString(i++, "%" + filtroTitulo + "%");
+            }
+            if (chave != null) {
+                stmt.setString(i++, chave[0]);
+                stmt.setString(i++, chave[0]);
+                stmt.setInt(i, Integer.parseInt(chave[1]));
+            }
+        }, limite, this::mapearResultSet, livro -> new String[]{livro.getTitulo(), String.valueOf(livro.getId())});
+    }
+
+    /**
+     * Reserva um exemplar do livro com uma atualização condicional relativa, dentro de
+     * uma transação em andamento.
+     * @param conexao a conexão da transação
      * @param id o ID do livro
-     * @param quantidadeDisponivel a nova quantidade disponível
-     * @return true se a atualização foi bem-sucedida, false caso contrário
+     * @return true se havia exemplar disponível e ele foi reservado, false se o livro
+     *         não existe ou não tem exemplares disponíveis
      * @throws SQLException se ocorrer um erro no banco de dados
      */
-    public boolean atualizarQuantidadeDisponivel(int id, int quantidadeDisponivel) throws SQLException {
-        String sql = "UPDATE livros SET quantidade_disponivel = ? WHERE id = ?";
+    boolean decrementarDisponivel(Connection conexao, int id) throws SQLException {
+        String sql = "UPDATE livros SET quantidade_disponivel = quantidade_disponivel - 1 " +
+                     "WHERE id = ? AND quantidade_disponivel > 0";
         
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
-            stmt.setInt(1, quantidadeDisponivel);
-            stmt.setInt(2, id);
+            stmt.setInt(1, id);
             
             int affectedRows = stmt.executeUpdate();
             return affectedRows > 0;
         }
     }
 
+    /**
+     * Bloqueia os livros informados (SELECT ... FOR UPDATE) dentro de uma transação em
+     * andamento e retorna a quantidade disponível de cada um. As linhas são bloqueadas
+     * em ordem de ID para evitar deadlocks entre lotes concorrentes.
+     * @param conexao a conexão da transação
+     * @param ids os IDs dos livros
+     * @return mapa do ID para a quantidade disponível; IDs inexistentes ficam fora do mapa
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    Map<Integer, Integer> bloquearDisponiveis(Connection conexao, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Integer> disponiveis = new HashMap<>();
+        List<Integer> lista = new ArrayList<>(new TreeSet<>(ids));
+        
+        for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+            List<Integer> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+            String sql = "SELECT id, quantidade_disponivel FROM livros WHERE id IN (" +
+                         UtilSql.placeholders(bloco.size()) + ") ORDER BY id FOR UPDATE";
+            
+            try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+                for (int i = 0; i < bloco.size(); i++) {
+                    stmt.setInt(i + 1, bloco.get(i));
+                }
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        disponiveis.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            }
+        }
+        
+        return disponiveis;
+    }
+
+    /**
+     * Reserva vários exemplares com uma atualização relativa por livro, enviada em um
+     * único lote (addBatch/executeBatch) dentro de uma transação em andamento.
+     * @param conexao a conexão da transação
+     * @param quantidades mapa do ID do livro para o número de exemplares a reservar
+     * @throws SQLException se ocorrer um erro no banco de dados ou algum livro não tiver
+     *                      exemplares suficientes
+     */
+    void decrementarDisponiveis(Connection conexao, Map<Integer, Integer> quantidades) throws SQLException {
+        if (quantidades.isEmpty()) {
+            return;
+        }
+        
+        String sql = "UPDATE livros SET quantidade_disponivel = quantidade_disponivel - ? " +
+                     "WHERE id = ? AND quantidade_disponivel >= ?";
+        
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Integer> entrada : quantidades.entrySet()) {
+                stmt.setInt(1, entrada.getValue());
+                stmt.setInt(2, entrada.getKey());
+                stmt.setInt(3, entrada.getValue());
+                stmt.addBatch();
+            }
+            
+            for (int affectedRows : stmt.executeBatch()) {
+                // As linhas estão bloqueadas pela transação, então isso só ocorre se o chamador
+                // pedir mais exemplares do que os lidos em bloquearDisponiveis
+                if (affectedRows == 0) {
+                    throw new SQLException("Falha ao reservar exemplares, estoque insuficiente.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Devolve exemplares ao estoque com uma atualização relativa por livro, enviada em um
+     * único lote dentro de uma transação em andamento. O estoque nunca ultrapassa a
+     * quantidade total.
+     * @param conexao a conexão da transação
+     * @param quantidades mapa do ID do livro para o número de exemplares devolvidos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    void incrementarDisponiveis(Connection conexao, Map<Integer, Integer> quantidades) throws SQLException {
+        if (quantidades.isEmpty()) {
+            return;
+        }
+        
+        String sql = "UPDATE livros SET quantidade_disponivel = " +
+                     "LEAST(quantidade_disponivel + ?, quantidade_total) WHERE id = ?";
+        
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            // Ordem de ID, a mesma usada em bloquearDisponiveis, para evitar deadlocks
+            for (Map.Entry<Integer, Integer> entrada : new TreeMap<>(quantidades).entrySet()) {
+                stmt.setInt(1, entrada.getValue());
+                stmt.setInt(2, entrada.getKey());
+                stmt.addBatch();
+            }
+            
+            stmt.executeBatch();
+        }
+    }
+
     /**
      * Lista livros disponíveis para empréstimo.
      * @return lista de livros disponíveis
@@ -232,9 +730,10 @@ public class LivroDAO {
      */
     public List<Livro> listarDisponiveis() throws SQLException {
         List<Livro> livros = new ArrayList<>();
-        String sql = "SELECT * FROM livros WHERE quantidade_disponivel > 0 ORDER BY titulo";
+        String sql = "SELECT " + COLUNAS + " FROM livros WHERE quantidade_disponivel > 0 ORDER BY titulo";
         
-        try (Statement stmt = conexao.createStatement();
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -246,22 +745,201 @@ public class LivroDAO {
     }
 
     /**
-     * Mapeia um ResultSet para um objeto Livro.
+     * Percorre os livros disponíveis para empréstimo lendo-os sob demanda de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de livros disponíveis
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<Livro> streamDisponiveis() throws SQLException {
+        return CursorStream.abrir(pool, "SELECT " + COLUNAS + " FROM livros WHERE quantidade_disponivel > 0 ORDER BY titulo",
+                                  null, this::mapearResultSet);
+    }
+
+    /**
+     * Conta os livros cadastrados.
+     * @return o número de livros
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int contar() throws SQLException {
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM livros")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Percorre o ISBN de todos os livros lendo apenas essa coluna de um cursor.
+     * O Stream deve ser fechado (try-with-resources) para liberar a conexão.
+     * @return Stream de ISBNs
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Stream<String> streamIsbns() throws SQLException {
+        return CursorStream.abrir(pool, "SELECT isbn FROM livros WHERE isbn IS NOT NULL", null, rs -> rs.getString(1));
+    }
+
+    /**
+     * Insere vários livros em uma única transação, com os INSERTs enviados em lote
+     * (reescritos pelo driver como INSERTs de várias linhas). Os IDs gerados são
+     * atribuídos aos livros. Se algum INSERT falhar, nenhum livro é inserido.
+     * @param livros os livros a serem inseridos
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public void inserirLote(List<Livro> livros) throws SQLException {
+        if (livros.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO livros (titulo, autor, editora, ano_publicacao, isbn, " +
+                     "quantidade_total, quantidade_disponivel) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conexao = pool.getConnection()) {
+            conexao.setAutoCommit(false);
+            try (PreparedStatement stmt = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Livro livro : livros) {
+                    stmt.setString(1, livro.getTitulo());
+                    stmt.setString(2, livro.getAutor());
+                    stmt.setString(3, livro.getEditora());
+                    stmt.setInt(4, livro.getAnoPublicacao());
+                    stmt.setString(5, livro.getIsbn());
+                    stmt.setInt(6, livro.getQuantidadeTotal());
+                    stmt.setInt(7, livro.getQuantidadeDisponivel());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Livro livro : livros) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Falha ao inserir livros, IDs gerados incompletos.");
+                        }
+                        livro.setId(generatedKeys.getInt(1));
+                    }
+                }
+                
+                conexao.commit();
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Verifica quais dos ISBNs informados já estão cadastrados, com consultas IN em blocos.
+     * @param isbns os ISBNs a verificar
+     * @return os ISBNs cadastrados, como gravados no banco
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Set<String> filtrarIsbnsExistentes(Collection<String> isbns) throws SQLException {
+        Set<String> existentes = new HashSet<>();
+        List<String> lista = new ArrayList<>(new HashSet<>(isbns));
+        
+        try (Connection conexao = pool.getConnection()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += UtilSql.TAMANHO_BLOCO_IN) {
+                List<String> bloco = lista.subList(inicio, Math.min(inicio + UtilSql.TAMANHO_BLOCO_IN, lista.size()));
+                String sql = "SELECT isbn FROM livros WHERE isbn IN (" + UtilSql.placeholders(bloco.size()) + ")";
+                
+                try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < bloco.size(); i++) {
+                        stmt.setString(i + 1, bloco.get(i));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            existentes.add(rs.getString(1));
+                        }
+                    }
+                }
+            }
+        }
+        
+        return existentes;
+    }
+
+    /**
+     * Conta os empréstimos (de qualquer status) de cada livro, usado como popularidade.
+     * @return mapa do ID do livro para o número de empréstimos; livros sem empréstimos ficam fora do mapa
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Map<Integer, Integer> contarEmprestimos() throws SQLException {
+        Map<Integer, Integer> contagem = new HashMap<>();
+        String sql = "SELECT livro_id, COUNT(*) AS total FROM emprestimos GROUP BY livro_id";
+        
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                contagem.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        
+        return contagem;
+    }
+
+    /**
+     * Remove os livros do cache após uma alteração de estoque feita em uma transação
+     * de outro DAO. Deve ser chamado depois do commit.
+     * @param ids os IDs dos livros alterados
+     */
+    void invalidarCache(Collection<Integer> ids) {
+        for (int id : ids) {
+            CACHE.invalidar(id);
+        }
+    }
+
+    /**
+     * @return o cache de livros, para consulta das métricas
+     */
+    public static CacheEntidades<Livro> getCache() {
+        return CACHE;
+    }
+
+    private static Livro copiar(Livro livro) {
+        return new Livro(livro.getId(), livro.getTitulo(), livro.getAutor(), livro.getEditora(),
+                         livro.getAnoPublicacao(), livro.getIsbn(), livro.getQuantidadeTotal(),
+                         livro.getQuantidadeDisponivel(),
+                         livro.getDataCadastro() != null ? new Timestamp(livro.getDataCadastro().getTime()) : null);
+    }
+
+    private static int estimarTamanho(Livro livro) {
+        // Objeto, campos primitivos e data de cadastro, mais os textos
+        return 96 + CacheEntidades.tamanhoTexto(livro.getTitulo()) + CacheEntidades.tamanhoTexto(livro.getAutor()) +
+               CacheEntidades.tamanhoTexto(livro.getEditora()) + CacheEntidades.tamanhoTexto(livro.getIsbn());
+    }
+
+    /**
+     * Mapeia um ResultSet de uma consulta "SELECT " + COLUNAS para um objeto Livro.
      * @param rs o ResultSet contendo os dados do livro
      * @return o objeto Livro mapeado
      * @throws SQLException se ocorrer um erro no banco de dados
      */
     private Livro mapearResultSet(ResultSet rs) throws SQLException {
+        return mapear(rs, 1);
+    }
+
+    /**
+     * Mapeia as colunas de COLUNAS para um objeto Livro, lendo-as por posição a partir
+     * de {@code primeira}, sem procurar cada coluna pelo nome a cada linha.
+     * @param rs o ResultSet contendo os dados do livro
+     * @param primeira a posição da coluna id no ResultSet (a partir de 1)
+     * @return o objeto Livro mapeado
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    static Livro mapear(ResultSet rs, int primeira) throws SQLException {
         Livro livro = new Livro();
-        livro.setId(rs.getInt("id"));
-        livro.setTitulo(rs.getString("titulo"));
-        livro.setAutor(rs.getString("autor"));
-        livro.setEditora(rs.getString("editora"));
-        livro.setAnoPublicacao(rs.getInt("ano_publicacao"));
-        livro.setIsbn(rs.getString("isbn"));
-        livro.setQuantidadeTotal(rs.getInt("quantidade_total"));
-        livro.setQuantidadeDisponivel(rs.getInt("quantidade_disponivel"));
-        livro.setDataCadastro(rs.getTimestamp("data_cadastro"));
+        livro.setId(rs.getInt(primeira));
+        livro.setTitulo(rs.getString(primeira + 1));
+        livro.setAutor(rs.getString(primeira + 2));
+        livro.setEditora(rs.getString(primeira + 3));
+        livro.setAnoPublicacao(rs.getInt(primeira + 4));
+        livro.setIsbn(rs.getString(primeira + 5));
+        livro.setQuantidadeTotal(rs.getInt(primeira + 6));
+        livro.setQuantidadeDisponivel(rs.getInt(primeira + 7));
+        livro.setDataCadastro(rs.getTimestamp(primeira + 8));
         return livro;
     }
 }
\ No newline at end of file
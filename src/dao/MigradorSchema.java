@@ -0,0 +1,250 @@
+package src.dao;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Aplica, em ordem de versão, os scripts de migração do schema e registra as versões
+ * aplicadas na tabela schema_versao.
+ *
+ * Os scripts ficam no diretório definido por BIBLIOTECA_MIGRACOES_DIR (padrão
+ * sql-scripts/migracoes) e seguem o formato V&lt;versão&gt;__&lt;descrição&gt;.sql.
+ * Cada comando termina com ';' no fim da linha; linhas iniciadas por "--" são ignoradas.
+ */
+public class MigradorSchema {
+    private static final String DIRETORIO = System.getenv("BIBLIOTECA_MIGRACOES_DIR") != null ?
+                                            System.getenv("BIBLIOTECA_MIGRACOES_DIR") : "sql-scripts/migracoes";
+
+    private static final Pattern NOME_SCRIPT = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    // Impede que duas instâncias da aplicação migrem o schema ao mesmo tempo
+    private static final String NOME_BLOQUEIO = "biblioteca_migracoes";
+    private static final int ESPERA_BLOQUEIO_S = 60;
+
+    // Erros de objeto já existente/inexistente, tolerados ao reaplicar um script interrompido
+    private static final int ERRO_TABELA_EXISTENTE = 1050;
+    private static final int ERRO_COLUNA_DUPLICADA = 1060;
+    private static final int ERRO_INDICE_DUPLICADO = 1061;
+    private static final int ERRO_REMOCAO_INEXISTENTE = 1091;
+
+    private PoolConexoes pool;
+    private Path diretorio;
+
+    public MigradorSchema() throws SQLException {
+        this(Paths.get(DIRETORIO));
+    }
+
+    public MigradorSchema(Path diretorio) throws SQLException {
+        this.pool = ConexaoDB.getPool();
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Aplica os scripts ainda não registrados em schema_versao, em ordem crescente de versão.
+     * @return o número de scripts aplicados
+     * @throws SQLException se ocorrer um erro no banco de dados ao aplicar um script
+     * @throws IOException se não for possível ler os scripts
+     */
+    public int migrar() throws SQLException, IOException {
+        Map<Integer, Path> scripts = listarScripts();
+
+        try (Connection conexao = pool.getConnection()) {
+            bloquear(conexao);
+
+            try {
+                criarTabelaVersoes(conexao);
+                Map<Integer, Long> aplicadas = listarVersoesAplicadas(conexao);
+                int aplicados = 0;
+
+                for (Map.Entry<Integer, Path> script : scripts.entrySet()) {
+                    int versao = script.getKey();
+                    byte[] conteudo = Files.readAllBytes(script.getValue());
+                    long checksum = calcularChecksum(conteudo);
+
+                    if (aplicadas.containsKey(versao)) {
+                        if (aplicadas.get(versao) != checksum) {
+                            System.err.println("Aviso: o script de migração " + script.getValue().getFileName() +
+                                               " foi alterado após ser aplicado.");
+                        }
+                        continue;
+                    }
+
+                    aplicarScript(conexao, versao, script.getValue(), new String(conteudo, StandardCharsets.UTF_8), checksum);
+                    aplicados++;
+                }
+
+                return aplicados;
+            } finally {
+                liberar(conexao);
+            }
+        }
+    }
+
+    /**
+     * Lista os scripts do diretório de migrações, ordenados por versão.
+     */
+    private Map<Integer, Path> listarScripts() throws IOException {
+        Map<Integer, Path> scripts = new TreeMap<>();
+        if (!Files.isDirectory(diretorio)) {
+            System.err.println("Diretório de migrações não encontrado: " + diretorio.toAbsolutePath());
+            return scripts;
+        }
+
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "V*__*.sql")) {
+            for (Path arquivo : arquivos) {
+                Matcher matcher = NOME_SCRIPT.matcher(arquivo.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+
+                int versao = Integer.parseInt(matcher.group(1));
+                Path anterior = scripts.put(versao, arquivo);
+                if (anterior != null) {
+                    throw new IOException("Versão de migração duplicada: " + anterior.getFileName() +
+                                          " e " + arquivo.getFileName());
+                }
+            }
+        }
+
+        return scripts;
+    }
+
+    private void criarTabelaVersoes(Connection conexao) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_versao (" +
+                     "versao INT PRIMARY KEY, " +
+                     "descricao VARCHAR(200) NOT NULL, " +
+                     "checksum BIGINT NOT NULL, " +
+                     "duracao_ms BIGINT NOT NULL, " +
+                     "aplicada_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+
+        try (Statement stmt = conexao.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private Map<Integer, Long> listarVersoesAplicadas(Connection conexao) throws SQLException {
+        Map<Integer, Long> versoes = new HashMap<>();
+
+        try (Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT versao, checksum FROM schema_versao")) {
+            while (rs.next()) {
+                versoes.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+
+        return versoes;
+    }
+
+    /**
+     * Executa os comandos de um script e registra a versão. Comandos DDL do MySQL são
+     * confirmados implicitamente, então um script interrompido é reaplicado por inteiro
+     * na próxima execução, tolerando os objetos que já tinham sido criados ou removidos.
+     */
+    private void aplicarScript(Connection conexao, int versao, Path arquivo, String conteudo, long checksum)
+            throws SQLException {
+        String descricao = NOME_SCRIPT.matcher(arquivo.getFileName().toString()).replaceFirst("$2").replace('_', ' ');
+        long inicio = System.nanoTime();
+
+        System.out.println("Aplicando migração " + arquivo.getFileName() + "...");
+
+        try (Statement stmt = conexao.createStatement()) {
+            for (String comando : separarComandos(conteudo)) {
+                try {
+                    stmt.execute(comando);
+                } catch (SQLException e) {
+                    if (!isObjetoJaMigrado(e)) {
+                        throw new SQLException("Falha na migração " + arquivo.getFileName() + ": " + e.getMessage(), e);
+                    }
+                    System.err.println("Aviso: " + e.getMessage() + " (ignorado)");
+                }
+            }
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        String sql = "INSERT INTO schema_versao (versao, descricao, checksum, duracao_ms) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, versao);
+            stmt.setString(2, descricao);
+            stmt.setLong(3, checksum);
+            stmt.setLong(4, duracaoMs);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Separa o script em comandos terminados por ';' no fim da linha.
+     */
+    static List<String> separarComandos(String conteudo) {
+        List<String> comandos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+
+        for (String linha : conteudo.split("\\R")) {
+            String texto = linha.trim();
+            if (texto.isEmpty() || texto.startsWith("--")) {
+                continue;
+            }
+
+            if (texto.endsWith(";")) {
+                atual.append(texto, 0, texto.length() - 1);
+                comandos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(texto).append('\n');
+            }
+        }
+
+        if (atual.toString().trim().length() > 0) {
+            comandos.add(atual.toString().trim());
+        }
+
+        return comandos;
+    }
+
+    private boolean isObjetoJaMigrado(SQLException e) {
+        int codigo = e.getErrorCode();
+        return codigo == ERRO_TABELA_EXISTENTE || codigo == ERRO_COLUNA_DUPLICADA ||
+               codigo == ERRO_INDICE_DUPLICADO || codigo == ERRO_REMOCAO_INEXISTENTE;
+    }
+
+    private long calcularChecksum(byte[] conteudo) {
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+        return crc.getValue();
+    }
+
+    private void bloquear(Connection conexao) throws SQLException {
+        try (PreparedStatement stmt = conexao.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, NOME_BLOQUEIO);
+            stmt.setInt(2, ESPERA_BLOQUEIO_S);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Não foi possível obter o bloqueio de migração do schema.");
+                }
+            }
+        }
+    }
+
+    private void liberar(Connection conexao) {
+        try (PreparedStatement stmt = conexao.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, NOME_BLOQUEIO);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao liberar o bloqueio de migração: " + e.getMessage());
+        }
+    }
+}
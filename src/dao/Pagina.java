@@ -0,0 +1,118 @@
+package src.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados obtida por paginação por chave (keyset).
+ *
+ * O token de continuação é opaco para o chamador: basta repassá-lo na próxima
+ * chamada para obter a página seguinte. Cada página é lida a partir da última
+ * chave vista (WHERE chave > ? ... LIMIT n), de modo que o custo não cresce com
+ * o número da página, ao contrário de OFFSET.
+ */
+public class Pagina<T> {
+    // Separador das chaves dentro do token (não aparece em textos digitados)
+    private static final char SEPARADOR = '\u001F';
+
+    private final List<T> itens;
+    private final String proximoToken;
+
+    public Pagina(List<T> itens, String proximoToken) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.proximoToken = proximoToken;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return o token da próxima página, ou null se esta for a última
+     */
+    public String getProximoToken() {
+        return proximoToken;
+    }
+
+    public boolean temProxima() {
+        return proximoToken != null;
+    }
+
+    /**
+     * Executa a consulta de uma página. A consulta deve terminar em ORDER BY com as
+     * mesmas colunas devolvidas por chaves; o LIMIT é acrescentado aqui.
+     * @param pool o pool de conexões
+     * @param sql a consulta, sem LIMIT
+     * @param preparador define os parâmetros da consulta
+     * @param limite o tamanho da página
+     * @param mapeador converte cada linha
+     * @param chaves extrai as chaves de ordenação de um item, na ordem do ORDER BY
+     * @return a página lida
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    static <T> Pagina<T> consultar(PoolConexoes pool, String sql, CursorStream.PreparadorConsulta preparador,
+                                   int limite, CursorStream.MapeadorLinha<T> mapeador,
+                                   Function<T, String[]> chaves) throws SQLException {
+        List<T> itens = new ArrayList<>(limite);
+        boolean temMais = false;
+
+        // Uma linha a mais indica se existe próxima página sem precisar de COUNT
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql + " LIMIT " + (limite + 1))) {
+            preparador.preparar(stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (itens.size() == limite) {
+                        temMais = true;
+                        break;
+                    }
+                    itens.add(mapeador.mapear(rs));
+                }
+            }
+        }
+
+        String proximo = temMais ? codificarToken(chaves.apply(itens.get(itens.size() - 1))) : null;
+        return new Pagina<>(itens, proximo);
+    }
+
+    /**
+     * Codifica as chaves de ordenação do último item em um token opaco.
+     */
+    static String codificarToken(String... chaves) {
+        String texto = String.join(String.valueOf(SEPARADOR), chaves);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um token gerado por codificarToken.
+     * @param token o token recebido do chamador (null ou vazio para a primeira página)
+     * @param quantidade o número de chaves esperado
+     * @return as chaves, ou null se for a primeira página
+     * @throws IllegalArgumentException se o token for inválido
+     */
+    static String[] decodificarToken(String token, int quantidade) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] chaves = texto.split(String.valueOf(SEPARADOR), -1);
+            if (chaves.length != quantidade) {
+                throw new IllegalArgumentException("Token de paginação inválido.");
+            }
+            return chaves;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token de paginação inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package src.dao;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexões limitado usado pelos DAOs.
+ *
+ * Cada operação pega uma conexão emprestada e a devolve ao fechá-la, de modo que
+ * operações concorrentes usam conexões (e transações) independentes.
+ */
+public class PoolConexoes implements DataSource {
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final long tempoEsperaMillis;
+    private final long tempoOciosoMillis;
+    private final long limiteVazamentoMillis;
+
+    // Conexões físicas livres, a mais recente no início (LIFO mantém as conexões "quentes")
+    private final Deque<ConexaoOciosa> ociosas = new ArrayDeque<>();
+    // Conexões emprestadas, indexadas pelo proxy entregue ao chamador
+    private final Map<Connection, Emprestimo> emprestadas = new ConcurrentHashMap<>();
+    private final Semaphore permissoes;
+    private final ScheduledExecutorService manutencao;
+    private volatile boolean fechado = false;
+
+    /**
+     * Cria o pool e abre as conexões mínimas.
+     * @param url a URL JDBC
+     * @param usuario o usuário do banco
+     * @param senha a senha do banco
+     * @param tamanhoMinimo número de conexões mantidas abertas mesmo ociosas
+     * @param tamanhoMaximo número máximo de conexões simultâneas
+     * @param tempoEsperaMillis tempo máximo de espera por uma conexão livre
+     * @param tempoOciosoMillis tempo após o qual uma conexão ociosa acima do mínimo é fechada
+     * @param limiteVazamentoMillis tempo após o qual uma conexão emprestada é reportada como possível vazamento (0 desativa)
+     */
+    public PoolConexoes(String url, String usuario, String senha, int tamanhoMinimo, int tamanhoMaximo,
+                        long tempoEsperaMillis, long tempoOciosoMillis, long limiteVazamentoMillis) {
+        if (tamanhoMaximo <= 0 || tamanhoMinimo < 0 || tamanhoMinimo > tamanhoMaximo) {
+            throw new IllegalArgumentException("Tamanhos de pool inválidos: mínimo=" + tamanhoMinimo +
+                                               ", máximo=" + tamanhoMaximo);
+        }
+
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tempoEsperaMillis = tempoEsperaMillis;
+        this.tempoOciosoMillis = tempoOciosoMillis;
+        this.limiteVazamentoMillis = limiteVazamentoMillis;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexoes-manutencao");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long intervalo = Math.max(1000, Math.min(tempoOciosoMillis, 30000) / 2);
+        manutencao.scheduleWithFixedDelay(this::executarManutencao, intervalo, intervalo, TimeUnit.MILLISECONDS);
+
+        preencherMinimo();
+    }
+
+    /**
+     * Obtém uma conexão do pool. A conexão deve ser fechada pelo chamador para retornar ao pool.
+     * @return a conexão emprestada
+     * @throws SQLException se o pool estiver fechado, esgotado após o tempo de espera
+     *                      (SQLTransientConnectionException) ou a conexão falhar
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (fechado) {
+            throw new SQLException("Pool de conexões fechado.");
+        }
+
+        try {
+            if (!permissoes.tryAcquire(tempoEsperaMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Tempo esgotado aguardando conexão livre (" +
+                        tempoEsperaMillis + " ms, em uso: " + emprestadas.size() + "/" + tamanhoMaximo + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão livre.", e);
+        }
+
+        try {
+            Connection fisica = obterFisica();
+            Connection proxy = criarProxy(fisica);
+            emprestadas.put(proxy, new Emprestimo(fisica, limiteVazamentoMillis > 0 ? new Exception("Conexão emprestada aqui") : null));
+            return proxy;
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("O pool usa credenciais fixas.");
+    }
+
+    /**
+     * Fecha o pool e todas as conexões ociosas. Conexões emprestadas são fechadas ao serem devolvidas.
+     */
+    public void fechar() {
+        fechado = true;
+        manutencao.shutdownNow();
+
+        synchronized (ociosas) {
+            for (ConexaoOciosa ociosa : ociosas) {
+                fecharSilenciosamente(ociosa.conexao);
+            }
+            ociosas.clear();
+        }
+    }
+
+    /**
+     * @return número de conexões atualmente emprestadas
+     */
+    public int getConexoesEmUso() {
+        return emprestadas.size();
+    }
+
+    /**
+     * @return número de conexões abertas aguardando uso
+     */
+    public int getConexoesOciosas() {
+        synchronized (ociosas) {
+            return ociosas.size();
+        }
+    }
+
+    private Connection obterFisica() throws SQLException {
+        while (true) {
+            ConexaoOciosa ociosa;
+            synchronized (ociosas) {
+                ociosa = ociosas.pollFirst();
+            }
+
+            if (ociosa == null) {
+                return abrirFisica();
+            }
+
+            // Conexões que ficaram paradas por algum tempo são validadas antes do uso
+            long parada = System.currentTimeMillis() - ociosa.desde;
+            if (parada < 500 || ociosa.conexao.isValid(2)) {
+                return ociosa.conexao;
+            }
+
+            fecharSilenciosamente(ociosa.conexao);
+        }
+    }
+
+    private Connection abrirFisica() throws SQLException {
+        return DriverManager.getConnection(url, usuario, senha);
+    }
+
+    private void devolver(Connection proxy) {
+        Emprestimo emprestimo = emprestadas.remove(proxy);
+        if (emprestimo == null) {
+            return;
+        }
+
+        Connection fisica = emprestimo.conexao;
+        try {
+            // Garante que a próxima operação não herde uma transação aberta
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+
+            if (fechado || fisica.isClosed()) {
+                fecharSilenciosamente(fisica);
+            } else {
+                synchronized (ociosas) {
+                    ociosas.addFirst(new ConexaoOciosa(fisica));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Conexão descartada ao retornar ao pool: " + e.getMessage());
+            fecharSilenciosamente(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private void executarManutencao() {
+        try {
+            removerOciosasExpiradas();
+            preencherMinimo();
+            detectarVazamentos();
+        } catch (RuntimeException e) {
+            System.err.println("Erro na manutenção do pool de conexões: " + e.getMessage());
+        }
+    }
+
+    private void removerOciosasExpiradas() {
+        List<Connection> expiradas = new ArrayList<>();
+        long limite = System.currentTimeMillis() - tempoOciosoMillis;
+
+        synchronized (ociosas) {
+            // As mais antigas ficam no fim da fila
+            Iterator<ConexaoOciosa> it = ociosas.descendingIterator();
+            while (it.hasNext() && ociosas.size() + emprestadas.size() > tamanhoMinimo) {
+                ConexaoOciosa ociosa = it.next();
+                if (ociosa.desde > limite) {
+                    break;
+                }
+                it.remove();
+                expiradas.add(ociosa.conexao);
+            }
+        }
+
+        for (Connection conexao : expiradas) {
+            fecharSilenciosamente(conexao);
+        }
+    }
+
+    private void preencherMinimo() {
+        while (!fechado) {
+            synchronized (ociosas) {
+                if (ociosas.size() + emprestadas.size() >= tamanhoMinimo) {
+                    return;
+                }
+            }
+
+            try {
+                Connection conexao = abrirFisica();
+                synchronized (ociosas) {
+                    ociosas.addLast(new ConexaoOciosa(conexao));
+                }
+            } catch (SQLException e) {
+                System.err.println("Não foi possível abrir conexão mínima do pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void detectarVazamentos() {
+        if (limiteVazamentoMillis <= 0) {
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+        for (Emprestimo emprestimo : emprestadas.values()) {
+            if (!emprestimo.reportado && agora - emprestimo.desde > limiteVazamentoMillis) {
+                emprestimo.reportado = true;
+                System.err.println("Possível vazamento de conexão: emprestada há " + (agora - emprestimo.desde) + " ms.");
+                emprestimo.origem.printStackTrace();
+            }
+        }
+    }
+
+    private Connection criarProxy(Connection fisica) {
+        InvocationHandler handler = new InvocationHandler() {
+            private volatile boolean fechada = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!fechada) {
+                            fechada = true;
+                            devolver((Connection) proxy);
+                        }
+                        return null;
+                    case "isClosed":
+                        return fechada || fisica.isClosed();
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "ConexaoPool[" + fisica + "]";
+                    default:
+                        break;
+                }
+
+                if (fechada) {
+                    throw new SQLException("Conexão já devolvida ao pool.");
+                }
+
+                try {
+                    return method.invoke(fisica, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static void fecharSilenciosamente(Connection conexao) {
+        try {
+            conexao.close();
+        } catch (SQLException e) {
+            // Conexão já inutilizável, nada a fazer
+        }
+    }
+
+    /**
+     * Conexão física livre e o instante em que voltou ao pool.
+     */
+    private static class ConexaoOciosa {
+        final Connection conexao;
+        final long desde = System.currentTimeMillis();
+
+        ConexaoOciosa(Connection conexao) {
+            this.conexao = conexao;
+        }
+    }
+
+    /**
+     * Registro de uma conexão emprestada, usado na detecção de vazamentos.
+     */
+    private static class Emprestimo {
+        final Connection conexao;
+        final Exception origem;
+        final long desde = System.currentTimeMillis();
+        volatile boolean reportado = false;
+
+        Emprestimo(Connection conexao, Exception origem) {
+            this.conexao = conexao;
+            this.origem = origem;
+        }
+    }
+
+    // Métodos de DataSource sem uso neste pool
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Não é possível converter para " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,86 @@
+package src.dao;
+
+import src.model.ResumoAcervo;
+import src.model.ResumoEmprestimos;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe responsável pelas consultas agregadas dos relatórios. Os totais são calculados
+ * pelo banco, sem trazer as linhas das tabelas para a aplicação.
+ */
+public class RelatorioDAO {
+    private PoolConexoes pool;
+
+    public RelatorioDAO() throws SQLException {
+        this.pool = ConexaoDB.getPool();
+    }
+
+    /**
+     * Calcula o número de títulos e as somas de exemplares do acervo.
+     * @return os totais do acervo
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public ResumoAcervo resumirAcervo() throws SQLException {
+        String sql = "SELECT COUNT(*), COALESCE(SUM(quantidade_total), 0), COALESCE(SUM(quantidade_disponivel), 0) " +
+                     "FROM livros";
+        
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (!rs.next()) {
+                return new ResumoAcervo();
+            }
+            return new ResumoAcervo(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        }
+    }
+
+    /**
+     * Conta os empréstimos de cada status, e quantos deles ainda não foram devolvidos,
+     * com uma única consulta agrupada.
+     * @return as contagens por status
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public ResumoEmprestimos resumirEmprestimos() throws SQLException {
+        String sql = "SELECT status, COUNT(*), SUM(data_devolucao_efetiva IS NULL) FROM emprestimos GROUP BY status";
+        ResumoEmprestimos resumo = new ResumoEmprestimos();
+        
+        try (Connection conexao = pool.getConnection();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                resumo.adicionar(EmprestimoDAO.statusPorNome(rs.getString(1)), rs.getLong(2), rs.getLong(3));
+            }
+        }
+        
+        return resumo;
+    }
+
+    /**
+     * Conta os empréstimos de cada livro e seleciona os mais emprestados, com o
+     * agrupamento, a ordenação e o limite feitos pelo banco.
+     * @param limite o número máximo de livros
+     * @return mapa do ID do livro para o número de empréstimos, do mais para o menos
+     *         emprestado (empates pelo menor ID)
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public Map<Integer, Long> listarLivrosMaisEmprestados(int limite) throws SQLException {
+        String sql = "SELECT livro_id, COUNT(*) FROM emprestimos GROUP BY livro_id ORDER BY 2 DESC, livro_id LIMIT ?";
+        Map<Integer, Long> contagens = new LinkedHashMap<>();
+        
+        try (Connection conexao = pool.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    contagens.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+        
+        return contagens;
+    }
+}
@@ -0,0 +1,38 @@
+package src.dao;
+
+/**
+ * Funções auxiliares para montagem de comandos SQL compartilhadas pelos DAOs.
+ */
+final class UtilSql {
+    // Máximo de parâmetros por consulta IN, bem abaixo do limite de placeholders do MySQL
+    static final int TAMANHO_BLOCO_IN = 1000;
+
+    private UtilSql() {
+    }
+
+    /**
+     * Monta a lista de marcadores de parâmetro para uma cláusula IN.
+     * @param quantidade o número de parâmetros
+     * @return texto no formato "?, ?, ?"
+     */
+    static String placeholders(int quantidade) {
+        StringBuilder sb = new StringBuilder(quantidade * 3);
+        for (int i = 0; i < quantidade; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Qualifica cada coluna de uma lista com o alias da tabela.
+     * @param alias o alias da tabela na consulta
+     * @param colunas lista de colunas separadas por ", "
+     * @return texto no formato "alias.coluna1, alias.coluna2"
+     */
+    static String qualificar(String alias, String colunas) {
+        return alias + "." + colunas.replace(", ", ", " + alias + ".");
+    }
+}
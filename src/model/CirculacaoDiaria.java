@@ -0,0 +1,128 @@
+package src.model;
+
+import java.time.LocalDate;
+
+/**
+ * Classe que representa a circulação consolidada de um dia para uma chave de uma
+ * dimensão (toda a biblioteca, um livro ou uma coorte de alunos).
+ */
+public class CirculacaoDiaria {
+    private LocalDate dia;
+    private Dimensao dimensao;
+    private String chave;
+    private int emprestimos;
+    private int devolucoes;
+    private int devolucoesAtrasadas;
+    private int ativos;
+    private int atrasados;
+
+    /**
+     * Enum para representar o agrupamento da consolidação
+     */
+    public enum Dimensao {
+        // Totais da biblioteca (chave vazia)
+        GERAL,
+        // Por livro (chave = ID do livro)
+        LIVRO,
+        // Por coorte de alunos (chave = prefixo da matrícula)
+        COORTE
+    }
+
+    // Construtor padrão
+    public CirculacaoDiaria() {
+    }
+
+    // Construtor completo
+    public CirculacaoDiaria(LocalDate dia, Dimensao dimensao, String chave, int emprestimos, int devolucoes,
+                            int devolucoesAtrasadas, int ativos, int atrasados) {
+        this.dia = dia;
+        this.dimensao = dimensao;
+        this.chave = chave;
+        this.emprestimos = emprestimos;
+        this.devolucoes = devolucoes;
+        this.devolucoesAtrasadas = devolucoesAtrasadas;
+        this.ativos = ativos;
+        this.atrasados = atrasados;
+    }
+
+    // Getters e Setters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public Dimensao getDimensao() {
+        return dimensao;
+    }
+
+    public void setDimensao(Dimensao dimensao) {
+        this.dimensao = dimensao;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public int getEmprestimos() {
+        return emprestimos;
+    }
+
+    public void setEmprestimos(int emprestimos) {
+        this.emprestimos = emprestimos;
+    }
+
+    public int getDevolucoes() {
+        return devolucoes;
+    }
+
+    public void setDevolucoes(int devolucoes) {
+        this.devolucoes = devolucoes;
+    }
+
+    public int getDevolucoesAtrasadas() {
+        return devolucoesAtrasadas;
+    }
+
+    public void setDevolucoesAtrasadas(int devolucoesAtrasadas) {
+        this.devolucoesAtrasadas = devolucoesAtrasadas;
+    }
+
+    // Empréstimos em aberto no fim do dia
+    public int getAtivos() {
+        return ativos;
+    }
+
+    public void setAtivos(int ativos) {
+        this.ativos = ativos;
+    }
+
+    // Empréstimos em aberto e vencidos no fim do dia
+    public int getAtrasados() {
+        return atrasados;
+    }
+
+    public void setAtrasados(int atrasados) {
+        this.atrasados = atrasados;
+    }
+
+    @Override
+    public String toString() {
+        return "CirculacaoDiaria{" +
+                "dia=" + dia +
+                ", dimensao=" + dimensao +
+                ", chave='" + chave + '\'' +
+                ", emprestimos=" + emprestimos +
+                ", devolucoes=" + devolucoes +
+                ", devolucoesAtrasadas=" + devolucoesAtrasadas +
+                ", ativos=" + ativos +
+                ", atrasados=" + atrasados +
+                '}';
+    }
+}
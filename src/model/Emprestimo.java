@@ -1,6 +1,9 @@
 package src.model;
 
 import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -10,10 +13,18 @@ public class Emprestimo {
     private int id;
     private int alunoId;
     private int livroId;
-    private Timestamp dataEmprestimo;
-    private Timestamp dataDevolucaoPrevista;
-    private Timestamp dataDevolucaoEfetiva;
+    // Datas em milissegundos desde a época (SEM_DATA = não informada), para que as
+    // verificações de atraso não criem objetos
+    private long dataEmprestimo = SEM_DATA;
+    private long dataDevolucaoPrevista = SEM_DATA;
+    private long dataDevolucaoEfetiva = SEM_DATA;
     private StatusEmprestimo status;
+
+    // Valor das datas não informadas
+    public static final long SEM_DATA = Long.MIN_VALUE;
+
+    // Relógio usado como "agora" nas verificações de atraso; substituível em testes
+    private static volatile Clock relogio = Clock.systemDefaultZone();
     
     // Aluno e Livro associados (não armazenados no banco, apenas para facilitar operações)
     private Aluno aluno;
@@ -36,8 +47,8 @@ public class Emprestimo {
     public Emprestimo(int alunoId, int livroId, Timestamp dataEmprestimo, Timestamp dataDevolucaoPrevista) {
         this.alunoId = alunoId;
         this.livroId = livroId;
-        this.dataEmprestimo = dataEmprestimo;
-        this.dataDevolucaoPrevista = dataDevolucaoPrevista;
+        setDataEmprestimo(dataEmprestimo);
+        setDataDevolucaoPrevista(dataDevolucaoPrevista);
         this.status = StatusEmprestimo.ATIVO;
     }
 
@@ -48,9 +59,9 @@ public class Emprestimo {
         this.id = id;
         this.alunoId = alunoId;
         this.livroId = livroId;
-        this.dataEmprestimo = dataEmprestimo;
-        this.dataDevolucaoPrevista = dataDevolucaoPrevista;
-        this.dataDevolucaoEfetiva = dataDevolucaoEfetiva;
+        setDataEmprestimo(dataEmprestimo);
+        setDataDevolucaoPrevista(dataDevolucaoPrevista);
+        setDataDevolucaoEfetiva(dataDevolucaoEfetiva);
         this.status = status;
     }
 
@@ -79,28 +90,46 @@ public class Emprestimo {
         this.livroId = livroId;
     }
 
+    // Os getters de data criam um novo Timestamp a cada chamada; os getters *Millis não alocam
     public Timestamp getDataEmprestimo() {
-        return dataEmprestimo;
+        return paraTimestamp(dataEmprestimo);
     }
 
     public void setDataEmprestimo(Timestamp dataEmprestimo) {
-        this.dataEmprestimo = dataEmprestimo;
+        this.dataEmprestimo = paraMillis(dataEmprestimo);
+    }
+
+    public long getDataEmprestimoMillis() {
+        return dataEmprestimo;
     }
 
     public Timestamp getDataDevolucaoPrevista() {
-        return dataDevolucaoPrevista;
+        return paraTimestamp(dataDevolucaoPrevista);
     }
 
     public void setDataDevolucaoPrevista(Timestamp dataDevolucaoPrevista) {
-        this.dataDevolucaoPrevista = dataDevolucaoPrevista;
+        this.dataDevolucaoPrevista = paraMillis(dataDevolucaoPrevista);
+    }
+
+    public long getDataDevolucaoPrevistaMillis() {
+        return dataDevolucaoPrevista;
     }
 
     public Timestamp getDataDevolucaoEfetiva() {
-        return dataDevolucaoEfetiva;
+        return paraTimestamp(dataDevolucaoEfetiva);
     }
 
     public void setDataDevolucaoEfetiva(Timestamp dataDevolucaoEfetiva) {
-        this.dataDevolucaoEfetiva = dataDevolucaoEfetiva;
+        this.dataDevolucaoEfetiva = paraMillis(dataDevolucaoEfetiva);
+    }
+
+    // SEM_DATA (Long.MIN_VALUE) se o livro não foi devolvido
+    public long getDataDevolucaoEfetivaMillis() {
+        return dataDevolucaoEfetiva;
+    }
+
+    public boolean isDevolvido() {
+        return dataDevolucaoEfetiva != SEM_DATA;
     }
 
     public StatusEmprestimo getStatus() {
@@ -128,30 +157,47 @@ public class Emprestimo {
     }
 
     /**
-     * Verifica se o empréstimo está atrasado.
+     * Verifica se o empréstimo está atrasado no instante atual do relógio.
      * @return true se a data atual é posterior à data prevista de devolução e o livro não foi devolvido
      */
     public boolean isAtrasado() {
-        if (status == StatusEmprestimo.DEVOLVIDO) {
+        return isAtrasado(agora());
+    }
+
+    /**
+     * Verifica se o empréstimo está atrasado em um instante de referência, sem criar objetos.
+     * @param agora o instante de referência, em milissegundos desde a época
+     * @return true se o instante é posterior à data prevista de devolução e o livro não foi devolvido
+     */
+    public boolean isAtrasado(long agora) {
+        if (status == StatusEmprestimo.DEVOLVIDO || dataDevolucaoPrevista == SEM_DATA) {
             return false;
         }
         
-        Timestamp agora = new Timestamp(System.currentTimeMillis());
-        return agora.after(dataDevolucaoPrevista);
+        return agora > dataDevolucaoPrevista;
     }
 
     /**
-     * Calcula o número de dias de atraso.
+     * Calcula o número de dias de atraso no instante atual do relógio.
      * @return número de dias de atraso, ou 0 se não estiver atrasado
      */
     public long getDiasAtraso() {
-        if (!isAtrasado()) {
+        return getDiasAtraso(agora());
+    }
+
+    /**
+     * Calcula o número de dias de atraso em um instante de referência, sem criar objetos.
+     * Para empréstimos já devolvidos, o atraso é contado até a data de devolução.
+     * @param agora o instante de referência, em milissegundos desde a época
+     * @return número de dias de atraso, ou 0 se não estiver atrasado
+     */
+    public long getDiasAtraso(long agora) {
+        if (!isAtrasado(agora)) {
             return 0;
         }
         
-        Timestamp referencia = (dataDevolucaoEfetiva != null) ? dataDevolucaoEfetiva : new Timestamp(System.currentTimeMillis());
-        long diff = referencia.getTime() - dataDevolucaoPrevista.getTime();
-        return TimeUnit.DAYS.convert(diff, TimeUnit.MILLISECONDS);
+        long referencia = isDevolvido() ? dataDevolucaoEfetiva : agora;
+        return TimeUnit.MILLISECONDS.toDays(referencia - dataDevolucaoPrevista);
     }
 
     /**
@@ -159,20 +205,81 @@ public class Emprestimo {
      * @param dataEfetiva data efetiva da devolução
      */
     public void registrarDevolucao(Timestamp dataEfetiva) {
-        this.dataDevolucaoEfetiva = dataEfetiva;
-        this.status = (dataEfetiva.after(dataDevolucaoPrevista)) ? 
+        this.dataDevolucaoEfetiva = dataEfetiva.getTime();
+        this.status = (dataDevolucaoPrevista != SEM_DATA && dataDevolucaoEfetiva > dataDevolucaoPrevista) ? 
                       StatusEmprestimo.ATRASADO : StatusEmprestimo.DEVOLVIDO;
     }
 
+    /**
+     * Conta os empréstimos atrasados de uma coleção, com um único instante de referência
+     * para todos.
+     * @param emprestimos os empréstimos
+     * @return o número de empréstimos atrasados
+     */
+    public static int contarAtrasados(Collection<Emprestimo> emprestimos) {
+        long agora = agora();
+        int atrasados = 0;
+        for (Emprestimo emprestimo : emprestimos) {
+            if (emprestimo.isAtrasado(agora)) {
+                atrasados++;
+            }
+        }
+        return atrasados;
+    }
+
+    /**
+     * Calcula os dias de atraso de cada empréstimo de uma coleção, com um único instante
+     * de referência para todos.
+     * @param emprestimos os empréstimos
+     * @return os dias de atraso, na ordem de iteração da coleção
+     */
+    public static long[] calcularDiasAtraso(Collection<Emprestimo> emprestimos) {
+        long agora = agora();
+        long[] dias = new long[emprestimos.size()];
+        int i = 0;
+        for (Emprestimo emprestimo : emprestimos) {
+            dias[i++] = emprestimo.getDiasAtraso(agora);
+        }
+        return dias;
+    }
+
+    /**
+     * @return o instante atual do relógio, em milissegundos desde a época
+     */
+    public static long agora() {
+        return relogio.millis();
+    }
+
+    /**
+     * Substitui o relógio usado nas verificações de atraso (por exemplo, por um
+     * Clock.fixed em testes).
+     * @param relogio o novo relógio
+     */
+    public static void setRelogio(Clock relogio) {
+        Emprestimo.relogio = Objects.requireNonNull(relogio);
+    }
+
+    public static Clock getRelogio() {
+        return relogio;
+    }
+
+    private static long paraMillis(Timestamp data) {
+        return data != null ? data.getTime() : SEM_DATA;
+    }
+
+    private static Timestamp paraTimestamp(long millis) {
+        return millis != SEM_DATA ? new Timestamp(millis) : null;
+    }
+
     @Override
     public String toString() {
         return "Emprestimo{" +
                 "id=" + id +
                 ", alunoId=" + alunoId +
                 ", livroId=" + livroId +
-                ", dataEmprestimo=" + dataEmprestimo +
-                ", dataDevolucaoPrevista=" + dataDevolucaoPrevista +
-                ", dataDevolucaoEfetiva=" + dataDevolucaoEfetiva +
+                ", dataEmprestimo=" + getDataEmprestimo() +
+                ", dataDevolucaoPrevista=" + getDataDevolucaoPrevista() +
+                ", dataDevolucaoEfetiva=" + getDataDevolucaoEfetiva() +
                 ", status=" + status +
                 '}';
     }
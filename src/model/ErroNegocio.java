@@ -0,0 +1,68 @@
+package src.model;
+
+/**
+ * Falha prevista pelas regras de negócio: um registro inexistente ou uma operação em
+ * conflito com o estado atual (livro indisponível, devolução repetida, matrícula ou ISBN
+ * já cadastrados). Distingue essas falhas dos dados inválidos e dos erros de banco.
+ */
+public class ErroNegocio extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public enum Tipo {
+        NAO_ENCONTRADO,
+        CONFLITO
+    }
+
+    private final Tipo tipo;
+
+    public ErroNegocio(Tipo tipo, String mensagem) {
+        this(tipo, mensagem, null);
+    }
+
+    public ErroNegocio(Tipo tipo, String mensagem, Throwable causa) {
+        super(mensagem, causa);
+        this.tipo = tipo;
+    }
+
+    /**
+     * Cria o erro de um registro inexistente.
+     * @param mensagem a descrição do erro
+     * @return o erro
+     */
+    public static ErroNegocio naoEncontrado(String mensagem) {
+        return new ErroNegocio(Tipo.NAO_ENCONTRADO, mensagem);
+    }
+
+    /**
+     * Cria o erro de um registro inexistente, detectado a partir de outra exceção.
+     * @param mensagem a descrição do erro
+     * @param causa a exceção original (ex.: violação de chave estrangeira)
+     * @return o erro
+     */
+    public static ErroNegocio naoEncontrado(String mensagem, Throwable causa) {
+        return new ErroNegocio(Tipo.NAO_ENCONTRADO, mensagem, causa);
+    }
+
+    /**
+     * Cria o erro de uma operação em conflito com o estado atual.
+     * @param mensagem a descrição do erro
+     * @return o erro
+     */
+    public static ErroNegocio conflito(String mensagem) {
+        return new ErroNegocio(Tipo.CONFLITO, mensagem);
+    }
+
+    /**
+     * Cria o erro de uma operação em conflito, detectado a partir de outra exceção.
+     * @param mensagem a descrição do erro
+     * @param causa a exceção original (ex.: violação de chave única)
+     * @return o erro
+     */
+    public static ErroNegocio conflito(String mensagem, Throwable causa) {
+        return new ErroNegocio(Tipo.CONFLITO, mensagem, causa);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+}
@@ -0,0 +1,61 @@
+package src.model;
+
+/**
+ * Classe que representa a solicitação de um empréstimo em uma operação em lote.
+ */
+public class PedidoEmprestimo {
+    private int alunoId;
+    private int livroId;
+    private Integer diasEmprestimo;
+
+    // Construtor padrão
+    public PedidoEmprestimo() {
+    }
+
+    // Construtor com o período padrão de empréstimo
+    public PedidoEmprestimo(int alunoId, int livroId) {
+        this.alunoId = alunoId;
+        this.livroId = livroId;
+    }
+
+    // Construtor completo
+    public PedidoEmprestimo(int alunoId, int livroId, Integer diasEmprestimo) {
+        this.alunoId = alunoId;
+        this.livroId = livroId;
+        this.diasEmprestimo = diasEmprestimo;
+    }
+
+    // Getters e Setters
+    public int getAlunoId() {
+        return alunoId;
+    }
+
+    public void setAlunoId(int alunoId) {
+        this.alunoId = alunoId;
+    }
+
+    public int getLivroId() {
+        return livroId;
+    }
+
+    public void setLivroId(int livroId) {
+        this.livroId = livroId;
+    }
+
+    public Integer getDiasEmprestimo() {
+        return diasEmprestimo;
+    }
+
+    public void setDiasEmprestimo(Integer diasEmprestimo) {
+        this.diasEmprestimo = diasEmprestimo;
+    }
+
+    @Override
+    public String toString() {
+        return "PedidoEmprestimo{" +
+                "alunoId=" + alunoId +
+                ", livroId=" + livroId +
+                ", diasEmprestimo=" + diasEmprestimo +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package src.model;
+
+/**
+ * Classe que representa os totais do acervo de livros, calculados no banco.
+ */
+public class ResumoAcervo {
+    private long titulos;
+    private long exemplares;
+    private long exemplaresDisponiveis;
+
+    // Construtor padrão
+    public ResumoAcervo() {
+    }
+
+    // Construtor completo
+    public ResumoAcervo(long titulos, long exemplares, long exemplaresDisponiveis) {
+        this.titulos = titulos;
+        this.exemplares = exemplares;
+        this.exemplaresDisponiveis = exemplaresDisponiveis;
+    }
+
+    // Getters e Setters
+    public long getTitulos() {
+        return titulos;
+    }
+
+    public void setTitulos(long titulos) {
+        this.titulos = titulos;
+    }
+
+    public long getExemplares() {
+        return exemplares;
+    }
+
+    public void setExemplares(long exemplares) {
+        this.exemplares = exemplares;
+    }
+
+    public long getExemplaresDisponiveis() {
+        return exemplaresDisponiveis;
+    }
+
+    public void setExemplaresDisponiveis(long exemplaresDisponiveis) {
+        this.exemplaresDisponiveis = exemplaresDisponiveis;
+    }
+
+    // Exemplares fora da biblioteca
+    public long getExemplaresEmprestados() {
+        return exemplares - exemplaresDisponiveis;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoAcervo{" +
+                "titulos=" + titulos +
+                ", exemplares=" + exemplares +
+                ", exemplaresDisponiveis=" + exemplaresDisponiveis +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package src.model;
+
+import src.model.Emprestimo.StatusEmprestimo;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Classe que representa as contagens de empréstimos por status, calculadas no banco.
+ */
+public class ResumoEmprestimos {
+    private final Map<StatusEmprestimo, Long> totalPorStatus = new EnumMap<>(StatusEmprestimo.class);
+    private final Map<StatusEmprestimo, Long> emAbertoPorStatus = new EnumMap<>(StatusEmprestimo.class);
+
+    // Construtor padrão
+    public ResumoEmprestimos() {
+    }
+
+    /**
+     * Registra as contagens de um status.
+     * @param status o status
+     * @param total o número de empréstimos com o status
+     * @param emAberto quantos deles ainda não têm data de devolução efetiva
+     */
+    public void adicionar(StatusEmprestimo status, long total, long emAberto) {
+        totalPorStatus.merge(status, total, Long::sum);
+        emAbertoPorStatus.merge(status, emAberto, Long::sum);
+    }
+
+    // Getters
+    public Map<StatusEmprestimo, Long> getTotalPorStatus() {
+        return Collections.unmodifiableMap(totalPorStatus);
+    }
+
+    public long getTotal(StatusEmprestimo status) {
+        return totalPorStatus.getOrDefault(status, 0L);
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (long quantidade : totalPorStatus.values()) {
+            total += quantidade;
+        }
+        return total;
+    }
+
+    // Empréstimos não devolvidos, no prazo ou atrasados (mesmo critério da listagem de ativos)
+    public long getAtivos() {
+        return emAbertoPorStatus.getOrDefault(StatusEmprestimo.ATIVO, 0L) +
+               emAbertoPorStatus.getOrDefault(StatusEmprestimo.ATRASADO, 0L);
+    }
+
+    public long getAtrasados() {
+        return getTotal(StatusEmprestimo.ATRASADO);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoEmprestimos{" +
+                "totalPorStatus=" + totalPorStatus +
+                ", ativos=" + getAtivos() +
+                '}';
+    }
+}
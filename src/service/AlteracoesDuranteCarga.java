@@ -0,0 +1,81 @@
+package src.service;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Registro das entidades alteradas antes de um índice em memória terminar de carregar.
+ *
+ * Enquanto a carga não é concluída, o cursor pode ou não ter visto a alteração, então ela
+ * não é aplicada ao índice: o ID fica pendente e é relido do banco ao final da carga. Os
+ * IDs pendentes são mantidos quando a carga falha, para que a próxima tentativa corrija
+ * também as entradas deixadas pela anterior.
+ */
+final class AlteracoesDuranteCarga {
+    private final Set<Integer> pendentes = new HashSet<>();
+    private volatile boolean concluida = false;
+
+    /**
+     * Releitura dos IDs alterados durante a carga.
+     */
+    interface Releitura {
+        void reler(Set<Integer> ids) throws SQLException;
+    }
+
+    /**
+     * @return true se a carga foi concluída
+     */
+    boolean isConcluida() {
+        return concluida;
+    }
+
+    /**
+     * Registra a alteração de uma entidade, já gravada no banco.
+     * @param id o ID da entidade alterada
+     * @return true se a carga foi concluída e o chamador deve atualizar o índice;
+     *         false se a alteração ficou pendente para a carga
+     */
+    boolean registrar(int id) {
+        if (concluida) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (concluida) {
+                return true;
+            }
+            pendentes.add(id);
+            return false;
+        }
+    }
+
+    /**
+     * Conclui a carga, relendo os IDs alterados até não restar nenhum pendente. Em caso de
+     * falha, os IDs retirados voltam a ficar pendentes e a carga não é concluída.
+     * @param releitura a releitura dos IDs no índice
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    void concluir(Releitura releitura) throws SQLException {
+        while (true) {
+            Set<Integer> ids;
+            synchronized (this) {
+                if (pendentes.isEmpty()) {
+                    concluida = true;
+                    return;
+                }
+                ids = new HashSet<>(pendentes);
+                pendentes.clear();
+            }
+
+            try {
+                releitura.reler(ids);
+            } catch (SQLException | RuntimeException e) {
+                synchronized (this) {
+                    pendentes.addAll(ids);
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -1,16 +1,44 @@
 package src.service;
 
 import src.dao.AlunoDAO;
+import src.dao.Pagina;
 import src.model.Aluno;
+import src.model.ErroNegocio;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Classe de serviço para operações relacionadas a alunos.
  */
 public class AlunoService {
     private AlunoDAO alunoDAO;
+    // Executor das operações *Async (null usa o pool padrão de ExecucaoAssincrona)
+    private volatile Executor executor;
+
+    // Limite de itens por página nas listagens paginadas
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
+    // Índice de autocompletar dos nomes, compartilhado por todas as instâncias do serviço
+    private static final IndiceAutocompletar INDICE_NOMES = new IndiceAutocompletar();
+    private static final AlteracoesDuranteCarga ALTERACOES_ALUNOS = new AlteracoesDuranteCarga();
+
+    // Limite de sugestões do autocompletar
+    private static final int MAXIMO_SUGESTOES = 50;
+
+    // Filtro de Bloom das matrículas cadastradas, compartilhado por todas as instâncias do serviço
+    private static volatile FiltroBloom filtroMatriculas;
+    private static final int CAPACIDADE_MINIMA_FILTRO = 100000;
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+    // Código de erro do MySQL para violação de chave única (ER_DUP_ENTRY)
+    private static final int ERRO_CHAVE_DUPLICADA = 1062;
 
     public AlunoService() {
         try {
@@ -19,6 +47,116 @@ public class AlunoService {
             System.err.println("Erro ao inicializar AlunoService: " + e.getMessage());
             throw new RuntimeException("Falha ao conectar ao banco de dados", e);
         }
+        
+        carregarIndice();
+        obterFiltroMatriculas();
+    }
+
+    /**
+     * Retorna o filtro de matrículas, criando-o (ou recriando-o, se já recebeu mais chaves
+     * do que a capacidade planejada) a partir de uma leitura da coluna matricula.
+     * @return o filtro, ou null se não foi possível carregá-lo
+     */
+    private FiltroBloom obterFiltroMatriculas() {
+        FiltroBloom filtro = filtroMatriculas;
+        if (filtro != null && !filtro.isSaturado()) {
+            return filtro;
+        }
+        
+        synchronized (AlunoService.class) {
+            if (filtroMatriculas == null || filtroMatriculas.isSaturado()) {
+                try {
+                    FiltroBloom novo = new FiltroBloom(Math.max(2 * alunoDAO.contar(), CAPACIDADE_MINIMA_FILTRO),
+                                                       TAXA_FALSO_POSITIVO);
+                    try (Stream<String> matriculas = alunoDAO.streamMatriculas()) {
+                        matriculas.forEach(novo::adicionar);
+                    }
+                    filtroMatriculas = novo;
+                } catch (SQLException | IllegalStateException e) {
+                    System.err.println("Erro ao carregar filtro de matrículas: " + e.getMessage());
+                }
+            }
+            return filtroMatriculas;
+        }
+    }
+
+    /**
+     * Indica se a matrícula pode já estar cadastrada. Uma resposta negativa é definitiva
+     * e dispensa a consulta ao banco; sem o filtro, a resposta é sempre positiva.
+     * @param matricula a matrícula
+     * @return false se a matrícula certamente não está cadastrada
+     */
+    private boolean matriculaPodeExistir(String matricula) {
+        FiltroBloom filtro = obterFiltroMatriculas();
+        return filtro == null || filtro.podeConter(matricula);
+    }
+
+    private static void registrarMatricula(String matricula) {
+        FiltroBloom filtro = filtroMatriculas;
+        if (filtro != null) {
+            filtro.adicionar(matricula);
+        }
+    }
+
+    /**
+     * Atualiza o índice de nomes e o filtro de matrículas com alunos gravados fora deste
+     * serviço (importação em lote).
+     * @param alunos os alunos inseridos ou atualizados, com os IDs
+     */
+    static void registrarAlunosImportados(List<Aluno> alunos) {
+        for (Aluno aluno : alunos) {
+            registrarMatricula(aluno.getMatricula());
+            if (ALTERACOES_ALUNOS.registrar(aluno.getId())) {
+                INDICE_NOMES.adicionar(aluno.getId(), aluno.getNome());
+            }
+        }
+    }
+
+    /**
+     * Carrega o índice de autocompletar dos nomes percorrendo os alunos com um cursor, na
+     * primeira chamada. Os alunos alterados durante a carga são relidos ao final dela. Em
+     * caso de falha, a carga é tentada novamente no uso seguinte.
+     * @return true se o índice está carregado
+     */
+    private boolean carregarIndice() {
+        if (ALTERACOES_ALUNOS.isConcluida()) {
+            return true;
+        }
+        
+        synchronized (INDICE_NOMES) {
+            if (!ALTERACOES_ALUNOS.isConcluida()) {
+                Map<Integer, String> nomes = new HashMap<>();
+                try (Stream<Aluno> alunos = alunoDAO.streamTodos()) {
+                    alunos.forEach(aluno -> nomes.put(aluno.getId(), aluno.getNome()));
+                    INDICE_NOMES.carregar(nomes, alunoDAO.contarEmprestimos());
+                    ALTERACOES_ALUNOS.concluir(this::reindexar);
+                } catch (SQLException | IllegalStateException e) {
+                    System.err.println("Erro ao carregar índice de alunos: " + e.getMessage());
+                }
+            }
+        }
+        
+        return ALTERACOES_ALUNOS.isConcluida();
+    }
+
+    /**
+     * Relê do banco os alunos informados, com o número de empréstimos, e atualiza o
+     * índice de nomes; os removidos saem dele.
+     * @param ids os IDs dos alunos alterados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private void reindexar(Set<Integer> ids) throws SQLException {
+        Map<Integer, Aluno> alunos = alunoDAO.buscarPorIds(ids);
+        Map<Integer, Integer> emprestimos = alunoDAO.contarEmprestimos();
+        for (int id : ids) {
+            Aluno aluno = alunos.get(id);
+            if (aluno != null) {
+                INDICE_NOMES.adicionar(id, aluno.getNome());
+                INDICE_NOMES.definirPopularidade(id, emprestimos.getOrDefault(id, 0));
+            } else {
+                INDICE_NOMES.remover(id);
+            }
+        }
     }
 
     /**
@@ -31,14 +169,25 @@ public class AlunoService {
         validarAluno(aluno);
         
         try {
-            // Verifica se já existe um aluno com a mesma matrícula
-            Aluno alunoExistente = alunoDAO.buscarPorMatricula(aluno.getMatricula());
-            if (alunoExistente != null) {
-                throw new Exception("Já existe um aluno cadastrado com a matrícula " + aluno.getMatricula());
+            // Verifica se já existe um aluno com a mesma matrícula; o filtro de Bloom dispensa
+            // a consulta para matrículas certamente novas, e a restrição UNIQUE é a garantia final
+            if (matriculaPodeExistir(aluno.getMatricula())) {
+                Aluno alunoExistente = alunoDAO.buscarPorMatricula(aluno.getMatricula());
+                if (alunoExistente != null) {
+                    throw ErroNegocio.conflito("Já existe um aluno cadastrado com a matrícula " + aluno.getMatricula());
+                }
             }
             
-            return alunoDAO.inserir(aluno);
+            Aluno cadastrado = alunoDAO.inserir(aluno);
+            registrarMatricula(aluno.getMatricula());
+            if (cadastrado != null && ALTERACOES_ALUNOS.registrar(cadastrado.getId())) {
+                INDICE_NOMES.adicionar(cadastrado.getId(), cadastrado.getNome());
+            }
+            return cadastrado;
         } catch (SQLException e) {
+            if (e.getErrorCode() == ERRO_CHAVE_DUPLICADA) {
+                throw ErroNegocio.conflito("Já existe um aluno cadastrado com a matrícula " + aluno.getMatricula(), e);
+            }
             System.err.println("Erro ao cadastrar aluno: " + e.getMessage());
             throw new Exception("Falha ao cadastrar aluno: " + e.getMessage(), e);
         }
@@ -61,19 +210,31 @@ public class AlunoService {
             // Verifica se o aluno existe
             Aluno alunoExistente = alunoDAO.buscarPorId(aluno.getId());
             if (alunoExistente == null) {
-                throw new Exception("Aluno não encontrado com o ID " + aluno.getId());
+                throw ErroNegocio.naoEncontrado("Aluno não encontrado com o ID " + aluno.getId());
             }
             
             // Verifica se a nova matrícula já está em uso por outro aluno
-            if (!alunoExistente.getMatricula().equals(aluno.getMatricula())) {
+            if (!alunoExistente.getMatricula().equals(aluno.getMatricula()) &&
+                matriculaPodeExistir(aluno.getMatricula())) {
                 Aluno alunoComMesmaMatricula = alunoDAO.buscarPorMatricula(aluno.getMatricula());
                 if (alunoComMesmaMatricula != null && alunoComMesmaMatricula.getId() != aluno.getId()) {
-                    throw new Exception("Já existe outro aluno cadastrado com a matrícula " + aluno.getMatricula());
+                    throw ErroNegocio.conflito("Já existe outro aluno cadastrado com a matrícula " + aluno.getMatricula());
                 }
             }
             
-            return alunoDAO.atualizar(aluno);
+            boolean atualizado = alunoDAO.atualizar(aluno);
+            if (atualizado) {
+                // A matrícula anterior continua no filtro: chaves não podem ser removidas
+                registrarMatricula(aluno.getMatricula());
+            }
+            if (atualizado && ALTERACOES_ALUNOS.registrar(aluno.getId())) {
+                INDICE_NOMES.adicionar(aluno.getId(), aluno.getNome());
+            }
+            return atualizado;
         } catch (SQLException e) {
+            if (e.getErrorCode() == ERRO_CHAVE_DUPLICADA) {
+                throw ErroNegocio.conflito("Já existe outro aluno cadastrado com a matrícula " + aluno.getMatricula(), e);
+            }
             System.err.println("Erro ao atualizar aluno: " + e.getMessage());
             throw new Exception("Falha ao atualizar aluno: " + e.getMessage(), e);
         }
@@ -94,12 +255,16 @@ public class AlunoService {
             // Verifica se o aluno existe
             Aluno aluno = alunoDAO.buscarPorId(id);
             if (aluno == null) {
-                throw new Exception("Aluno não encontrado com o ID " + id);
+                throw ErroNegocio.naoEncontrado("Aluno não encontrado com o ID " + id);
             }
             
             // TODO: Verificar se o aluno possui empréstimos ativos antes de remover
             
-            return alunoDAO.remover(id);
+            boolean removido = alunoDAO.remover(id);
+            if (removido && ALTERACOES_ALUNOS.registrar(id)) {
+                INDICE_NOMES.remover(id);
+            }
+            return removido;
         } catch (SQLException e) {
             System.err.println("Erro ao remover aluno: " + e.getMessage());
             throw new Exception("Falha ao remover aluno: " + e.getMessage(), e);
@@ -158,6 +323,21 @@ public class AlunoService {
         }
     }
 
+    /**
+     * Percorre todos os alunos sem carregá-los todos em memória.
+     * O Stream deve ser fechado após o uso (try-with-resources).
+     * @return Stream de alunos
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Stream<Aluno> streamTodosAlunos() throws Exception {
+        try {
+            return alunoDAO.streamTodos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar alunos: " + e.getMessage());
+            throw new Exception("Falha ao listar alunos: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Busca alunos pelo nome (busca parcial).
      * @param nome parte do nome a ser buscado
@@ -177,12 +357,154 @@ public class AlunoService {
         }
     }
 
+    /**
+     * Lista uma página de alunos em ordem de nome.
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Aluno> listarAlunosPaginado(String token, int limite) throws Exception {
+        validarLimitePagina(limite);
+        
+        try {
+            return alunoDAO.listarPagina(token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar alunos: " + e.getMessage());
+            throw new Exception("Falha ao listar alunos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca uma página de alunos pelo nome (busca parcial).
+     * @param nome parte do nome a ser buscado
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Aluno> buscarAlunosPorNomePaginado(String nome, String token, int limite) throws Exception {
+        if (nome == null || nome.trim().isEmpty()) {
+            throw new Exception("Nome inválido para busca");
+        }
+        
+        validarLimitePagina(limite);
+        
+        try {
+            return alunoDAO.buscarPorNomePagina(nome, token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar alunos por nome: " + e.getMessage());
+            throw new Exception("Falha ao buscar alunos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sugere alunos cujo nome começa com o prefixo, dos que mais pegaram livros emprestados
+     * para os que menos pegaram, sem consultar o banco.
+     * @param prefixo o início do nome (ignorando maiúsculas e acentos)
+     * @param limite o número máximo de sugestões (até {@value #MAXIMO_SUGESTOES})
+     * @return as sugestões encontradas
+     * @throws Exception se os parâmetros forem inválidos ou o índice não estiver disponível
+     */
+    public List<Sugestao> autocompletarNomes(String prefixo, int limite) throws Exception {
+        if (prefixo == null || prefixo.trim().isEmpty()) {
+            throw new Exception("Prefixo inválido para autocompletar");
+        }
+        if (limite <= 0 || limite > MAXIMO_SUGESTOES) {
+            throw new Exception("Número de sugestões inválido: informe um valor entre 1 e " + MAXIMO_SUGESTOES);
+        }
+        if (!carregarIndice()) {
+            throw new Exception("Falha ao autocompletar: índice de alunos indisponível");
+        }
+        
+        return INDICE_NOMES.sugerir(prefixo.trim(), limite);
+    }
+
+    /**
+     * Soma um empréstimo à popularidade do aluno no autocompletar.
+     * @param alunoId o ID do aluno
+     */
+    static void registrarEmprestimo(int alunoId) {
+        if (ALTERACOES_ALUNOS.registrar(alunoId)) {
+            INDICE_NOMES.incrementarPopularidade(alunoId);
+        }
+    }
+
+    // ===== OPERAÇÕES ASSÍNCRONAS =====
+    // Cada uma executa a operação síncrona de mesmo nome no executor do serviço; em caso
+    // de falha, o CompletableFuture completa com uma CompletionException cuja causa é a
+    // exceção da operação síncrona. Os stream* não têm variante assíncrona: o Stream mantém
+    // uma conexão aberta até ser fechado por quem o consome.
+
+    public CompletableFuture<Aluno> cadastrarAlunoAsync(Aluno aluno) {
+        return ExecucaoAssincrona.executar(() -> cadastrarAluno(aluno), executor);
+    }
+
+    public CompletableFuture<Boolean> atualizarAlunoAsync(Aluno aluno) {
+        return ExecucaoAssincrona.executar(() -> atualizarAluno(aluno), executor);
+    }
+
+    public CompletableFuture<Boolean> removerAlunoAsync(int id) {
+        return ExecucaoAssincrona.executar(() -> removerAluno(id), executor);
+    }
+
+    public CompletableFuture<Aluno> buscarAlunoPorIdAsync(int id) {
+        return ExecucaoAssincrona.executar(() -> buscarAlunoPorId(id), executor);
+    }
+
+    public CompletableFuture<Aluno> buscarAlunoPorMatriculaAsync(String matricula) {
+        return ExecucaoAssincrona.executar(() -> buscarAlunoPorMatricula(matricula), executor);
+    }
+
+    public CompletableFuture<List<Aluno>> listarTodosAlunosAsync() {
+        return ExecucaoAssincrona.executar(() -> listarTodosAlunos(), executor);
+    }
+
+    public CompletableFuture<List<Aluno>> buscarAlunosPorNomeAsync(String nome) {
+        return ExecucaoAssincrona.executar(() -> buscarAlunosPorNome(nome), executor);
+    }
+
+    public CompletableFuture<Pagina<Aluno>> listarAlunosPaginadoAsync(String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> listarAlunosPaginado(token, limite), executor);
+    }
+
+    public CompletableFuture<Pagina<Aluno>> buscarAlunosPorNomePaginadoAsync(String nome, String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> buscarAlunosPorNomePaginado(nome, token, limite), executor);
+    }
+
+    public CompletableFuture<List<Sugestao>> autocompletarNomesAsync(String prefixo, int limite) {
+        return ExecucaoAssincrona.executar(() -> autocompletarNomes(prefixo, limite), executor);
+    }
+
+    /**
+     * Define o executor das operações assíncronas (*Async) deste serviço.
+     * @param executor o executor, ou null para o pool padrão
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Valida o tamanho de página solicitado.
+     * @param limite o tamanho da página
+     * @throws Exception se o tamanho for inválido
+     */
+    private void validarLimitePagina(int limite) throws Exception {
+        if (limite <= 0 || limite > TAMANHO_MAXIMO_PAGINA) {
+            throw new Exception("Tamanho de página inválido: informe um valor entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+    }
+
     /**
      * Valida os dados de um aluno.
      * @param aluno o aluno a ser validado
      * @throws Exception se os dados do aluno forem inválidos
      */
-    private void validarAluno(Aluno aluno) throws Exception {
+    static void validarAluno(Aluno aluno) throws Exception {
         if (aluno == null) {
             throw new Exception("Aluno não pode ser nulo");
         }
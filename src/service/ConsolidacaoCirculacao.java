@@ -0,0 +1,176 @@
+package src.service;
+
+import src.dao.CirculacaoDAO;
+import src.dao.ConexaoDB;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tarefa periódica que mantém a tabela circulacao_diaria: a cada execução consolida os
+ * dias encerrados desde o último dia consolidado (ou desde o primeiro empréstimo, na
+ * primeira execução). O dia corrente só é consolidado depois de encerrado.
+ *
+ * {@link #reconstruir(LocalDate)} refaz a consolidação a partir de uma data, para a
+ * carga inicial de um histórico ou após correções nos empréstimos.
+ *
+ * Configuração pela variável de ambiente BIBLIOTECA_CONSOLIDACAO_INTERVALO_MIN
+ * (padrão 60; 0 desativa).
+ */
+public class ConsolidacaoCirculacao {
+    private final CirculacaoDAO circulacaoDAO;
+    private final long intervaloMinutos;
+    private ScheduledExecutorService agendador;
+
+    // Impede que a execução agendada e uma reconstrução consolidem ao mesmo tempo
+    private final Object bloqueioConsolidacao = new Object();
+
+    // Métricas
+    private final AtomicLong execucoes = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong totalDias = new AtomicLong();
+    private volatile int diasUltimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile Timestamp ultimaExecucao;
+
+    public ConsolidacaoCirculacao() {
+        this(ConexaoDB.lerInteiro("BIBLIOTECA_CONSOLIDACAO_INTERVALO_MIN", 60));
+    }
+
+    public ConsolidacaoCirculacao(long intervaloMinutos) {
+        try {
+            this.circulacaoDAO = new CirculacaoDAO();
+        } catch (SQLException e) {
+            System.err.println("Erro ao inicializar ConsolidacaoCirculacao: " + e.getMessage());
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+        this.intervaloMinutos = intervaloMinutos;
+    }
+
+    /**
+     * Agenda a consolidação, com a primeira execução imediata. Não faz nada se o
+     * intervalo configurado for zero ou se já estiver em execução.
+     */
+    public synchronized void iniciar() {
+        if (intervaloMinutos <= 0 || agendador != null) {
+            return;
+        }
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "consolidacao-circulacao");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::executarComTratamento, 0, intervaloMinutos, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Interrompe a consolidação agendada.
+     */
+    public synchronized void parar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    /**
+     * Consolida os dias encerrados ainda não consolidados.
+     * @return o número de dias consolidados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int executar() throws SQLException {
+        LocalDate ultimo = circulacaoDAO.ultimoDiaConsolidado();
+        LocalDate inicio = ultimo != null ? ultimo.plusDays(1) : circulacaoDAO.primeiroDiaComEmprestimos();
+        return consolidar(inicio);
+    }
+
+    /**
+     * Refaz a consolidação de todos os dias encerrados a partir de uma data.
+     * @param inicio o primeiro dia a refazer, ou null para começar no primeiro empréstimo
+     * @return o número de dias consolidados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int reconstruir(LocalDate inicio) throws SQLException {
+        return consolidar(inicio != null ? inicio : circulacaoDAO.primeiroDiaComEmprestimos());
+    }
+
+    /**
+     * Consolida, em ordem, os dias de {@code inicio} até ontem. Cada dia é gravado em uma
+     * transação própria, então uma interrupção preserva os dias já concluídos.
+     */
+    private int consolidar(LocalDate inicio) throws SQLException {
+        synchronized (bloqueioConsolidacao) {
+            long marcaInicio = System.nanoTime();
+            LocalDate ontem = LocalDate.now().minusDays(1);
+            int dias = 0;
+
+            try {
+                for (LocalDate dia = inicio; dia != null && !dia.isAfter(ontem) &&
+                     !Thread.currentThread().isInterrupted(); dia = dia.plusDays(1)) {
+                    circulacaoDAO.consolidarDia(dia);
+                    dias++;
+                    totalDias.incrementAndGet();
+                }
+            } finally {
+                execucoes.incrementAndGet();
+                diasUltimaExecucao = dias;
+                duracaoUltimaExecucaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - marcaInicio);
+                ultimaExecucao = new Timestamp(System.currentTimeMillis());
+            }
+
+            return dias;
+        }
+    }
+
+    private void executarComTratamento() {
+        try {
+            executar();
+        } catch (SQLException | RuntimeException e) {
+            // Uma falha não pode cancelar as próximas execuções agendadas
+            falhas.incrementAndGet();
+            System.err.println("Erro na consolidação da circulação: " + e.getMessage());
+        }
+    }
+
+    public long getExecucoes() {
+        return execucoes.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    public long getTotalDias() {
+        return totalDias.get();
+    }
+
+    public int getDiasUltimaExecucao() {
+        return diasUltimaExecucao;
+    }
+
+    public long getDuracaoUltimaExecucaoMs() {
+        return duracaoUltimaExecucaoMs;
+    }
+
+    public Timestamp getUltimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsolidacaoCirculacao{" +
+                "execucoes=" + getExecucoes() +
+                ", falhas=" + getFalhas() +
+                ", totalDias=" + getTotalDias() +
+                ", diasUltimaExecucao=" + diasUltimaExecucao +
+                ", duracaoUltimaExecucaoMs=" + duracaoUltimaExecucaoMs +
+                ", ultimaExecucao=" + ultimaExecucao +
+                '}';
+    }
+}
@@ -1,15 +1,25 @@
 package src.service;
 
 import src.dao.EmprestimoDAO;
+import src.dao.EmprestimoDAO.ResultadoDevolucao;
+import src.dao.EmprestimoDAO.ResultadoInsercao;
+import src.dao.Pagina;
 import src.model.Aluno;
 import src.model.Emprestimo;
+import src.model.ErroNegocio;
 import src.model.Livro;
+import src.model.PedidoEmprestimo;
 import src.model.Emprestimo.StatusEmprestimo;
 
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Classe de serviço para operações relacionadas a empréstimos.
@@ -18,9 +28,14 @@ public class EmprestimoService {
     private EmprestimoDAO emprestimoDAO;
     private AlunoService alunoService;
     private LivroService livroService;
+    // Executor das operações *Async (null usa o pool padrão de ExecucaoAssincrona)
+    private volatile Executor executor;
     
     // Configurações de empréstimo
     private static final int DIAS_EMPRESTIMO_PADRAO = 14; // 2 semanas
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+    // Número de empréstimos gravados por transação nas operações em lote
+    private static final int TAMANHO_LOTE = 500;
 
     public EmprestimoService() {
         try {
@@ -54,37 +69,105 @@ public class EmprestimoService {
         int dias = (diasEmprestimo != null && diasEmprestimo > 0) ? diasEmprestimo : DIAS_EMPRESTIMO_PADRAO;
         
         try {
-            // Verifica se o aluno existe
-            Aluno aluno = alunoService.buscarAlunoPorId(alunoId);
-            if (aluno == null) {
-                throw new Exception("Aluno não encontrado com o ID " + alunoId);
-            }
-            
-            // Verifica se o livro existe e está disponível
-            Livro livro = livroService.buscarLivroPorId(livroId);
-            if (livro == null) {
-                throw new Exception("Livro não encontrado com o ID " + livroId);
-            }
-            
-            if (!livro.isDisponivel()) {
-                throw new Exception("Livro não disponível para empréstimo");
-            }
+            // A existência do aluno e do livro e a disponibilidade são verificadas
+            // atomicamente pelo DAO, na mesma transação que registra o empréstimo
             
             // Cria o empréstimo
-            Timestamp dataEmprestimo = new Timestamp(System.currentTimeMillis());
+            Timestamp dataEmprestimo = new Timestamp(Emprestimo.agora());
             Timestamp dataDevolucaoPrevista = calcularDataDevolucao(dataEmprestimo, dias);
             
             Emprestimo emprestimo = new Emprestimo(alunoId, livroId, dataEmprestimo, dataDevolucaoPrevista);
             emprestimo.setStatus(StatusEmprestimo.ATIVO);
             
             // Salva o empréstimo no banco de dados
-            return emprestimoDAO.inserir(emprestimo);
+            Emprestimo realizado = emprestimoDAO.inserir(emprestimo);
+            registrarPopularidade(realizado);
+            return realizado;
         } catch (SQLException e) {
             System.err.println("Erro ao realizar empréstimo: " + e.getMessage());
             throw new Exception("Falha ao realizar empréstimo: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Realiza vários empréstimos de uma vez.
+     *
+     * Os pedidos são gravados em transações de até {@value #TAMANHO_LOTE} itens. A falha
+     * de um pedido (dados inválidos, aluno ou livro inexistente, livro indisponível) não
+     * interrompe os demais; um erro de banco afeta apenas os pedidos da mesma transação.
+     * @param pedidos os pedidos de empréstimo
+     * @return o desfecho de cada pedido, na mesma ordem; os empréstimos retornados não
+     *         têm aluno e livro carregados
+     * @throws Exception se a lista de pedidos não for informada
+     */
+    public ResultadoLote<Emprestimo> realizarEmprestimos(List<PedidoEmprestimo> pedidos) throws Exception {
+        if (pedidos == null) {
+            throw new Exception("Lista de pedidos de empréstimo não informada");
+        }
+        
+        ResultadoLote<Emprestimo> resultado = new ResultadoLote<>(pedidos.size());
+        Timestamp dataEmprestimo = new Timestamp(Emprestimo.agora());
+        
+        // Valida os pedidos e monta os empréstimos, guardando a posição original de cada um
+        List<Emprestimo> emprestimos = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            PedidoEmprestimo pedido = pedidos.get(i);
+            
+            if (pedido == null) {
+                resultado.registrarFalha(i, "Pedido de empréstimo não informado");
+            } else if (pedido.getAlunoId() <= 0) {
+                resultado.registrarFalha(i, "ID do aluno inválido");
+            } else if (pedido.getLivroId() <= 0) {
+                resultado.registrarFalha(i, "ID do livro inválido");
+            } else {
+                Integer diasEmprestimo = pedido.getDiasEmprestimo();
+                int dias = (diasEmprestimo != null && diasEmprestimo > 0) ? diasEmprestimo : DIAS_EMPRESTIMO_PADRAO;
+                
+                Emprestimo emprestimo = new Emprestimo(pedido.getAlunoId(), pedido.getLivroId(), dataEmprestimo,
+                                                       calcularDataDevolucao(dataEmprestimo, dias));
+                emprestimo.setStatus(StatusEmprestimo.ATIVO);
+                emprestimos.add(emprestimo);
+                indices.add(i);
+            }
+        }
+        
+        for (int inicio = 0; inicio < emprestimos.size(); inicio += TAMANHO_LOTE) {
+            int fim = Math.min(inicio + TAMANHO_LOTE, emprestimos.size());
+            List<Emprestimo> bloco = emprestimos.subList(inicio, fim);
+            
+            try {
+                ResultadoInsercao[] situacoes = emprestimoDAO.inserirLote(bloco);
+                
+                for (int i = 0; i < bloco.size(); i++) {
+                    int indice = indices.get(inicio + i);
+                    switch (situacoes[i]) {
+                        case INSERIDO:
+                            registrarPopularidade(bloco.get(i));
+                            resultado.registrarSucesso(indice, bloco.get(i));
+                            break;
+                        case ALUNO_NAO_ENCONTRADO:
+                            resultado.registrarFalha(indice, "Aluno não encontrado com o ID " + bloco.get(i).getAlunoId());
+                            break;
+                        case LIVRO_NAO_ENCONTRADO:
+                            resultado.registrarFalha(indice, "Livro não encontrado com o ID " + bloco.get(i).getLivroId());
+                            break;
+                        default:
+                            resultado.registrarFalha(indice, "Livro não disponível para empréstimo");
+                            break;
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Erro ao realizar empréstimos em lote: " + e.getMessage());
+                for (int i = inicio; i < fim; i++) {
+                    resultado.registrarFalha(indices.get(i), "Falha ao realizar empréstimo: " + e.getMessage());
+                }
+            }
+        }
+        
+        return resultado;
+    }
+
     /**
      * Registra a devolução de um livro.
      * @param emprestimoId o ID do empréstimo
@@ -97,26 +180,89 @@ public class EmprestimoService {
         }
         
         try {
-            // Verifica se o empréstimo existe
-            Emprestimo emprestimo = emprestimoDAO.buscarPorId(emprestimoId);
-            if (emprestimo == null) {
-                throw new Exception("Empréstimo não encontrado com o ID " + emprestimoId);
-            }
+            // Registra a devolução; o DAO rejeita empréstimos já devolvidos
+            Timestamp dataDevolucao = new Timestamp(Emprestimo.agora());
+            Emprestimo emprestimo = emprestimoDAO.registrarDevolucao(emprestimoId, dataDevolucao);
             
-            // Verifica se o empréstimo já foi devolvido
-            if (emprestimo.getStatus() == StatusEmprestimo.DEVOLVIDO) {
-                throw new Exception("Este livro já foi devolvido");
+            if (emprestimo == null) {
+                throw ErroNegocio.naoEncontrado("Empréstimo não encontrado com o ID " + emprestimoId);
             }
             
-            // Registra a devolução
-            Timestamp dataDevolucao = new Timestamp(System.currentTimeMillis());
-            return emprestimoDAO.registrarDevolucao(emprestimoId, dataDevolucao);
+            return emprestimo;
         } catch (SQLException e) {
             System.err.println("Erro ao registrar devolução: " + e.getMessage());
             throw new Exception("Falha ao registrar devolução: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Registra a devolução de vários empréstimos de uma vez, como na leitura dos livros
+     * deixados na caixa de devolução.
+     *
+     * As devoluções são gravadas em transações de até {@value #TAMANHO_LOTE} itens. A falha
+     * de um item (ID inválido, empréstimo inexistente ou já devolvido) não interrompe os
+     * demais; um erro de banco afeta apenas os itens da mesma transação.
+     * @param emprestimoIds os IDs dos empréstimos
+     * @return o desfecho de cada ID, na mesma ordem; em caso de sucesso, o status final
+     *         do empréstimo (DEVOLVIDO ou ATRASADO)
+     * @throws Exception se a lista de IDs não for informada
+     */
+    public ResultadoLote<StatusEmprestimo> registrarDevolucoes(List<Integer> emprestimoIds) throws Exception {
+        if (emprestimoIds == null) {
+            throw new Exception("Lista de empréstimos para devolução não informada");
+        }
+        
+        ResultadoLote<StatusEmprestimo> resultado = new ResultadoLote<>(emprestimoIds.size());
+        Timestamp dataDevolucao = new Timestamp(Emprestimo.agora());
+        
+        // Separa os IDs válidos, guardando a posição original de cada um
+        List<Integer> ids = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < emprestimoIds.size(); i++) {
+            Integer id = emprestimoIds.get(i);
+            if (id == null || id <= 0) {
+                resultado.registrarFalha(i, "ID do empréstimo inválido");
+            } else {
+                ids.add(id);
+                indices.add(i);
+            }
+        }
+        
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            int fim = Math.min(inicio + TAMANHO_LOTE, ids.size());
+            List<Integer> bloco = ids.subList(inicio, fim);
+            
+            try {
+                ResultadoDevolucao[] situacoes = emprestimoDAO.registrarDevolucoes(bloco, dataDevolucao);
+                
+                for (int i = 0; i < bloco.size(); i++) {
+                    int indice = indices.get(inicio + i);
+                    switch (situacoes[i]) {
+                        case DEVOLVIDO:
+                            resultado.registrarSucesso(indice, StatusEmprestimo.DEVOLVIDO);
+                            break;
+                        case DEVOLVIDO_COM_ATRASO:
+                            resultado.registrarSucesso(indice, StatusEmprestimo.ATRASADO);
+                            break;
+                        case NAO_ENCONTRADO:
+                            resultado.registrarFalha(indice, "Empréstimo não encontrado com o ID " + bloco.get(i));
+                            break;
+                        default:
+                            resultado.registrarFalha(indice, "Este livro já foi devolvido.");
+                            break;
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Erro ao registrar devoluções em lote: " + e.getMessage());
+                for (int i = inicio; i < fim; i++) {
+                    resultado.registrarFalha(indices.get(i), "Falha ao registrar devolução: " + e.getMessage());
+                }
+            }
+        }
+        
+        return resultado;
+    }
+
     /**
      * Busca um empréstimo pelo ID.
      * @param id o ID do empréstimo a ser buscado
@@ -150,6 +296,41 @@ public class EmprestimoService {
         }
     }
 
+    /**
+     * Lista uma página de empréstimos, do mais recente para o mais antigo.
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Emprestimo> listarEmprestimosPaginado(String token, int limite) throws Exception {
+        validarLimitePagina(limite);
+        
+        try {
+            return emprestimoDAO.listarPagina(token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar empréstimos: " + e.getMessage());
+            throw new Exception("Falha ao listar empréstimos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Percorre todos os empréstimos sem carregá-los todos em memória.
+     * O Stream deve ser fechado após o uso (try-with-resources).
+     * @return Stream de empréstimos
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Stream<Emprestimo> streamTodosEmprestimos() throws Exception {
+        try {
+            return emprestimoDAO.streamTodos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar empréstimos: " + e.getMessage());
+            throw new Exception("Falha ao listar empréstimos: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Lista empréstimos ativos (não devolvidos).
      * @return lista de empréstimos ativos
@@ -164,6 +345,41 @@ public class EmprestimoService {
         }
     }
 
+    /**
+     * Lista uma página de empréstimos ativos, da devolução prevista mais próxima para a mais distante.
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Emprestimo> listarEmprestimosAtivosPaginado(String token, int limite) throws Exception {
+        validarLimitePagina(limite);
+        
+        try {
+            return emprestimoDAO.listarPaginaAtivos(token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar empréstimos ativos: " + e.getMessage());
+            throw new Exception("Falha ao listar empréstimos ativos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Percorre os empréstimos ativos sem carregá-los todos em memória.
+     * O Stream deve ser fechado após o uso (try-with-resources).
+     * @return Stream de empréstimos ativos
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Stream<Emprestimo> streamEmprestimosAtivos() throws Exception {
+        try {
+            return emprestimoDAO.streamAtivos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar empréstimos ativos: " + e.getMessage());
+            throw new Exception("Falha ao listar empréstimos ativos: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Lista empréstimos atrasados.
      * @return lista de empréstimos atrasados
@@ -178,6 +394,41 @@ public class EmprestimoService {
         }
     }
 
+    /**
+     * Lista uma página de empréstimos atrasados, da devolução prevista mais antiga para a mais recente.
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Emprestimo> listarEmprestimosAtrasadosPaginado(String token, int limite) throws Exception {
+        validarLimitePagina(limite);
+        
+        try {
+            return emprestimoDAO.listarPaginaAtrasados(token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar empréstimos atrasados: " + e.getMessage());
+            throw new Exception("Falha ao listar empréstimos atrasados: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Percorre os empréstimos atrasados sem carregá-los todos em memória.
+     * O Stream deve ser fechado após o uso (try-with-resources).
+     * @return Stream de empréstimos atrasados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Stream<Emprestimo> streamEmprestimosAtrasados() throws Exception {
+        try {
+            return emprestimoDAO.streamAtrasados();
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar empréstimos atrasados: " + e.getMessage());
+            throw new Exception("Falha ao listar empréstimos atrasados: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Lista empréstimos de um aluno.
      * @param alunoId o ID do aluno
@@ -193,7 +444,7 @@ public class EmprestimoService {
             // Verifica se o aluno existe
             Aluno aluno = alunoService.buscarAlunoPorId(alunoId);
             if (aluno == null) {
-                throw new Exception("Aluno não encontrado com o ID " + alunoId);
+                throw ErroNegocio.naoEncontrado("Aluno não encontrado com o ID " + alunoId);
             }
             
             return emprestimoDAO.listarPorAluno(alunoId);
@@ -218,7 +469,7 @@ public class EmprestimoService {
             // Verifica se o livro existe
             Livro livro = livroService.buscarLivroPorId(livroId);
             if (livro == null) {
-                throw new Exception("Livro não encontrado com o ID " + livroId);
+                throw ErroNegocio.naoEncontrado("Livro não encontrado com o ID " + livroId);
             }
             
             return emprestimoDAO.listarPorLivro(livroId);
@@ -228,6 +479,123 @@ public class EmprestimoService {
         }
     }
 
+    // ===== OPERAÇÕES ASSÍNCRONAS =====
+    // Cada uma executa a operação síncrona de mesmo nome no executor do serviço; em caso
+    // de falha, o CompletableFuture completa com uma CompletionException cuja causa é a
+    // exceção da operação síncrona. Os stream* não têm variante assíncrona: o Stream mantém
+    // uma conexão aberta até ser fechado por quem o consome.
+
+    public CompletableFuture<Emprestimo> realizarEmprestimoAsync(int alunoId, int livroId, Integer diasEmprestimo) {
+        return ExecucaoAssincrona.executar(() -> realizarEmprestimo(alunoId, livroId, diasEmprestimo), executor);
+    }
+
+    /**
+     * Realiza um empréstimo a partir da matrícula do aluno e do ISBN do livro, como lidos
+     * pelo terminal de autoatendimento. As duas buscas são independentes e feitas ao mesmo
+     * tempo, então a espera é a da mais lenta, não a soma das duas.
+     * @param matricula a matrícula do aluno
+     * @param isbn o ISBN do livro
+     * @param diasEmprestimo número de dias para o empréstimo (opcional, usa o padrão se não informado)
+     * @return o empréstimo realizado
+     */
+    public CompletableFuture<Emprestimo> realizarEmprestimoPorCodigosAsync(String matricula, String isbn,
+                                                                         Integer diasEmprestimo) {
+        CompletableFuture<Aluno> aluno = alunoService.buscarAlunoPorMatriculaAsync(matricula);
+        CompletableFuture<Livro> livro = livroService.buscarLivroPorIsbnAsync(isbn);
+
+        return aluno.thenCombine(livro, (a, l) -> {
+            if (a == null) {
+                throw new CompletionException(ErroNegocio.naoEncontrado("Aluno não encontrado com a matrícula " + matricula));
+            }
+            if (l == null) {
+                throw new CompletionException(ErroNegocio.naoEncontrado("Livro não encontrado com o ISBN " + isbn));
+            }
+            return new PedidoEmprestimo(a.getId(), l.getId(), diasEmprestimo);
+        }).thenCompose(pedido -> realizarEmprestimoAsync(pedido.getAlunoId(), pedido.getLivroId(),
+                                                         pedido.getDiasEmprestimo()));
+    }
+
+    public CompletableFuture<ResultadoLote<Emprestimo>> realizarEmprestimosAsync(List<PedidoEmprestimo> pedidos) {
+        return ExecucaoAssincrona.executar(() -> realizarEmprestimos(pedidos), executor);
+    }
+
+    public CompletableFuture<Emprestimo> registrarDevolucaoAsync(int emprestimoId) {
+        return ExecucaoAssincrona.executar(() -> registrarDevolucao(emprestimoId), executor);
+    }
+
+    public CompletableFuture<ResultadoLote<StatusEmprestimo>> registrarDevolucoesAsync(List<Integer> emprestimoIds) {
+        return ExecucaoAssincrona.executar(() -> registrarDevolucoes(emprestimoIds), executor);
+    }
+
+    public CompletableFuture<Emprestimo> buscarEmprestimoPorIdAsync(int id) {
+        return ExecucaoAssincrona.executar(() -> buscarEmprestimoPorId(id), executor);
+    }
+
+    public CompletableFuture<List<Emprestimo>> listarTodosEmprestimosAsync() {
+        return ExecucaoAssincrona.executar(() -> listarTodosEmprestimos(), executor);
+    }
+
+    public CompletableFuture<Pagina<Emprestimo>> listarEmprestimosPaginadoAsync(String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosPaginado(token, limite), executor);
+    }
+
+    public CompletableFuture<List<Emprestimo>> listarEmprestimosAtivosAsync() {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosAtivos(), executor);
+    }
+
+    public CompletableFuture<Pagina<Emprestimo>> listarEmprestimosAtivosPaginadoAsync(String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosAtivosPaginado(token, limite), executor);
+    }
+
+    public CompletableFuture<List<Emprestimo>> listarEmprestimosAtrasadosAsync() {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosAtrasados(), executor);
+    }
+
+    public CompletableFuture<Pagina<Emprestimo>> listarEmprestimosAtrasadosPaginadoAsync(String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosAtrasadosPaginado(token, limite), executor);
+    }
+
+    public CompletableFuture<List<Emprestimo>> listarEmprestimosPorAlunoAsync(int alunoId) {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosPorAluno(alunoId), executor);
+    }
+
+    public CompletableFuture<List<Emprestimo>> listarEmprestimosPorLivroAsync(int livroId) {
+        return ExecucaoAssincrona.executar(() -> listarEmprestimosPorLivro(livroId), executor);
+    }
+
+    /**
+     * Define o executor das operações assíncronas (*Async) deste serviço e dos serviços de
+     * alunos e livros que ele usa.
+     * @param executor o executor, ou null para o pool padrão
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+        alunoService.setExecutor(executor);
+        livroService.setExecutor(executor);
+    }
+
+    /**
+     * Valida o tamanho de página solicitado.
+     * @param limite o tamanho da página
+     * @throws Exception se o tamanho for inválido
+     */
+    private void validarLimitePagina(int limite) throws Exception {
+        if (limite <= 0 || limite > TAMANHO_MAXIMO_PAGINA) {
+            throw new Exception("Tamanho de página inválido: informe um valor entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+    }
+
+    /**
+     * Atualiza a popularidade do aluno e do livro usada no autocompletar.
+     * @param emprestimo o empréstimo realizado
+     */
+    private void registrarPopularidade(Emprestimo emprestimo) {
+        if (emprestimo != null) {
+            AlunoService.registrarEmprestimo(emprestimo.getAlunoId());
+            LivroService.registrarEmprestimo(emprestimo.getLivroId());
+        }
+    }
+
     /**
      * Calcula a data prevista de devolução com base na data de empréstimo e no número de dias.
      * @param dataEmprestimo a data de empréstimo
@@ -0,0 +1,292 @@
+package src.service;
+
+import src.model.Emprestimo;
+import src.model.Emprestimo.StatusEmprestimo;
+
+import java.util.Arrays;
+
+/**
+ * Representação em colunas dos empréstimos para estatísticas sobre todo o histórico.
+ *
+ * Cada coluna é um vetor de tipos primitivos (IDs em int[], datas em milissegundos em
+ * long[] e o ordinal do status em byte[]), com cerca de 40 bytes por empréstimo, contra
+ * mais de 200 de uma List&lt;Emprestimo&gt; com Timestamps, aluno e livro. As operações
+ * percorrem as colunas em laços simples, sem chamadas nem alocações por linha, que o JIT
+ * pode desenrolar e vetorizar.
+ *
+ * As datas não informadas valem {@link Emprestimo#SEM_DATA}. Uma instância é somente
+ * leitura depois de carregada por {@link RelatorioService#carregarEmprestimosColunares()}.
+ */
+public final class EmprestimosColunares {
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private static final byte DEVOLVIDO = (byte) StatusEmprestimo.DEVOLVIDO.ordinal();
+    private static final long SEM_DATA = Emprestimo.SEM_DATA;
+
+    private int tamanho;
+    private int[] ids;
+    private int[] alunoIds;
+    private int[] livroIds;
+    private long[] datasEmprestimo;
+    private long[] datasDevolucaoPrevista;
+    private long[] datasDevolucaoEfetiva;
+    private byte[] status;
+
+    EmprestimosColunares() {
+        this(CAPACIDADE_INICIAL);
+    }
+
+    private EmprestimosColunares(int capacidade) {
+        ids = new int[capacidade];
+        alunoIds = new int[capacidade];
+        livroIds = new int[capacidade];
+        datasEmprestimo = new long[capacidade];
+        datasDevolucaoPrevista = new long[capacidade];
+        datasDevolucaoEfetiva = new long[capacidade];
+        status = new byte[capacidade];
+    }
+
+    /**
+     * Acrescenta um empréstimo ao final das colunas, ampliando-as quando necessário.
+     * A assinatura segue EmprestimoDAO.ConsumidorColunas.
+     */
+    void adicionar(int id, int alunoId, int livroId, long dataEmprestimo, long dataDevolucaoPrevista,
+                   long dataDevolucaoEfetiva, byte status) {
+        if (tamanho == ids.length) {
+            redimensionar(tamanho + (tamanho >> 1) + 1);
+        }
+
+        ids[tamanho] = id;
+        alunoIds[tamanho] = alunoId;
+        livroIds[tamanho] = livroId;
+        datasEmprestimo[tamanho] = dataEmprestimo;
+        datasDevolucaoPrevista[tamanho] = dataDevolucaoPrevista;
+        datasDevolucaoEfetiva[tamanho] = dataDevolucaoEfetiva;
+        this.status[tamanho] = status;
+        tamanho++;
+    }
+
+    /**
+     * Libera a capacidade não usada das colunas ao final do carregamento.
+     */
+    void compactar() {
+        if (tamanho < ids.length) {
+            redimensionar(tamanho);
+        }
+    }
+
+    private void redimensionar(int capacidade) {
+        ids = Arrays.copyOf(ids, capacidade);
+        alunoIds = Arrays.copyOf(alunoIds, capacidade);
+        livroIds = Arrays.copyOf(livroIds, capacidade);
+        datasEmprestimo = Arrays.copyOf(datasEmprestimo, capacidade);
+        datasDevolucaoPrevista = Arrays.copyOf(datasDevolucaoPrevista, capacidade);
+        datasDevolucaoEfetiva = Arrays.copyOf(datasDevolucaoEfetiva, capacidade);
+        status = Arrays.copyOf(status, capacidade);
+    }
+
+    /**
+     * Seleciona os empréstimos feitos em um período.
+     * @param inicio o início do período, inclusive, em milissegundos desde a época
+     * @param fim o fim do período, exclusive, em milissegundos desde a época
+     * @return um novo conjunto de colunas apenas com os empréstimos do período
+     */
+    public EmprestimosColunares filtrarPorPeriodo(long inicio, long fim) {
+        // Primeira passada só conta, para que as colunas do resultado tenham o tamanho exato
+        int selecionados = 0;
+        for (int i = 0; i < tamanho; i++) {
+            long data = datasEmprestimo[i];
+            selecionados += (data >= inicio & data < fim) ? 1 : 0;
+        }
+
+        EmprestimosColunares resultado = new EmprestimosColunares(selecionados);
+        int j = 0;
+        for (int i = 0; i < tamanho && j < selecionados; i++) {
+            long data = datasEmprestimo[i];
+            if (data >= inicio & data < fim) {
+                resultado.ids[j] = ids[i];
+                resultado.alunoIds[j] = alunoIds[i];
+                resultado.livroIds[j] = livroIds[i];
+                resultado.datasEmprestimo[j] = data;
+                resultado.datasDevolucaoPrevista[j] = datasDevolucaoPrevista[i];
+                resultado.datasDevolucaoEfetiva[j] = datasDevolucaoEfetiva[i];
+                resultado.status[j] = status[i];
+                j++;
+            }
+        }
+        resultado.tamanho = j;
+        return resultado;
+    }
+
+    /**
+     * Conta os empréstimos atrasados com o mesmo critério de {@link Emprestimo#isAtrasado(long)}:
+     * status diferente de DEVOLVIDO e instante posterior à data prevista, o que inclui os
+     * devolvidos com atraso.
+     * @param agora o instante de referência, em milissegundos desde a época
+     * @return o número de empréstimos atrasados
+     */
+    public int contarAtrasados(long agora) {
+        int total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            long prevista = datasDevolucaoPrevista[i];
+            total += (status[i] != DEVOLVIDO & prevista != SEM_DATA & agora > prevista) ? 1 : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Conta os empréstimos ainda não devolvidos cuja data prevista já passou.
+     * @param agora o instante de referência, em milissegundos desde a época
+     * @return o número de empréstimos em aberto e atrasados
+     */
+    public int contarEmAbertoAtrasados(long agora) {
+        int total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            long prevista = datasDevolucaoPrevista[i];
+            total += (datasDevolucaoEfetiva[i] == SEM_DATA & prevista != SEM_DATA & agora > prevista) ? 1 : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Conta os empréstimos de cada status.
+     * @return as contagens indexadas pelo ordinal de StatusEmprestimo
+     */
+    public int[] contarPorStatus() {
+        int[] contagens = new int[StatusEmprestimo.values().length];
+        for (int i = 0; i < tamanho; i++) {
+            int ordinal = status[i];
+            if (ordinal >= 0) {
+                contagens[ordinal]++;
+            }
+        }
+        return contagens;
+    }
+
+    /**
+     * Calcula a duração média dos empréstimos já devolvidos, da data do empréstimo à
+     * data efetiva de devolução.
+     * @return a duração média em milissegundos, ou 0 se nenhum empréstimo foi devolvido
+     */
+    public double calcularDuracaoMediaMs() {
+        long soma = 0;
+        int devolvidos = 0;
+        for (int i = 0; i < tamanho; i++) {
+            long emprestimo = datasEmprestimo[i];
+            long efetiva = datasDevolucaoEfetiva[i];
+            boolean valido = efetiva != SEM_DATA & emprestimo != SEM_DATA;
+            soma += valido ? efetiva - emprestimo : 0;
+            devolvidos += valido ? 1 : 0;
+        }
+        return devolvidos == 0 ? 0 : (double) soma / devolvidos;
+    }
+
+    /**
+     * Conta os empréstimos de cada livro.
+     * @return as contagens indexadas pelo ID do livro (posições sem empréstimos valem 0)
+     */
+    public int[] contarPorLivro() {
+        int maiorId = 0;
+        for (int i = 0; i < tamanho; i++) {
+            maiorId = Math.max(maiorId, livroIds[i]);
+        }
+
+        int[] contagens = new int[maiorId + 1];
+        for (int i = 0; i < tamanho; i++) {
+            contagens[livroIds[i]]++;
+        }
+        return contagens;
+    }
+
+    /**
+     * Seleciona as posições com as maiores contagens, por exemplo os livros mais
+     * emprestados a partir de {@link #contarPorLivro()}.
+     * @param contagens as contagens indexadas por ID
+     * @param limite o número máximo de posições retornadas
+     * @return os IDs com contagem positiva, da maior para a menor contagem (empates pelo menor ID)
+     */
+    public static int[] maioresContagens(int[] contagens, int limite) {
+        int[] selecionados = new int[Math.max(0, Math.min(limite, contagens.length))];
+        int quantidade = 0;
+
+        // Inserção ordenada em um vetor de tamanho fixo: O(n * limite), sem criar objetos
+        for (int id = 0; id < contagens.length; id++) {
+            int contagem = contagens[id];
+            if (contagem <= 0 || (quantidade == selecionados.length &&
+                                  (quantidade == 0 || contagem <= contagens[selecionados[quantidade - 1]]))) {
+                continue;
+            }
+
+            int posicao = Math.min(quantidade, selecionados.length - 1);
+            while (posicao > 0 && contagens[selecionados[posicao - 1]] < contagem) {
+                selecionados[posicao] = selecionados[posicao - 1];
+                posicao--;
+            }
+            selecionados[posicao] = id;
+            if (quantidade < selecionados.length) {
+                quantidade++;
+            }
+        }
+
+        return Arrays.copyOf(selecionados, quantidade);
+    }
+
+    /**
+     * @return o número de empréstimos
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getId(int posicao) {
+        return ids[verificarPosicao(posicao)];
+    }
+
+    public int getAlunoId(int posicao) {
+        return alunoIds[verificarPosicao(posicao)];
+    }
+
+    public int getLivroId(int posicao) {
+        return livroIds[verificarPosicao(posicao)];
+    }
+
+    public long getDataEmprestimoMillis(int posicao) {
+        return datasEmprestimo[verificarPosicao(posicao)];
+    }
+
+    public long getDataDevolucaoPrevistaMillis(int posicao) {
+        return datasDevolucaoPrevista[verificarPosicao(posicao)];
+    }
+
+    public long getDataDevolucaoEfetivaMillis(int posicao) {
+        return datasDevolucaoEfetiva[verificarPosicao(posicao)];
+    }
+
+    // null se o status não foi informado
+    public StatusEmprestimo getStatus(int posicao) {
+        int ordinal = status[verificarPosicao(posicao)];
+        return ordinal >= 0 ? StatusEmprestimo.values()[ordinal] : null;
+    }
+
+    /**
+     * @return a memória ocupada pelas colunas, em bytes (sem os cabeçalhos dos vetores)
+     */
+    public long getBytesOcupados() {
+        return (long) ids.length * (3 * Integer.BYTES + 3 * Long.BYTES + Byte.BYTES);
+    }
+
+    private int verificarPosicao(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição " + posicao + " fora do intervalo [0, " + tamanho + ")");
+        }
+        return posicao;
+    }
+
+    @Override
+    public String toString() {
+        return "EmprestimosColunares{" +
+                "tamanho=" + tamanho +
+                ", bytesOcupados=" + getBytesOcupados() +
+                '}';
+    }
+}
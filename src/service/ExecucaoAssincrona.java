@@ -0,0 +1,68 @@
+package src.service;
+
+import src.dao.ConexaoDB;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execução das variantes assíncronas (*Async) dos serviços.
+ *
+ * Por padrão as operações rodam em um pool compartilhado de threads daemon, com tantas
+ * threads quanto conexões no pool do banco (BIBLIOTECA_ASYNC_THREADS, padrão
+ * MYSQL_POOL_MAXIMO ou 10), já que cada operação ocupa uma conexão. Cada serviço pode
+ * usar outro executor com setExecutor.
+ */
+final class ExecucaoAssincrona {
+    private static volatile Executor padrao;
+
+    private ExecucaoAssincrona() {
+    }
+
+    /**
+     * Operação síncrona de um serviço.
+     */
+    interface Operacao<T> {
+        T executar() throws Exception;
+    }
+
+    /**
+     * Executa a operação no executor informado.
+     * @param operacao a operação
+     * @param executor o executor, ou null para o pool padrão
+     * @return o resultado; em caso de falha, completa com uma CompletionException cuja
+     *         causa é a exceção lançada pela operação
+     */
+    static <T> CompletableFuture<T> executar(Operacao<T> operacao, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return operacao.executar();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor != null ? executor : obterPadrao());
+    }
+
+    private static Executor obterPadrao() {
+        Executor executor = padrao;
+        if (executor != null) {
+            return executor;
+        }
+
+        synchronized (ExecucaoAssincrona.class) {
+            if (padrao == null) {
+                int threads = ConexaoDB.lerInteiro("BIBLIOTECA_ASYNC_THREADS", ConexaoDB.lerInteiro("MYSQL_POOL_MAXIMO", 10));
+                AtomicInteger contador = new AtomicInteger();
+                padrao = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+                    Thread t = new Thread(r, "servicos-async-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            return padrao;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package src.service;
+
+import src.dao.AlunoDAO;
+import src.dao.EmprestimoDAO;
+import src.dao.LivroDAO;
+import src.model.Aluno;
+import src.model.Emprestimo;
+import src.model.Livro;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação completa das tabelas para arquivos CSV ou JSON Lines, opcionalmente
+ * compactados com gzip.
+ *
+ * As linhas são lidas de um cursor e gravadas uma a uma em um FileChannel com buffer,
+ * então a memória usada não depende do tamanho da tabela. Os empréstimos são exportados
+ * com o nome do aluno e o título do livro.
+ */
+public class ExportadorRelatorios {
+    /**
+     * Formato do arquivo gerado.
+     */
+    public enum Formato {
+        // Valores separados por vírgula, com cabeçalho
+        CSV("csv"),
+        // Um objeto JSON por linha
+        JSONL("jsonl");
+
+        private final String extensao;
+
+        Formato(String extensao) {
+            this.extensao = extensao;
+        }
+
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+
+    /**
+     * Tabela exportada.
+     */
+    public enum Tabela {
+        ALUNOS,
+        LIVROS,
+        EMPRESTIMOS
+    }
+
+    // Tamanho dos buffers de caracteres e de bytes entre o cursor e o arquivo
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final List<Coluna<Aluno>> COLUNAS_ALUNOS = Arrays.asList(
+            new Coluna<>("id", Aluno::getId),
+            new Coluna<>("nome", Aluno::getNome),
+            new Coluna<>("matricula", Aluno::getMatricula),
+            new Coluna<>("email", Aluno::getEmail),
+            new Coluna<>("telefone", Aluno::getTelefone),
+            new Coluna<>("data_cadastro", Aluno::getDataCadastro));
+
+    private static final List<Coluna<Livro>> COLUNAS_LIVROS = Arrays.asList(
+            new Coluna<>("id", Livro::getId),
+            new Coluna<>("titulo", Livro::getTitulo),
+            new Coluna<>("autor", Livro::getAutor),
+            new Coluna<>("editora", Livro::getEditora),
+            new Coluna<>("ano_publicacao", Livro::getAnoPublicacao),
+            new Coluna<>("isbn", Livro::getIsbn),
+            new Coluna<>("quantidade_total", Livro::getQuantidadeTotal),
+            new Coluna<>("quantidade_disponivel", Livro::getQuantidadeDisponivel),
+            new Coluna<>("data_cadastro", Livro::getDataCadastro));
+
+    private static final List<Coluna<Emprestimo>> COLUNAS_EMPRESTIMOS = Arrays.asList(
+            new Coluna<>("id", Emprestimo::getId),
+            new Coluna<>("aluno_id", Emprestimo::getAlunoId),
+            new Coluna<>("aluno_nome", e -> e.getAluno() != null ? e.getAluno().getNome() : null),
+            new Coluna<>("aluno_matricula", e -> e.getAluno() != null ? e.getAluno().getMatricula() : null),
+            new Coluna<>("livro_id", Emprestimo::getLivroId),
+            new Coluna<>("livro_titulo", e -> e.getLivro() != null ? e.getLivro().getTitulo() : null),
+            new Coluna<>("livro_isbn", e -> e.getLivro() != null ? e.getLivro().getIsbn() : null),
+            new Coluna<>("data_emprestimo", Emprestimo::getDataEmprestimo),
+            new Coluna<>("data_devolucao_prevista", Emprestimo::getDataDevolucaoPrevista),
+            new Coluna<>("data_devolucao_efetiva", Emprestimo::getDataDevolucaoEfetiva),
+            new Coluna<>("status", Emprestimo::getStatus));
+
+    private AlunoDAO alunoDAO;
+    private LivroDAO livroDAO;
+    private EmprestimoDAO emprestimoDAO;
+
+    public ExportadorRelatorios() {
+        try {
+            this.alunoDAO = new AlunoDAO();
+            this.livroDAO = new LivroDAO();
+            this.emprestimoDAO = new EmprestimoDAO();
+        } catch (SQLException e) {
+            System.err.println("Erro ao inicializar ExportadorRelatorios: " + e.getMessage());
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+    }
+
+    /**
+     * Exporta todas as linhas de uma tabela.
+     * @param tabela a tabela
+     * @param formato o formato do arquivo
+     * @param destino o arquivo a ser gravado (sobrescrito se existir)
+     * @param compactar true para compactar o arquivo com gzip
+     * @return o resumo da exportação
+     * @throws Exception se ocorrer um erro no banco de dados ou na gravação do arquivo
+     */
+    public ResultadoExportacao exportar(Tabela tabela, Formato formato, Path destino, boolean compactar)
+            throws Exception {
+        try {
+            switch (tabela) {
+                case ALUNOS:
+                    try (Stream<Aluno> alunos = alunoDAO.streamTodos()) {
+                        return gravar(alunos, COLUNAS_ALUNOS, formato, destino, compactar);
+                    }
+                case LIVROS:
+                    try (Stream<Livro> livros = livroDAO.streamTodos()) {
+                        return gravar(livros, COLUNAS_LIVROS, formato, destino, compactar);
+                    }
+                default:
+                    try (Stream<Emprestimo> emprestimos = emprestimoDAO.streamTodos()) {
+                        return gravar(emprestimos, COLUNAS_EMPRESTIMOS, formato, destino, compactar);
+                    }
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Erro ao exportar " + tabela.name().toLowerCase() + ": " + e.getMessage());
+            throw new Exception("Falha ao exportar " + tabela.name().toLowerCase() + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar arquivo de exportação: " + e.getMessage());
+            throw new Exception("Falha ao gravar arquivo de exportação: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> ResultadoExportacao gravar(Stream<T> linhas, List<Coluna<T>> colunas, Formato formato, Path destino,
+                                           boolean compactar) throws IOException {
+        long inicio = System.nanoTime();
+        long total = 0;
+
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING);
+             Writer escritor = abrirEscritor(canal, compactar)) {
+            if (formato == Formato.CSV) {
+                Object[] cabecalho = new Object[colunas.size()];
+                for (int i = 0; i < cabecalho.length; i++) {
+                    cabecalho[i] = colunas.get(i).nome;
+                }
+                escritor.write(LeitorCsv.formatar(cabecalho));
+                escritor.write('\n');
+            }
+
+            Object[] valores = new Object[colunas.size()];
+            Iterator<T> it = linhas.iterator();
+            while (it.hasNext()) {
+                T linha = it.next();
+                if (formato == Formato.CSV) {
+                    for (int i = 0; i < valores.length; i++) {
+                        valores[i] = texto(colunas.get(i).valor.apply(linha));
+                    }
+                    escritor.write(LeitorCsv.formatar(valores));
+                } else {
+                    escreverJson(escritor, linha, colunas);
+                }
+                escritor.write('\n');
+                total++;
+            }
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        return new ResultadoExportacao(destino, total, Files.size(destino), duracaoMs);
+    }
+
+    private static Writer abrirEscritor(FileChannel canal, boolean compactar) throws IOException {
+        OutputStream saida = new BufferedOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER);
+        if (compactar) {
+            saida = new GZIPOutputStream(saida, TAMANHO_BUFFER);
+        }
+        return new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+    private static <T> void escreverJson(Writer escritor, T linha, List<Coluna<T>> colunas) throws IOException {
+        escritor.write('{');
+        for (int i = 0; i < colunas.size(); i++) {
+            Coluna<T> coluna = colunas.get(i);
+            if (i > 0) {
+                escritor.write(',');
+            }
+            escreverTextoJson(escritor, coluna.nome);
+            escritor.write(':');
+
+            Object valor = coluna.valor.apply(linha);
+            if (valor == null) {
+                escritor.write("null");
+            } else if (valor instanceof Number || valor instanceof Boolean) {
+                escritor.write(valor.toString());
+            } else {
+                escreverTextoJson(escritor, texto(valor));
+            }
+        }
+        escritor.write('}');
+    }
+
+    /**
+     * Escreve um texto como string JSON, entre aspas e com os caracteres de controle escapados.
+     * Usado também pela API HTTP.
+     * @param destino onde o texto é escrito
+     * @param texto o texto
+     * @throws IOException se ocorrer um erro de escrita
+     */
+    public static void escreverTextoJson(Appendable destino, String texto) throws IOException {
+        destino.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    destino.append("\\\"");
+                    break;
+                case '\\':
+                    destino.append("\\\\");
+                    break;
+                case '\n':
+                    destino.append("\\n");
+                    break;
+                case '\r':
+                    destino.append("\\r");
+                    break;
+                case '\t':
+                    destino.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        destino.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        destino.append(c);
+                    }
+            }
+        }
+        destino.append('"');
+    }
+
+    /**
+     * Representação textual de um valor; datas no formato ISO-8601 (aaaa-mm-ddThh:mm:ss).
+     */
+    private static String texto(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof Timestamp) {
+            return ((Timestamp) valor).toLocalDateTime().toString();
+        }
+        return valor.toString();
+    }
+
+    /**
+     * Coluna exportada: o nome no arquivo e como obter o valor da entidade.
+     */
+    private static final class Coluna<T> {
+        private final String nome;
+        private final Function<T, Object> valor;
+
+        Coluna(String nome, Function<T, Object> valor) {
+            this.nome = nome;
+            this.valor = valor;
+        }
+    }
+}
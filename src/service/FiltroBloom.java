@@ -0,0 +1,113 @@
+package src.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para chaves textuais (ISBN, matrícula).
+ *
+ * Responde "certamente ausente" ou "possivelmente presente": não há falsos negativos
+ * para as chaves adicionadas, então uma resposta negativa dispensa a consulta ao banco.
+ * Remoções não são suportadas; chaves removidas continuam como "possivelmente presente",
+ * o que só causa uma consulta a mais. As chaves são normalizadas como na collation do
+ * MySQL (sem diferença de maiúsculas e acentos), para que o filtro nunca seja mais
+ * restritivo que a restrição UNIQUE. Seguro para uso por várias threads.
+ */
+final class FiltroBloom {
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+    private final int capacidade;
+    private final AtomicInteger elementos = new AtomicInteger();
+
+    /**
+     * @param capacidade o número de chaves esperado
+     * @param taxaFalsoPositivo a taxa de falsos positivos desejada com a capacidade atingida
+     */
+    FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        int n = Math.max(1, capacidade);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.quantidadeBits = Math.max(64, m);
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((quantidadeBits + 63) / 64));
+        this.capacidade = n;
+    }
+
+    /**
+     * Adiciona uma chave ao filtro. Chaves nulas ou vazias são ignoradas.
+     * @param chave a chave
+     */
+    void adicionar(String chave) {
+        String normalizada = normalizar(chave);
+        if (normalizada.isEmpty()) {
+            return;
+        }
+
+        long hash = hash64(normalizada);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + (long) i * h2, quantidadeBits);
+            int palavra = (int) (posicao >>> 6);
+            long mascara = 1L << (posicao & 63);
+
+            long atual;
+            do {
+                atual = bits.get(palavra);
+            } while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+        elementos.incrementAndGet();
+    }
+
+    /**
+     * @param chave a chave
+     * @return false se a chave certamente nunca foi adicionada; true se pode ter sido
+     */
+    boolean podeConter(String chave) {
+        String normalizada = normalizar(chave);
+        long hash = hash64(normalizada);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + (long) i * h2, quantidadeBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << (posicao & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true se o número de chaves adicionadas já passou da capacidade, e a taxa
+     *         de falsos positivos está acima da planejada
+     */
+    boolean isSaturado() {
+        return elementos.get() > capacidade;
+    }
+
+    int getElementos() {
+        return elementos.get();
+    }
+
+    private static String normalizar(String chave) {
+        return chave == null ? "" : IndiceTrigramas.normalizar(chave.trim());
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a seguido da finalização do MurmurHash3) dos bytes UTF-8 da chave.
+     */
+    private static long hash64(String chave) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,235 @@
+package src.service;
+
+import src.dao.AlunoDAO;
+import src.dao.AlunoDAO.ResultadoGravacao;
+import src.dao.ConexaoDB;
+import src.model.Aluno;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de alunos a partir de um arquivo CSV, inserindo as matrículas
+ * novas e atualizando as existentes.
+ *
+ * O arquivo é lido uma única vez, em blocos de tamanho fixo. Em cada bloco, as linhas
+ * são validadas em paralelo e gravadas em uma transação com
+ * {@link AlunoDAO#gravarLote(List)}, que informa se cada aluno foi inserido, atualizado
+ * ou já estava igual. As linhas rejeitadas são gravadas em um arquivo CSV com o número
+ * da linha e o motivo.
+ *
+ * Colunas reconhecidas no cabeçalho, em qualquer ordem: nome, matricula, email e
+ * telefone. Apenas nome e matricula são obrigatórias; email e telefone vazios ou
+ * ausentes mantêm o valor cadastrado.
+ */
+public class ImportadorAlunos {
+    private AlunoDAO alunoDAO;
+    private int tamanhoBloco;
+
+    // Tamanho das colunas na tabela alunos
+    private static final int TAMANHO_NOME = 100;
+    private static final int TAMANHO_MATRICULA = 20;
+    private static final int TAMANHO_EMAIL = 100;
+    private static final int TAMANHO_TELEFONE = 20;
+
+    public ImportadorAlunos() {
+        try {
+            this.alunoDAO = new AlunoDAO();
+        } catch (SQLException e) {
+            System.err.println("Erro ao inicializar ImportadorAlunos: " + e.getMessage());
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+
+        this.tamanhoBloco = Math.max(1, ConexaoDB.lerInteiro("BIBLIOTECA_IMPORTACAO_BLOCO", 1000));
+    }
+
+    /**
+     * Importa os alunos do arquivo.
+     * @param arquivo o arquivo CSV, em UTF-8, com cabeçalho
+     * @param arquivoRejeitados o arquivo onde gravar as linhas rejeitadas (sobrescrito se existir)
+     * @return o resumo da importação
+     * @throws Exception se o arquivo não puder ser lido ou ocorrer um erro no banco de dados; os blocos
+     *         gravados antes do erro permanecem gravados
+     */
+    public ResultadoImportacao importar(Path arquivo, Path arquivoRejeitados) throws Exception {
+        long inicio = System.nanoTime();
+        ResultadoImportacao resultado = new ResultadoImportacao(arquivoRejeitados);
+
+        try (LeitorCsv leitor = new LeitorCsv(arquivo);
+             BufferedWriter rejeitados = Files.newBufferedWriter(arquivoRejeitados, StandardCharsets.UTF_8)) {
+            List<String> cabecalho = leitor.lerCabecalho();
+            if (cabecalho == null) {
+                throw new Exception("Arquivo vazio: " + arquivo);
+            }
+            Colunas colunas = new Colunas(cabecalho);
+
+            rejeitados.write(LeitorCsv.formatar("linha", "motivo", "registro"));
+            rejeitados.newLine();
+
+            List<LeitorCsv.Registro> bloco = new ArrayList<>(tamanhoBloco);
+            LeitorCsv.Registro registro;
+            while ((registro = leitor.proximo()) != null) {
+                bloco.add(registro);
+                if (bloco.size() == tamanhoBloco) {
+                    importarBloco(bloco, colunas, resultado, rejeitados);
+                    bloco.clear();
+                }
+            }
+            importarBloco(bloco, colunas, resultado, rejeitados);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de importação: " + e.getMessage());
+            throw new Exception("Falha ao importar alunos: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao importar alunos: " + e.getMessage());
+            throw new Exception("Falha ao importar alunos: " + e.getMessage(), e);
+        } finally {
+            resultado.setDuracaoMs((System.nanoTime() - inicio) / 1_000_000);
+        }
+
+        return resultado;
+    }
+
+    private void importarBloco(List<LeitorCsv.Registro> bloco, Colunas colunas, ResultadoImportacao resultado,
+                               BufferedWriter rejeitados) throws SQLException, IOException {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        resultado.somarLidos(bloco.size());
+
+        List<Linha> linhas = bloco.parallelStream()
+                                  .map(registro -> converter(registro, colunas))
+                                  .collect(Collectors.toList());
+
+        // Matrícula repetida no bloco: vale a última ocorrência, como se as linhas fossem aplicadas em ordem
+        Map<String, Linha> ultimaPorMatricula = new HashMap<>();
+        for (Linha linha : linhas) {
+            if (linha.aluno != null) {
+                Linha anterior = ultimaPorMatricula.put(IndiceTrigramas.normalizar(linha.aluno.getMatricula()), linha);
+                if (anterior != null) {
+                    anterior.rejeitar("Matrícula substituída pela linha " + linha.registro.getLinha());
+                }
+            }
+        }
+
+        List<Aluno> alunos = new ArrayList<>();
+        for (Linha linha : linhas) {
+            if (linha.aluno != null) {
+                alunos.add(linha.aluno);
+            }
+        }
+
+        ResultadoGravacao[] gravacoes = alunoDAO.gravarLote(alunos);
+
+        List<Aluno> gravados = new ArrayList<>();
+        for (int i = 0; i < gravacoes.length; i++) {
+            switch (gravacoes[i]) {
+                case INSERIDO:
+                    resultado.somarInseridos(1);
+                    gravados.add(alunos.get(i));
+                    break;
+                case ATUALIZADO:
+                    resultado.somarAtualizados(1);
+                    gravados.add(alunos.get(i));
+                    break;
+                default:
+                    resultado.somarInalterados(1);
+            }
+        }
+        AlunoService.registrarAlunosImportados(gravados);
+
+        for (Linha linha : linhas) {
+            if (linha.motivo != null) {
+                rejeitados.write(LeitorCsv.formatar(linha.registro.getLinha(), linha.motivo, linha.registro.getTexto()));
+                rejeitados.newLine();
+                resultado.somarRejeitados(1);
+            }
+        }
+    }
+
+    /**
+     * Converte e valida um registro, sem acessar o banco.
+     */
+    private Linha converter(LeitorCsv.Registro registro, Colunas colunas) {
+        Linha linha = new Linha(registro);
+        try {
+            Aluno aluno = new Aluno();
+            aluno.setNome(texto(registro, colunas.nome, "nome", TAMANHO_NOME));
+            aluno.setMatricula(texto(registro, colunas.matricula, "matricula", TAMANHO_MATRICULA));
+            aluno.setEmail(texto(registro, colunas.email, "email", TAMANHO_EMAIL));
+            aluno.setTelefone(texto(registro, colunas.telefone, "telefone", TAMANHO_TELEFONE));
+
+            AlunoService.validarAluno(aluno);
+            linha.aluno = aluno;
+        } catch (Exception e) {
+            linha.motivo = e.getMessage();
+        }
+        return linha;
+    }
+
+    private static String texto(LeitorCsv.Registro registro, int coluna, String nome, int tamanho) throws Exception {
+        String valor = registro.campo(coluna);
+        if (valor != null && valor.length() > tamanho) {
+            throw new Exception("Campo " + nome + " excede " + tamanho + " caracteres");
+        }
+        return valor;
+    }
+
+    public int getTamanhoBloco() {
+        return tamanhoBloco;
+    }
+
+    public void setTamanhoBloco(int tamanhoBloco) {
+        if (tamanhoBloco <= 0) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser positivo");
+        }
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Posição de cada coluna no arquivo (-1 se ausente).
+     */
+    private static final class Colunas {
+        private final int nome;
+        private final int matricula;
+        private final int email;
+        private final int telefone;
+
+        Colunas(List<String> cabecalho) throws Exception {
+            this.nome = cabecalho.indexOf("nome");
+            this.matricula = cabecalho.indexOf("matricula");
+            this.email = cabecalho.indexOf("email");
+            this.telefone = cabecalho.indexOf("telefone");
+
+            if (nome < 0 || matricula < 0) {
+                throw new Exception("O cabeçalho do arquivo deve conter as colunas nome e matricula");
+            }
+        }
+    }
+
+    /**
+     * Uma linha do bloco: o aluno convertido, ou o motivo da rejeição.
+     */
+    private static final class Linha {
+        private final LeitorCsv.Registro registro;
+        private Aluno aluno;
+        private String motivo;
+
+        Linha(LeitorCsv.Registro registro) {
+            this.registro = registro;
+        }
+
+        void rejeitar(String motivo) {
+            this.aluno = null;
+            this.motivo = motivo;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package src.service;
+
+import src.dao.ConexaoDB;
+import src.dao.LivroDAO;
+import src.model.Livro;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa do catálogo de livros a partir de um arquivo CSV.
+ *
+ * O arquivo é lido em blocos de tamanho fixo, então a memória usada não depende do
+ * tamanho do arquivo. Em cada bloco, as linhas são validadas em paralelo, os ISBNs
+ * repetidos no bloco ou já cadastrados (incluindo os dos blocos anteriores) são
+ * rejeitados e os livros válidos são inseridos em lote em uma única transação.
+ * As linhas rejeitadas são gravadas em um arquivo CSV com o número da linha e o motivo.
+ *
+ * Colunas reconhecidas no cabeçalho, em qualquer ordem: titulo, autor, editora,
+ * ano_publicacao, isbn, quantidade_total e quantidade_disponivel. Apenas titulo e
+ * autor são obrigatórias.
+ */
+public class ImportadorCatalogo {
+    private LivroDAO livroDAO;
+    private int tamanhoBloco;
+
+    // Tamanho das colunas na tabela livros
+    private static final int TAMANHO_TITULO = 200;
+    private static final int TAMANHO_AUTOR = 100;
+    private static final int TAMANHO_EDITORA = 100;
+    private static final int TAMANHO_ISBN = 20;
+
+    // Código de erro do MySQL para violação de chave única (ER_DUP_ENTRY)
+    private static final int ERRO_CHAVE_DUPLICADA = 1062;
+
+    public ImportadorCatalogo() {
+        try {
+            this.livroDAO = new LivroDAO();
+        } catch (SQLException e) {
+            System.err.println("Erro ao inicializar ImportadorCatalogo: " + e.getMessage());
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+
+        this.tamanhoBloco = Math.max(1, ConexaoDB.lerInteiro("BIBLIOTECA_IMPORTACAO_BLOCO", 1000));
+    }
+
+    /**
+     * Importa os livros do arquivo.
+     * @param arquivo o arquivo CSV, em UTF-8, com cabeçalho
+     * @param arquivoRejeitados o arquivo onde gravar as linhas rejeitadas (sobrescrito se existir)
+     * @return o resumo da importação
+     * @throws Exception se o arquivo não puder ser lido ou ocorrer um erro no banco de dados; os blocos
+     *         inseridos antes do erro permanecem gravados
+     */
+    public ResultadoImportacao importar(Path arquivo, Path arquivoRejeitados) throws Exception {
+        long inicio = System.nanoTime();
+        ResultadoImportacao resultado = new ResultadoImportacao(arquivoRejeitados);
+
+        try (LeitorCsv leitor = new LeitorCsv(arquivo);
+             BufferedWriter rejeitados = Files.newBufferedWriter(arquivoRejeitados, StandardCharsets.UTF_8)) {
+            List<String> cabecalho = leitor.lerCabecalho();
+            if (cabecalho == null) {
+                throw new Exception("Arquivo vazio: " + arquivo);
+            }
+            Colunas colunas = new Colunas(cabecalho);
+
+            rejeitados.write(LeitorCsv.formatar("linha", "motivo", "registro"));
+            rejeitados.newLine();
+
+            List<LeitorCsv.Registro> bloco = new ArrayList<>(tamanhoBloco);
+            LeitorCsv.Registro registro;
+            while ((registro = leitor.proximo()) != null) {
+                bloco.add(registro);
+                if (bloco.size() == tamanhoBloco) {
+                    importarBloco(bloco, colunas, resultado, rejeitados);
+                    bloco.clear();
+                }
+            }
+            importarBloco(bloco, colunas, resultado, rejeitados);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de importação: " + e.getMessage());
+            throw new Exception("Falha ao importar catálogo: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao importar catálogo: " + e.getMessage());
+            throw new Exception("Falha ao importar catálogo: " + e.getMessage(), e);
+        } finally {
+            resultado.setDuracaoMs((System.nanoTime() - inicio) / 1_000_000);
+        }
+
+        return resultado;
+    }
+
+    private void importarBloco(List<LeitorCsv.Registro> bloco, Colunas colunas, ResultadoImportacao resultado,
+                               BufferedWriter rejeitados) throws SQLException, IOException {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        resultado.somarLidos(bloco.size());
+
+        // A validação não depende do banco e é feita em paralelo, mantendo a ordem das linhas
+        List<Linha> linhas = bloco.parallelStream()
+                                  .map(registro -> converter(registro, colunas))
+                                  .collect(Collectors.toList());
+
+        // ISBNs repetidos no bloco: a primeira ocorrência é importada
+        Set<String> isbnsBloco = new HashSet<>();
+        for (Linha linha : linhas) {
+            if (linha.livro != null && linha.livro.getIsbn() != null &&
+                !isbnsBloco.add(chaveIsbn(linha.livro.getIsbn()))) {
+                linha.rejeitar("ISBN repetido no arquivo");
+            }
+        }
+
+        // ISBNs já cadastrados, inclusive pelos blocos anteriores deste arquivo
+        if (!isbnsBloco.isEmpty()) {
+            Set<String> existentes = new HashSet<>();
+            for (String isbn : livroDAO.filtrarIsbnsExistentes(isbnsBloco)) {
+                existentes.add(chaveIsbn(isbn));
+            }
+            for (Linha linha : linhas) {
+                if (linha.livro != null && linha.livro.getIsbn() != null &&
+                    existentes.contains(chaveIsbn(linha.livro.getIsbn()))) {
+                    linha.rejeitar("ISBN já cadastrado");
+                }
+            }
+        }
+
+        List<Livro> livros = new ArrayList<>();
+        for (Linha linha : linhas) {
+            if (linha.livro != null) {
+                livros.add(linha.livro);
+            }
+        }
+
+        List<Livro> inseridos = inserir(livros, linhas);
+        LivroService.registrarLivrosImportados(inseridos);
+        resultado.somarInseridos(inseridos.size());
+
+        for (Linha linha : linhas) {
+            if (linha.motivo != null) {
+                rejeitados.write(LeitorCsv.formatar(linha.registro.getLinha(), linha.motivo, linha.registro.getTexto()));
+                rejeitados.newLine();
+                resultado.somarRejeitados(1);
+            }
+        }
+    }
+
+    /**
+     * Insere os livros em lote. Se o lote violar a unicidade do ISBN (cadastro concorrente,
+     * ou ISBNs que só diferem pela collation), os livros são inseridos um a um e os
+     * duplicados são rejeitados.
+     */
+    private List<Livro> inserir(List<Livro> livros, List<Linha> linhas) throws SQLException {
+        try {
+            livroDAO.inserirLote(livros);
+            return livros;
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ERRO_CHAVE_DUPLICADA) {
+                throw e;
+            }
+        }
+
+        List<Livro> inseridos = new ArrayList<>();
+        for (Linha linha : linhas) {
+            if (linha.livro == null) {
+                continue;
+            }
+            try {
+                livroDAO.inserirLote(Collections.singletonList(linha.livro));
+                inseridos.add(linha.livro);
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ERRO_CHAVE_DUPLICADA) {
+                    throw e;
+                }
+                linha.rejeitar("ISBN já cadastrado");
+            }
+        }
+        return inseridos;
+    }
+
+    /**
+     * Converte e valida um registro, sem acessar o banco.
+     */
+    private Linha converter(LeitorCsv.Registro registro, Colunas colunas) {
+        Linha linha = new Linha(registro);
+        try {
+            Livro livro = new Livro();
+            livro.setTitulo(texto(registro, colunas.titulo, "titulo", TAMANHO_TITULO));
+            livro.setAutor(texto(registro, colunas.autor, "autor", TAMANHO_AUTOR));
+            livro.setEditora(texto(registro, colunas.editora, "editora", TAMANHO_EDITORA));
+            livro.setIsbn(texto(registro, colunas.isbn, "isbn", TAMANHO_ISBN));
+            livro.setAnoPublicacao(inteiro(registro, colunas.anoPublicacao, "ano_publicacao", 0));
+            livro.setQuantidadeTotal(inteiro(registro, colunas.quantidadeTotal, "quantidade_total", 1));
+            livro.setQuantidadeDisponivel(inteiro(registro, colunas.quantidadeDisponivel, "quantidade_disponivel",
+                                                  livro.getQuantidadeTotal()));
+
+            LivroService.validarLivro(livro);
+            linha.livro = livro;
+        } catch (Exception e) {
+            linha.motivo = e.getMessage();
+        }
+        return linha;
+    }
+
+    private static String texto(LeitorCsv.Registro registro, int coluna, String nome, int tamanho) throws Exception {
+        String valor = registro.campo(coluna);
+        if (valor != null && valor.length() > tamanho) {
+            throw new Exception("Campo " + nome + " excede " + tamanho + " caracteres");
+        }
+        return valor;
+    }
+
+    private static int inteiro(LeitorCsv.Registro registro, int coluna, String nome, int padrao) throws Exception {
+        String valor = registro.campo(coluna);
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new Exception("Campo " + nome + " não é um número inteiro: " + valor);
+        }
+    }
+
+    /**
+     * Chave de comparação de ISBNs, que ignora maiúsculas como a collation da coluna.
+     */
+    private static String chaveIsbn(String isbn) {
+        return isbn.trim().toUpperCase();
+    }
+
+    public int getTamanhoBloco() {
+        return tamanhoBloco;
+    }
+
+    public void setTamanhoBloco(int tamanhoBloco) {
+        if (tamanhoBloco <= 0) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser positivo");
+        }
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Posição de cada coluna no arquivo (-1 se ausente).
+     */
+    private static final class Colunas {
+        private final int titulo;
+        private final int autor;
+        private final int editora;
+        private final int anoPublicacao;
+        private final int isbn;
+        private final int quantidadeTotal;
+        private final int quantidadeDisponivel;
+
+        Colunas(List<String> cabecalho) throws Exception {
+            this.titulo = cabecalho.indexOf("titulo");
+            this.autor = cabecalho.indexOf("autor");
+            this.editora = cabecalho.indexOf("editora");
+            this.anoPublicacao = cabecalho.indexOf("ano_publicacao");
+            this.isbn = cabecalho.indexOf("isbn");
+            this.quantidadeTotal = cabecalho.indexOf("quantidade_total");
+            this.quantidadeDisponivel = cabecalho.indexOf("quantidade_disponivel");
+
+            if (titulo < 0 || autor < 0) {
+                throw new Exception("O cabeçalho do arquivo deve conter as colunas titulo e autor");
+            }
+        }
+    }
+
+    /**
+     * Uma linha do bloco: o livro convertido, ou o motivo da rejeição.
+     */
+    private static final class Linha {
+        private final LeitorCsv.Registro registro;
+        private Livro livro;
+        private String motivo;
+
+        Linha(LeitorCsv.Registro registro) {
+            this.registro = registro;
+        }
+
+        void rejeitar(String motivo) {
+            this.livro = null;
+            this.motivo = motivo;
+        }
+    }
+}
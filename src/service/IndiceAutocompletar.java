@@ -0,0 +1,362 @@
+package src.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória para autocompletar por prefixo, ordenado por popularidade.
+ *
+ * Os textos normalizados (minúsculas, sem acentos) ficam em arrays paralelos ordenados
+ * por (texto, id); um prefixo corresponde a um intervalo contínuo encontrado por busca
+ * binária, do qual são escolhidos os k itens mais populares com um heap de tamanho k.
+ *
+ * Prefixos de até {@value #TAMANHO_PREFIXO_CURTO} caracteres (as primeiras teclas) cobrem
+ * boa parte do índice, então os seus {@value #LIMITE_MEMORIZADO} mais populares são
+ * calculados uma vez e mantidos nas atualizações, em vez de percorrer o intervalo a cada
+ * consulta. Seguro para uso por várias threads.
+ */
+final class IndiceAutocompletar {
+    private static final int TAMANHO_PREFIXO_CURTO = 2;
+    private static final int LIMITE_MEMORIZADO = 50;
+
+    private String[] chaves = new String[0];
+    private String[] textos = new String[0];
+    private int[] ids = new int[0];
+    private int[] popularidades = new int[0];
+    private int tamanho;
+
+    // Chave normalizada de cada ID, para localizar a posição nas atualizações
+    private final Map<Integer, String> chavePorId = new HashMap<>();
+    // IDs mais populares de cada prefixo curto, do mais para o menos popular; calculados na
+    // primeira consulta (sob o bloqueio de leitura) e mantidos sob o bloqueio de escrita
+    private final Map<String, int[]> melhoresPorPrefixo = new ConcurrentHashMap<>();
+    private final ReadWriteLock bloqueio = new ReentrantReadWriteLock();
+
+    /**
+     * Substitui todo o conteúdo do índice.
+     * @param textosPorId o texto de cada entidade
+     * @param popularidade o número de empréstimos de cada entidade (ausente = 0)
+     */
+    void carregar(Map<Integer, String> textosPorId, Map<Integer, Integer> popularidade) {
+        List<Integer> ordem = new ArrayList<>(textosPorId.keySet());
+        Map<Integer, String> chavesNovas = new HashMap<>();
+        for (Integer id : ordem) {
+            chavesNovas.put(id, IndiceTrigramas.normalizar(textosPorId.get(id)));
+        }
+        ordem.sort(Comparator.comparing((Integer id) -> chavesNovas.get(id)).thenComparing(id -> id));
+
+        int n = ordem.size();
+        String[] novasChaves = new String[n];
+        String[] novosTextos = new String[n];
+        int[] novosIds = new int[n];
+        int[] novasPopularidades = new int[n];
+        for (int i = 0; i < n; i++) {
+            int id = ordem.get(i);
+            novasChaves[i] = chavesNovas.get(id);
+            novosTextos[i] = textosPorId.get(id);
+            novosIds[i] = id;
+            novasPopularidades[i] = popularidade.getOrDefault(id, 0);
+        }
+
+        bloqueio.writeLock().lock();
+        try {
+            chaves = novasChaves;
+            textos = novosTextos;
+            ids = novosIds;
+            popularidades = novasPopularidades;
+            tamanho = n;
+            chavePorId.clear();
+            chavePorId.putAll(chavesNovas);
+            melhoresPorPrefixo.clear();
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adiciona uma entidade ou atualiza o seu texto, mantendo a popularidade.
+     * @param id o ID da entidade
+     * @param texto o texto exibido e pesquisado
+     */
+    void adicionar(int id, String texto) {
+        String chave = IndiceTrigramas.normalizar(texto);
+
+        bloqueio.writeLock().lock();
+        try {
+            int popularidade = 0;
+            int anterior = posicao(id);
+            if (anterior >= 0) {
+                popularidade = popularidades[anterior];
+                invalidarPrefixos(chaves[anterior]);
+                removerPosicao(anterior);
+            }
+            invalidarPrefixos(chave);
+
+            int posicao = -buscarPosicao(chave, id) - 1;
+            if (tamanho == chaves.length) {
+                int capacidade = Math.max(16, tamanho * 2);
+                chaves = Arrays.copyOf(chaves, capacidade);
+                textos = Arrays.copyOf(textos, capacidade);
+                ids = Arrays.copyOf(ids, capacidade);
+                popularidades = Arrays.copyOf(popularidades, capacidade);
+            }
+            int deslocados = tamanho - posicao;
+            System.arraycopy(chaves, posicao, chaves, posicao + 1, deslocados);
+            System.arraycopy(textos, posicao, textos, posicao + 1, deslocados);
+            System.arraycopy(ids, posicao, ids, posicao + 1, deslocados);
+            System.arraycopy(popularidades, posicao, popularidades, posicao + 1, deslocados);
+            chaves[posicao] = chave;
+            textos[posicao] = texto;
+            ids[posicao] = id;
+            popularidades[posicao] = popularidade;
+            tamanho++;
+            chavePorId.put(id, chave);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove uma entidade do índice.
+     * @param id o ID da entidade
+     */
+    void remover(int id) {
+        bloqueio.writeLock().lock();
+        try {
+            int posicao = posicao(id);
+            if (posicao >= 0) {
+                invalidarPrefixos(chaves[posicao]);
+                removerPosicao(posicao);
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Soma um empréstimo à popularidade da entidade.
+     * @param id o ID da entidade
+     */
+    void incrementarPopularidade(int id) {
+        bloqueio.writeLock().lock();
+        try {
+            int posicao = posicao(id);
+            if (posicao >= 0) {
+                popularidades[posicao]++;
+                promoverNosPrefixos(id, posicao);
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Define a popularidade da entidade, como lida do banco.
+     * @param id o ID da entidade
+     * @param popularidade o número de empréstimos da entidade
+     */
+    void definirPopularidade(int id, int popularidade) {
+        bloqueio.writeLock().lock();
+        try {
+            int posicao = posicao(id);
+            if (posicao >= 0 && popularidades[posicao] != popularidade) {
+                popularidades[posicao] = popularidade;
+                invalidarPrefixos(chaves[posicao]);
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna as entidades mais populares cujo texto começa com o prefixo.
+     * @param prefixo o início do texto (ignorando maiúsculas e acentos)
+     * @param limite o número máximo de sugestões
+     * @return as sugestões, da mais para a menos popular (empate em ordem alfabética)
+     */
+    List<Sugestao> sugerir(String prefixo, int limite) {
+        String chave = IndiceTrigramas.normalizar(prefixo);
+
+        bloqueio.readLock().lock();
+        try {
+            List<Sugestao> sugestoes = new ArrayList<>(Math.min(limite, LIMITE_MEMORIZADO));
+            if (chave.length() <= TAMANHO_PREFIXO_CURTO && limite <= LIMITE_MEMORIZADO) {
+                int[] melhores = melhoresPorPrefixo.computeIfAbsent(chave, this::calcularMelhores);
+                for (int j = 0; j < melhores.length && j < limite; j++) {
+                    int i = posicao(melhores[j]);
+                    sugestoes.add(new Sugestao(ids[i], textos[i], popularidades[i]));
+                }
+                return sugestoes;
+            }
+
+            for (int i : melhoresPosicoes(chave, limite)) {
+                sugestoes.add(new Sugestao(ids[i], textos[i], popularidades[i]));
+            }
+            return sugestoes;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return o número de entidades indexadas
+     */
+    int tamanho() {
+        bloqueio.readLock().lock();
+        try {
+            return tamanho;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre o intervalo do prefixo e escolhe as posições mais populares.
+     * @return as posições, da mais para a menos popular (empate em ordem alfabética)
+     */
+    private List<Integer> melhoresPosicoes(String chave, int limite) {
+        int inicio = limiteInferior(chave);
+        int fim = limiteInferior(chave + Character.MAX_VALUE);
+
+        // Heap com os k mais populares do intervalo; o topo é o menos popular entre eles
+        Comparator<Integer> ordem = Comparator.<Integer>comparingInt(i -> popularidades[i])
+                                              .thenComparing(Comparator.<Integer>naturalOrder().reversed());
+        PriorityQueue<Integer> melhores = new PriorityQueue<>(limite + 1, ordem);
+        for (int i = inicio; i < fim; i++) {
+            if (melhores.size() < limite) {
+                melhores.add(i);
+            } else if (ordem.compare(i, melhores.peek()) > 0) {
+                melhores.poll();
+                melhores.add(i);
+            }
+        }
+
+        List<Integer> posicoes = new ArrayList<>(melhores);
+        posicoes.sort(Collections.reverseOrder(ordem));
+        return posicoes;
+    }
+
+    private int[] calcularMelhores(String prefixo) {
+        List<Integer> posicoes = melhoresPosicoes(prefixo, LIMITE_MEMORIZADO);
+        int[] melhores = new int[posicoes.size()];
+        for (int j = 0; j < melhores.length; j++) {
+            melhores[j] = ids[posicoes.get(j)];
+        }
+        return melhores;
+    }
+
+    /**
+     * Descarta os mais populares memorizados dos prefixos curtos da chave, que serão
+     * recalculados na próxima consulta.
+     */
+    private void invalidarPrefixos(String chave) {
+        for (int tamanhoPrefixo = 0; tamanhoPrefixo <= Math.min(TAMANHO_PREFIXO_CURTO, chave.length()); tamanhoPrefixo++) {
+            melhoresPorPrefixo.remove(chave.substring(0, tamanhoPrefixo));
+        }
+    }
+
+    /**
+     * Reposiciona a entidade nos mais populares memorizados dos seus prefixos curtos depois
+     * de a sua popularidade aumentar. Como a popularidade só cresceu, basta movê-la para
+     * cima ou, se não estava entre eles, compará-la com o último.
+     */
+    private void promoverNosPrefixos(int id, int posicao) {
+        String chave = chaves[posicao];
+        for (int tamanhoPrefixo = 0; tamanhoPrefixo <= Math.min(TAMANHO_PREFIXO_CURTO, chave.length()); tamanhoPrefixo++) {
+            int[] melhores = melhoresPorPrefixo.get(chave.substring(0, tamanhoPrefixo));
+            if (melhores == null || melhores.length == 0) {
+                continue;
+            }
+
+            int j = 0;
+            while (j < melhores.length && melhores[j] != id) {
+                j++;
+            }
+            if (j == melhores.length) {
+                // Ausente: o intervalo tinha mais que LIMITE_MEMORIZADO entidades
+                j = melhores.length - 1;
+                if (!maisPopular(posicao, posicao(melhores[j]))) {
+                    continue;
+                }
+                melhores[j] = id;
+            }
+            while (j > 0 && maisPopular(posicao, posicao(melhores[j - 1]))) {
+                melhores[j] = melhores[j - 1];
+                melhores[--j] = id;
+            }
+        }
+    }
+
+    /**
+     * Ordem das sugestões: maior popularidade e, no empate, ordem alfabética.
+     */
+    private boolean maisPopular(int a, int b) {
+        return popularidades[a] != popularidades[b] ? popularidades[a] > popularidades[b] : a < b;
+    }
+
+    private int posicao(int id) {
+        String chave = chavePorId.get(id);
+        return chave == null ? -1 : buscarPosicao(chave, id);
+    }
+
+    private void removerPosicao(int posicao) {
+        chavePorId.remove(ids[posicao]);
+        int deslocados = tamanho - posicao - 1;
+        System.arraycopy(chaves, posicao + 1, chaves, posicao, deslocados);
+        System.arraycopy(textos, posicao + 1, textos, posicao, deslocados);
+        System.arraycopy(ids, posicao + 1, ids, posicao, deslocados);
+        System.arraycopy(popularidades, posicao + 1, popularidades, posicao, deslocados);
+        tamanho--;
+        chaves[tamanho] = null;
+        textos[tamanho] = null;
+    }
+
+    /**
+     * Busca binária por (chave, id), no formato de Arrays.binarySearch.
+     */
+    private int buscarPosicao(String chave, int id) {
+        int baixo = 0;
+        int alto = tamanho - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int comparacao = chaves[meio].compareTo(chave);
+            if (comparacao == 0) {
+                comparacao = Integer.compare(ids[meio], id);
+            }
+            if (comparacao < 0) {
+                baixo = meio + 1;
+            } else if (comparacao > 0) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(baixo + 1);
+    }
+
+    /**
+     * Primeira posição cuja chave é maior ou igual à informada.
+     */
+    private int limiteInferior(String chave) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio].compareTo(chave) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
@@ -0,0 +1,243 @@
+package src.service;
+
+import src.model.Livro;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas em memória sobre título, autor e editora dos livros,
+ * para buscas por substring sem consultar o banco.
+ *
+ * Os textos são normalizados para minúsculas e sem acentos, como na collation padrão
+ * do MySQL. Cada trigrama aponta para uma lista ordenada de IDs em um int[]; a busca
+ * intersecta as listas dos trigramas do termo e confirma cada candidato no texto
+ * normalizado guardado para o livro. Seguro para uso por várias threads.
+ */
+final class IndiceTrigramas {
+    /**
+     * Campos indexados.
+     */
+    enum Campo {
+        TITULO,
+        AUTOR,
+        EDITORA
+    }
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final int[] VAZIO = new int[0];
+
+    // Um índice por campo: trigrama (três chars em um long) -> IDs dos livros
+    private final Map<Long, ListaIds>[] indices;
+    // Textos normalizados por ID, na ordem de Campo, para confirmar os candidatos
+    private final Map<Integer, String[]> textos = new HashMap<>();
+    private final ReadWriteLock bloqueio = new ReentrantReadWriteLock();
+
+    @SuppressWarnings("unchecked")
+    IndiceTrigramas() {
+        indices = (Map<Long, ListaIds>[]) new Map<?, ?>[Campo.values().length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Adiciona o livro ao índice, substituindo os textos anteriores se ele já estiver indexado.
+     * @param livro o livro
+     */
+    void adicionar(Livro livro) {
+        String[] normalizados = {
+            normalizar(livro.getTitulo()),
+            normalizar(livro.getAutor()),
+            normalizar(livro.getEditora())
+        };
+
+        bloqueio.writeLock().lock();
+        try {
+            removerSemBloqueio(livro.getId());
+            textos.put(livro.getId(), normalizados);
+            for (int campo = 0; campo < normalizados.length; campo++) {
+                for (long trigrama : trigramas(normalizados[campo])) {
+                    indices[campo].computeIfAbsent(trigrama, t -> new ListaIds()).adicionar(livro.getId());
+                }
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove o livro do índice.
+     * @param id o ID do livro
+     */
+    void remover(int id) {
+        bloqueio.writeLock().lock();
+        try {
+            removerSemBloqueio(id);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    private void removerSemBloqueio(int id) {
+        String[] anteriores = textos.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+
+        for (int campo = 0; campo < anteriores.length; campo++) {
+            for (long trigrama : trigramas(anteriores[campo])) {
+                ListaIds lista = indices[campo].get(trigrama);
+                if (lista != null && lista.remover(id) && lista.tamanho == 0) {
+                    indices[campo].remove(trigrama);
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca os livros cujo campo contém o termo (ignorando maiúsculas e acentos).
+     * @param campo o campo pesquisado
+     * @param termo o trecho buscado
+     * @return os IDs encontrados, em ordem crescente
+     */
+    int[] buscar(Campo campo, String termo) {
+        String trecho = normalizar(termo);
+        int indiceCampo = campo.ordinal();
+
+        bloqueio.readLock().lock();
+        try {
+            Set<Long> doTermo = trigramas(trecho);
+
+            if (doTermo.isEmpty()) {
+                // Termos com menos de três caracteres não têm trigramas: verifica todos os textos
+                return filtrar(textos.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(),
+                               indiceCampo, trecho);
+            }
+
+            ListaIds[] listas = new ListaIds[doTermo.size()];
+            int i = 0;
+            for (long trigrama : doTermo) {
+                ListaIds lista = indices[indiceCampo].get(trigrama);
+                if (lista == null) {
+                    return VAZIO;
+                }
+                listas[i++] = lista;
+            }
+
+            // Intersecta a partir da menor lista, que limita o número de candidatos
+            Arrays.sort(listas, Comparator.comparingInt(l -> l.tamanho));
+            int[] candidatos = Arrays.copyOf(listas[0].ids, listas[0].tamanho);
+            for (int j = 1; j < listas.length && candidatos.length > 0; j++) {
+                candidatos = intersectar(candidatos, listas[j]);
+            }
+
+            // Os trigramas podem estar em posições diferentes do texto: confirma a substring
+            return filtrar(candidatos, indiceCampo, trecho);
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return o número de livros indexados
+     */
+    int tamanho() {
+        bloqueio.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    private int[] filtrar(int[] candidatos, int campo, String trecho) {
+        int[] encontrados = new int[candidatos.length];
+        int total = 0;
+        for (int id : candidatos) {
+            if (textos.get(id)[campo].contains(trecho)) {
+                encontrados[total++] = id;
+            }
+        }
+        return Arrays.copyOf(encontrados, total);
+    }
+
+    private static int[] intersectar(int[] ids, ListaIds lista) {
+        int[] resultado = new int[Math.min(ids.length, lista.tamanho)];
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < lista.tamanho) {
+            if (ids[i] < lista.ids[j]) {
+                i++;
+            } else if (ids[i] > lista.ids[j]) {
+                j++;
+            } else {
+                resultado[total++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, total);
+    }
+
+    private static Set<Long> trigramas(String texto) {
+        Set<Long> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.add(((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2));
+        }
+        return trigramas;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase();
+    }
+
+    /**
+     * Lista ordenada de IDs em um array primitivo que cresce sob demanda.
+     */
+    private static final class ListaIds {
+        private int[] ids = new int[4];
+        private int tamanho;
+
+        void adicionar(int id) {
+            // IDs novos costumam ser maiores que os existentes (auto incremento): inserção no fim
+            int posicao = (tamanho == 0 || ids[tamanho - 1] < id) ? tamanho : Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0 && posicao < tamanho) {
+                return;
+            }
+            if (posicao < 0) {
+                posicao = -posicao - 1;
+            }
+
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        boolean remover(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package src.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Leitura de arquivos CSV registro a registro, sem carregar o arquivo em memória.
+ *
+ * Segue o formato RFC 4180: campos entre aspas podem conter o separador, quebras de
+ * linha e aspas duplicadas. O separador (vírgula ou ponto e vírgula) é detectado no
+ * cabeçalho.
+ */
+final class LeitorCsv implements Closeable {
+    private final BufferedReader leitor;
+    private char separador = ',';
+    private int linhaAtual;
+
+    LeitorCsv(Path arquivo) throws IOException {
+        this.leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê o cabeçalho, detectando o separador.
+     * @return os nomes das colunas, em minúsculas e sem espaços nas pontas, ou null se o arquivo estiver vazio
+     * @throws IOException se ocorrer um erro de leitura
+     */
+    List<String> lerCabecalho() throws IOException {
+        String linha = leitor.readLine();
+        if (linha == null) {
+            return null;
+        }
+        linhaAtual++;
+
+        // Remove a marca de ordem de bytes gravada por algumas planilhas
+        if (linha.startsWith("\uFEFF")) {
+            linha = linha.substring(1);
+        }
+        if (linha.indexOf(';') >= 0 && linha.indexOf(',') < 0) {
+            separador = ';';
+        }
+
+        List<String> colunas = new ArrayList<>();
+        for (String coluna : separar(linha)) {
+            colunas.add(coluna.trim().toLowerCase());
+        }
+        return colunas;
+    }
+
+    /**
+     * Lê o próximo registro, que pode ocupar várias linhas se tiver campos entre aspas.
+     * Linhas em branco são ignoradas.
+     * @return o registro, ou null no fim do arquivo
+     * @throws IOException se ocorrer um erro de leitura
+     */
+    Registro proximo() throws IOException {
+        String linha;
+        do {
+            linha = leitor.readLine();
+            if (linha == null) {
+                return null;
+            }
+            linhaAtual++;
+        } while (linha.trim().isEmpty());
+
+        int inicio = linhaAtual;
+        StringBuilder texto = new StringBuilder(linha);
+        while (aspasAbertas(texto)) {
+            String continuacao = leitor.readLine();
+            if (continuacao == null) {
+                break;
+            }
+            linhaAtual++;
+            texto.append('\n').append(continuacao);
+        }
+
+        return new Registro(inicio, separar(texto.toString()), texto.toString());
+    }
+
+    private boolean aspasAbertas(CharSequence texto) {
+        int aspas = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') {
+                aspas++;
+            }
+        }
+        return aspas % 2 != 0;
+    }
+
+    private List<String> separar(String texto) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+
+        return campos;
+    }
+
+    /**
+     * Monta uma linha CSV separada por vírgulas, colocando entre aspas os campos que precisam.
+     * @param campos os valores (null é gravado como vazio)
+     * @return a linha, sem a quebra de linha final
+     */
+    static String formatar(Object... campos) {
+        StringBuilder linha = new StringBuilder();
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                linha.append(',');
+            }
+            String valor = campos[i] == null ? "" : campos[i].toString();
+            if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf(';') >= 0 ||
+                valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+                linha.append('"').append(valor.replace("\"", "\"\"")).append('"');
+            } else {
+                linha.append(valor);
+            }
+        }
+        return linha.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        leitor.close();
+    }
+
+    /**
+     * Registro lido do arquivo.
+     */
+    static final class Registro {
+        private final int linha;
+        private final List<String> campos;
+        private final String texto;
+
+        Registro(int linha, List<String> campos, String texto) {
+            this.linha = linha;
+            this.campos = Collections.unmodifiableList(campos);
+            this.texto = texto;
+        }
+
+        /**
+         * @return o número da linha do arquivo em que o registro começa
+         */
+        int getLinha() {
+            return linha;
+        }
+
+        /**
+         * @param indice a posição da coluna, ou -1 se a coluna não existe no arquivo
+         * @return o valor sem espaços nas pontas, ou null se ausente ou vazio
+         */
+        String campo(int indice) {
+            if (indice < 0 || indice >= campos.size()) {
+                return null;
+            }
+            String valor = campos.get(indice).trim();
+            return valor.isEmpty() ? null : valor;
+        }
+
+        /**
+         * @return o texto original do registro
+         */
+        String getTexto() {
+            return texto;
+        }
+    }
+}
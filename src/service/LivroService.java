@@ -1,16 +1,47 @@
 package src.service;
 
 import src.dao.LivroDAO;
+import src.dao.Pagina;
 import src.model.Livro;
+import src.model.ErroNegocio;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Classe de serviço para operações relacionadas a livros.
  */
 public class LivroService {
     private LivroDAO livroDAO;
+    // Executor das operações *Async (null usa o pool padrão de ExecucaoAssincrona)
+    private volatile Executor executor;
+
+    // Limite de itens por página nas listagens paginadas
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
+    // Índices do catálogo em memória, compartilhados por todas as instâncias do serviço
+    private static final IndiceTrigramas INDICE_CATALOGO = new IndiceTrigramas();
+    private static final IndiceAutocompletar INDICE_TITULOS = new IndiceAutocompletar();
+    private static final AlteracoesDuranteCarga ALTERACOES_CATALOGO = new AlteracoesDuranteCarga();
+
+    // Limite de sugestões do autocompletar
+    private static final int MAXIMO_SUGESTOES = 50;
+
+    // Filtro de Bloom dos ISBNs cadastrados, compartilhado por todas as instâncias do serviço
+    private static volatile FiltroBloom filtroIsbns;
+    private static final int CAPACIDADE_MINIMA_FILTRO = 100000;
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+    // Código de erro do MySQL para violação de chave única (ER_DUP_ENTRY)
+    private static final int ERRO_CHAVE_DUPLICADA = 1062;
 
     public LivroService() {
         try {
@@ -19,6 +50,123 @@ public class LivroService {
             System.err.println("Erro ao inicializar LivroService: " + e.getMessage());
             throw new RuntimeException("Falha ao conectar ao banco de dados", e);
         }
+        
+        carregarIndice();
+        obterFiltroIsbns();
+    }
+
+    /**
+     * Retorna o filtro de ISBNs, criando-o (ou recriando-o, se já recebeu mais chaves
+     * do que a capacidade planejada) a partir de uma leitura da coluna isbn.
+     * @return o filtro, ou null se não foi possível carregá-lo
+     */
+    private FiltroBloom obterFiltroIsbns() {
+        FiltroBloom filtro = filtroIsbns;
+        if (filtro != null && !filtro.isSaturado()) {
+            return filtro;
+        }
+        
+        synchronized (LivroService.class) {
+            if (filtroIsbns == null || filtroIsbns.isSaturado()) {
+                try {
+                    FiltroBloom novo = new FiltroBloom(Math.max(2 * livroDAO.contar(), CAPACIDADE_MINIMA_FILTRO),
+                                                       TAXA_FALSO_POSITIVO);
+                    try (Stream<String> isbns = livroDAO.streamIsbns()) {
+                        isbns.forEach(novo::adicionar);
+                    }
+                    filtroIsbns = novo;
+                } catch (SQLException | IllegalStateException e) {
+                    System.err.println("Erro ao carregar filtro de ISBNs: " + e.getMessage());
+                }
+            }
+            return filtroIsbns;
+        }
+    }
+
+    /**
+     * Indica se o ISBN pode já estar cadastrado. Uma resposta negativa é definitiva e
+     * dispensa a consulta ao banco; sem o filtro, a resposta é sempre positiva.
+     * @param isbn o ISBN
+     * @return false se o ISBN certamente não está cadastrado
+     */
+    private boolean isbnPodeExistir(String isbn) {
+        FiltroBloom filtro = obterFiltroIsbns();
+        return filtro == null || filtro.podeConter(isbn);
+    }
+
+    private static void registrarIsbn(String isbn) {
+        FiltroBloom filtro = filtroIsbns;
+        if (filtro != null) {
+            filtro.adicionar(isbn);
+        }
+    }
+
+    /**
+     * Atualiza os índices em memória e o filtro de ISBNs com livros inseridos fora
+     * deste serviço (importação em lote).
+     * @param livros os livros inseridos, com os IDs gerados
+     */
+    static void registrarLivrosImportados(List<Livro> livros) {
+        for (Livro livro : livros) {
+            registrarIsbn(livro.getIsbn());
+            if (ALTERACOES_CATALOGO.registrar(livro.getId())) {
+                INDICE_CATALOGO.adicionar(livro);
+                INDICE_TITULOS.adicionar(livro.getId(), livro.getTitulo());
+            }
+        }
+    }
+
+    /**
+     * Carrega os índices de trigramas e de autocompletar percorrendo o catálogo com um
+     * cursor, na primeira chamada. Os livros alterados durante a carga são relidos ao final
+     * dela. Em caso de falha, as buscas usam o banco e a carga é tentada novamente na
+     * busca seguinte.
+     * @return true se os índices estão carregados
+     */
+    private boolean carregarIndice() {
+        if (ALTERACOES_CATALOGO.isConcluida()) {
+            return true;
+        }
+        
+        synchronized (INDICE_CATALOGO) {
+            if (!ALTERACOES_CATALOGO.isConcluida()) {
+                Map<Integer, String> titulos = new HashMap<>();
+                try (Stream<Livro> livros = livroDAO.streamTodos()) {
+                    livros.forEach(livro -> {
+                        INDICE_CATALOGO.adicionar(livro);
+                        titulos.put(livro.getId(), livro.getTitulo());
+                    });
+                    INDICE_TITULOS.carregar(titulos, livroDAO.contarEmprestimos());
+                    ALTERACOES_CATALOGO.concluir(this::reindexar);
+                } catch (SQLException | IllegalStateException e) {
+                    System.err.println("Erro ao carregar índice do catálogo: " + e.getMessage());
+                }
+            }
+        }
+        
+        return ALTERACOES_CATALOGO.isConcluida();
+    }
+
+    /**
+     * Relê do banco os livros informados, com o número de empréstimos, e atualiza os
+     * índices; os removidos saem deles.
+     * @param ids os IDs dos livros alterados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private void reindexar(Set<Integer> ids) throws SQLException {
+        Map<Integer, Livro> livros = livroDAO.buscarPorIds(ids);
+        Map<Integer, Integer> emprestimos = livroDAO.contarEmprestimos();
+        for (int id : ids) {
+            Livro livro = livros.get(id);
+            if (livro != null) {
+                INDICE_CATALOGO.adicionar(livro);
+                INDICE_TITULOS.adicionar(id, livro.getTitulo());
+                INDICE_TITULOS.definirPopularidade(id, emprestimos.getOrDefault(id, 0));
+            } else {
+                INDICE_CATALOGO.remover(id);
+                INDICE_TITULOS.remover(id);
+            }
+        }
     }
 
     /**
@@ -31,16 +179,26 @@ public class LivroService {
         validarLivro(livro);
         
         try {
-            // Verifica se já existe um livro com o mesmo ISBN (se fornecido)
-            if (livro.getIsbn() != null && !livro.getIsbn().trim().isEmpty()) {
+            // Verifica se já existe um livro com o mesmo ISBN (se fornecido); o filtro de Bloom dispensa
+            // a consulta para ISBNs certamente novos, e a restrição UNIQUE é a garantia final
+            if (livro.getIsbn() != null && !livro.getIsbn().trim().isEmpty() && isbnPodeExistir(livro.getIsbn())) {
                 Livro livroExistente = livroDAO.buscarPorIsbn(livro.getIsbn());
                 if (livroExistente != null) {
-                    throw new Exception("Já existe um livro cadastrado com o ISBN " + livro.getIsbn());
+                    throw ErroNegocio.conflito("Já existe um livro cadastrado com o ISBN " + livro.getIsbn());
                 }
             }
             
-            return livroDAO.inserir(livro);
+            Livro cadastrado = livroDAO.inserir(livro);
+            registrarIsbn(livro.getIsbn());
+            if (cadastrado != null && ALTERACOES_CATALOGO.registrar(cadastrado.getId())) {
+                INDICE_CATALOGO.adicionar(cadastrado);
+                INDICE_TITULOS.adicionar(cadastrado.getId(), cadastrado.getTitulo());
+            }
+            return cadastrado;
         } catch (SQLException e) {
+            if (e.getErrorCode() == ERRO_CHAVE_DUPLICADA) {
+                throw ErroNegocio.conflito("Já existe um livro cadastrado com o ISBN " + livro.getIsbn(), e);
+            }
             System.err.println("Erro ao cadastrar livro: " + e.getMessage());
             throw new Exception("Falha ao cadastrar livro: " + e.getMessage(), e);
         }
@@ -63,25 +221,43 @@ public class LivroService {
             // Verifica se o livro existe
             Livro livroExistente = livroDAO.buscarPorId(livro.getId());
             if (livroExistente == null) {
-                throw new Exception("Livro não encontrado com o ID " + livro.getId());
+                throw ErroNegocio.naoEncontrado("Livro não encontrado com o ID " + livro.getId());
             }
             
             // Verifica se o novo ISBN já está em uso por outro livro
             if (livro.getIsbn() != null && !livro.getIsbn().trim().isEmpty() && 
-                (livroExistente.getIsbn() == null || !livroExistente.getIsbn().equals(livro.getIsbn()))) {
+                (livroExistente.getIsbn() == null || !livroExistente.getIsbn().equals(livro.getIsbn())) &&
+                isbnPodeExistir(livro.getIsbn())) {
                 Livro livroComMesmoIsbn = livroDAO.buscarPorIsbn(livro.getIsbn());
                 if (livroComMesmoIsbn != null && livroComMesmoIsbn.getId() != livro.getId()) {
-                    throw new Exception("Já existe outro livro cadastrado com o ISBN " + livro.getIsbn());
+                    throw ErroNegocio.conflito("Já existe outro livro cadastrado com o ISBN " + livro.getIsbn());
                 }
             }
             
-            // Verifica se a quantidade disponível é válida
-            if (livro.getQuantidadeDisponivel() > livro.getQuantidadeTotal()) {
-                throw new Exception("A quantidade disponível não pode ser maior que a quantidade total");
+            // Verifica se a quantidade total é válida; a disponível é ajustada pelo DAO
+            if (livro.getQuantidadeTotal() < 0) {
+                throw new Exception("Quantidade total não pode ser negativa");
             }
             
-            return livroDAO.atualizar(livro);
+            boolean atualizado = livroDAO.atualizar(livro);
+            if (atualizado) {
+                // O ISBN anterior continua no filtro: chaves não podem ser removidas
+                registrarIsbn(livro.getIsbn());
+                
+                Livro livroAtualizado = livroDAO.buscarPorId(livro.getId());
+                if (livroAtualizado != null) {
+                    livro.setQuantidadeDisponivel(livroAtualizado.getQuantidadeDisponivel());
+                }
+            }
+            if (atualizado && ALTERACOES_CATALOGO.registrar(livro.getId())) {
+                INDICE_CATALOGO.adicionar(livro);
+                INDICE_TITULOS.adicionar(livro.getId(), livro.getTitulo());
+            }
+            return atualizado;
         } catch (SQLException e) {
+            if (e.getErrorCode() == ERRO_CHAVE_DUPLICADA) {
+                throw ErroNegocio.conflito("Já existe outro livro cadastrado com o ISBN " + livro.getIsbn(), e);
+            }
             System.err.println("Erro ao atualizar livro: " + e.getMessage());
             throw new Exception("Falha ao atualizar livro: " + e.getMessage(), e);
         }
@@ -102,12 +278,17 @@ public class LivroService {
             // Verifica se o livro existe
             Livro livro = livroDAO.buscarPorId(id);
             if (livro == null) {
-                throw new Exception("Livro não encontrado com o ID " + id);
+                throw ErroNegocio.naoEncontrado("Livro não encontrado com o ID " + id);
             }
             
             // TODO: Verificar se o livro possui empréstimos ativos antes de remover
             
-            return livroDAO.remover(id);
+            boolean removido = livroDAO.remover(id);
+            if (removido && ALTERACOES_CATALOGO.registrar(id)) {
+                INDICE_CATALOGO.remover(id);
+                INDICE_TITULOS.remover(id);
+            }
+            return removido;
         } catch (SQLException e) {
             System.err.println("Erro ao remover livro: " + e.getMessage());
             throw new Exception("Falha ao remover livro: " + e.getMessage(), e);
@@ -166,6 +347,21 @@ public class LivroService {
         }
     }
 
+    /**
+     * Percorre todos os livros sem carregá-los todos em memória.
+     * O Stream deve ser fechado após o uso (try-with-resources).
+     * @return Stream de livros
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Stream<Livro> streamTodosLivros() throws Exception {
+        try {
+            return livroDAO.streamTodos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar livros: " + e.getMessage());
+            throw new Exception("Falha ao listar livros: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Lista livros disponíveis para empréstimo.
      * @return lista de livros disponíveis
@@ -180,6 +376,21 @@ public class LivroService {
         }
     }
 
+    /**
+     * Percorre os livros disponíveis sem carregá-los todos em memória.
+     * O Stream deve ser fechado após o uso (try-with-resources).
+     * @return Stream de livros disponíveis
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Stream<Livro> streamLivrosDisponiveis() throws Exception {
+        try {
+            return livroDAO.streamDisponiveis();
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar livros disponíveis: " + e.getMessage());
+            throw new Exception("Falha ao listar livros disponíveis: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Busca livros pelo título (busca parcial).
      * @param titulo parte do título a ser buscado
@@ -192,6 +403,10 @@ public class LivroService {
         }
         
         try {
+            if (carregarIndice()) {
+                return buscarNoIndice(IndiceTrigramas.Campo.TITULO, titulo,
+                                      Comparator.comparing(Livro::getTitulo, String.CASE_INSENSITIVE_ORDER));
+            }
             return livroDAO.buscarPorTitulo(titulo);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar livros por título: " + e.getMessage());
@@ -211,6 +426,11 @@ public class LivroService {
         }
         
         try {
+            if (carregarIndice()) {
+                return buscarNoIndice(IndiceTrigramas.Campo.AUTOR, autor,
+                                      Comparator.comparing(Livro::getAutor, String.CASE_INSENSITIVE_ORDER)
+                                                .thenComparing(Livro::getTitulo, String.CASE_INSENSITIVE_ORDER));
+            }
             return livroDAO.buscarPorAutor(autor);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar livros por autor: " + e.getMessage());
@@ -218,6 +438,200 @@ public class LivroService {
         }
     }
 
+    /**
+     * Sugere livros cujo título começa com o prefixo, dos mais emprestados para os menos
+     * emprestados, sem consultar o banco.
+     * @param prefixo o início do título (ignorando maiúsculas e acentos)
+     * @param limite o número máximo de sugestões (até {@value #MAXIMO_SUGESTOES})
+     * @return as sugestões encontradas
+     * @throws Exception se os parâmetros forem inválidos ou o índice não estiver disponível
+     */
+    public List<Sugestao> autocompletarTitulos(String prefixo, int limite) throws Exception {
+        if (prefixo == null || prefixo.trim().isEmpty()) {
+            throw new Exception("Prefixo inválido para autocompletar");
+        }
+        if (limite <= 0 || limite > MAXIMO_SUGESTOES) {
+            throw new Exception("Número de sugestões inválido: informe um valor entre 1 e " + MAXIMO_SUGESTOES);
+        }
+        if (!carregarIndice()) {
+            throw new Exception("Falha ao autocompletar: índice do catálogo indisponível");
+        }
+        
+        return INDICE_TITULOS.sugerir(prefixo.trim(), limite);
+    }
+
+    /**
+     * Soma um empréstimo à popularidade do livro no autocompletar.
+     * @param livroId o ID do livro emprestado
+     */
+    static void registrarEmprestimo(int livroId) {
+        if (ALTERACOES_CATALOGO.registrar(livroId)) {
+            INDICE_TITULOS.incrementarPopularidade(livroId);
+        }
+    }
+
+    /**
+     * Busca livros pela editora (busca parcial) no índice de trigramas.
+     * @param editora parte do nome da editora a ser buscada
+     * @return lista de livros da editora, em ordem de título
+     * @throws Exception se ocorrer um erro durante a busca ou o índice não estiver disponível
+     */
+    public List<Livro> buscarLivrosPorEditora(String editora) throws Exception {
+        if (editora == null || editora.trim().isEmpty()) {
+            throw new Exception("Editora inválida para busca");
+        }
+        
+        if (!carregarIndice()) {
+            throw new Exception("Falha ao buscar livros: índice do catálogo indisponível");
+        }
+        
+        try {
+            return buscarNoIndice(IndiceTrigramas.Campo.EDITORA, editora,
+                                  Comparator.comparing(Livro::getTitulo, String.CASE_INSENSITIVE_ORDER));
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar livros por editora: " + e.getMessage());
+            throw new Exception("Falha ao buscar livros: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca os IDs no índice de trigramas e carrega os livros pela chave primária,
+     * para que os dados de estoque venham sempre atualizados.
+     * @param campo o campo pesquisado
+     * @param termo o trecho buscado
+     * @param ordem a ordenação dos resultados
+     * @return lista de livros encontrados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    private List<Livro> buscarNoIndice(IndiceTrigramas.Campo campo, String termo, Comparator<Livro> ordem)
+            throws SQLException {
+        int[] ids = INDICE_CATALOGO.buscar(campo, termo);
+        
+        List<Integer> listaIds = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            listaIds.add(id);
+        }
+        
+        // Livros removidos por outro processo após a carga do índice ficam fora do mapa
+        Map<Integer, Livro> encontrados = livroDAO.buscarPorIds(listaIds);
+        List<Livro> livros = new ArrayList<>(encontrados.values());
+        livros.sort(ordem.thenComparingInt(Livro::getId));
+        return livros;
+    }
+
+    /**
+     * Busca livros pelo título ou pelo autor, em ordem de relevância.
+     * @param termo as palavras buscadas
+     * @param limite o número máximo de livros retornados (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return lista de livros encontrados
+     * @throws Exception se ocorrer um erro durante a busca
+     */
+    public List<Livro> buscarLivrosPorTexto(String termo, int limite) throws Exception {
+        if (termo == null || termo.trim().isEmpty()) {
+            throw new Exception("Termo inválido para busca");
+        }
+        validarLimitePagina(limite);
+        
+        try {
+            return livroDAO.buscarTextoCompleto(termo, limite);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar livros por texto: " + e.getMessage());
+            throw new Exception("Falha ao buscar livros: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca avançada de livros pelo título ou pelo autor com uma expressão booleana do
+     * MySQL, em ordem de relevância.
+     * @param expressao a expressão (ex.: "+machado -assis")
+     * @param limite o número máximo de livros retornados (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return lista de livros encontrados
+     * @throws Exception se ocorrer um erro durante a busca
+     */
+    public List<Livro> buscarLivrosPorExpressao(String expressao, int limite) throws Exception {
+        if (expressao == null || expressao.trim().isEmpty()) {
+            throw new Exception("Expressão inválida para busca");
+        }
+        validarLimitePagina(limite);
+        
+        try {
+            return livroDAO.buscarPorExpressaoBooleana(expressao, limite);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar livros por expressão: " + e.getMessage());
+            throw new Exception("Falha ao buscar livros: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lista uma página de livros em ordem de título.
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Livro> listarLivrosPaginado(String token, int limite) throws Exception {
+        validarLimitePagina(limite);
+        
+        try {
+            return livroDAO.listarPagina(token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar livros: " + e.getMessage());
+            throw new Exception("Falha ao listar livros: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca uma página de livros pelo título (busca parcial).
+     * @param titulo parte do título a ser buscado
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Livro> buscarLivrosPorTituloPaginado(String titulo, String token, int limite) throws Exception {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            throw new Exception("Título inválido para busca");
+        }
+        
+        validarLimitePagina(limite);
+        
+        try {
+            return livroDAO.buscarPorTituloPagina(titulo, token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar livros por título: " + e.getMessage());
+            throw new Exception("Falha ao buscar livros: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca uma página de livros pelo autor (busca parcial).
+     * @param autor parte do nome do autor a ser buscado
+     * @param token o token da página anterior, ou null para a primeira página
+     * @param limite o número máximo de itens na página (até {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de resultados
+     * @throws Exception se ocorrer um erro durante a listagem
+     */
+    public Pagina<Livro> buscarLivrosPorAutorPaginado(String autor, String token, int limite) throws Exception {
+        if (autor == null || autor.trim().isEmpty()) {
+            throw new Exception("Autor inválido para busca");
+        }
+        
+        validarLimitePagina(limite);
+        
+        try {
+            return livroDAO.buscarPorAutorPagina(autor, token, limite);
+        } catch (IllegalArgumentException e) {
+            throw new Exception(e.getMessage(), e);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar livros por autor: " + e.getMessage());
+            throw new Exception("Falha ao buscar livros: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Atualiza a quantidade total e disponível de um livro.
      * @param id o ID do livro
@@ -235,37 +649,122 @@ public class LivroService {
         }
         
         try {
-            // Busca o livro
-            Livro livro = livroDAO.buscarPorId(id);
-            if (livro == null) {
-                throw new Exception("Livro não encontrado com o ID " + id);
+            // A diferença é aplicada à quantidade disponível no próprio UPDATE, para não
+            // sobrescrever empréstimos e devoluções concorrentes
+            if (!livroDAO.atualizarQuantidadeTotal(id, quantidadeTotal)) {
+                throw ErroNegocio.naoEncontrado("Livro não encontrado com o ID " + id);
             }
             
-            // Calcula a diferença entre a quantidade atual e a nova quantidade
-            int diferenca = quantidadeTotal - livro.getQuantidadeTotal();
-            
-            // Atualiza a quantidade total e a quantidade disponível
-            livro.setQuantidadeTotal(quantidadeTotal);
-            livro.setQuantidadeDisponivel(Math.max(0, livro.getQuantidadeDisponivel() + diferenca));
-            
-            // Atualiza o livro no banco de dados
-            if (livroDAO.atualizar(livro)) {
-                return livro;
-            } else {
-                throw new Exception("Falha ao atualizar quantidade do livro");
+            Livro livro = livroDAO.buscarPorId(id);
+            if (livro == null) {
+                throw ErroNegocio.naoEncontrado("Livro não encontrado com o ID " + id);
             }
+            return livro;
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar quantidade do livro: " + e.getMessage());
             throw new Exception("Falha ao atualizar quantidade do livro: " + e.getMessage(), e);
         }
     }
 
+    // ===== OPERAÇÕES ASSÍNCRONAS =====
+    // Cada uma executa a operação síncrona de mesmo nome no executor do serviço; em caso
+    // de falha, o CompletableFuture completa com uma CompletionException cuja causa é a
+    // exceção da operação síncrona. Os stream* não têm variante assíncrona: o Stream mantém
+    // uma conexão aberta até ser fechado por quem o consome.
+
+    public CompletableFuture<Livro> cadastrarLivroAsync(Livro livro) {
+        return ExecucaoAssincrona.executar(() -> cadastrarLivro(livro), executor);
+    }
+
+    public CompletableFuture<Boolean> atualizarLivroAsync(Livro livro) {
+        return ExecucaoAssincrona.executar(() -> atualizarLivro(livro), executor);
+    }
+
+    public CompletableFuture<Boolean> removerLivroAsync(int id) {
+        return ExecucaoAssincrona.executar(() -> removerLivro(id), executor);
+    }
+
+    public CompletableFuture<Livro> buscarLivroPorIdAsync(int id) {
+        return ExecucaoAssincrona.executar(() -> buscarLivroPorId(id), executor);
+    }
+
+    public CompletableFuture<Livro> buscarLivroPorIsbnAsync(String isbn) {
+        return ExecucaoAssincrona.executar(() -> buscarLivroPorIsbn(isbn), executor);
+    }
+
+    public CompletableFuture<List<Livro>> listarTodosLivrosAsync() {
+        return ExecucaoAssincrona.executar(() -> listarTodosLivros(), executor);
+    }
+
+    public CompletableFuture<List<Livro>> listarLivrosDisponiveisAsync() {
+        return ExecucaoAssincrona.executar(() -> listarLivrosDisponiveis(), executor);
+    }
+
+    public CompletableFuture<List<Livro>> buscarLivrosPorTituloAsync(String titulo) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorTitulo(titulo), executor);
+    }
+
+    public CompletableFuture<List<Livro>> buscarLivrosPorAutorAsync(String autor) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorAutor(autor), executor);
+    }
+
+    public CompletableFuture<List<Sugestao>> autocompletarTitulosAsync(String prefixo, int limite) {
+        return ExecucaoAssincrona.executar(() -> autocompletarTitulos(prefixo, limite), executor);
+    }
+
+    public CompletableFuture<List<Livro>> buscarLivrosPorEditoraAsync(String editora) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorEditora(editora), executor);
+    }
+
+    public CompletableFuture<List<Livro>> buscarLivrosPorTextoAsync(String termo, int limite) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorTexto(termo, limite), executor);
+    }
+
+    public CompletableFuture<List<Livro>> buscarLivrosPorExpressaoAsync(String expressao, int limite) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorExpressao(expressao, limite), executor);
+    }
+
+    public CompletableFuture<Pagina<Livro>> listarLivrosPaginadoAsync(String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> listarLivrosPaginado(token, limite), executor);
+    }
+
+    public CompletableFuture<Pagina<Livro>> buscarLivrosPorTituloPaginadoAsync(String titulo, String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorTituloPaginado(titulo, token, limite), executor);
+    }
+
+    public CompletableFuture<Pagina<Livro>> buscarLivrosPorAutorPaginadoAsync(String autor, String token, int limite) {
+        return ExecucaoAssincrona.executar(() -> buscarLivrosPorAutorPaginado(autor, token, limite), executor);
+    }
+
+    public CompletableFuture<Livro> atualizarQuantidadeLivroAsync(int id, int quantidadeTotal) {
+        return ExecucaoAssincrona.executar(() -> atualizarQuantidadeLivro(id, quantidadeTotal), executor);
+    }
+
+    /**
+     * Define o executor das operações assíncronas (*Async) deste serviço.
+     * @param executor o executor, ou null para o pool padrão
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Valida o tamanho de página solicitado.
+     * @param limite o tamanho da página
+     * @throws Exception se o tamanho for inválido
+     */
+    private void validarLimitePagina(int limite) throws Exception {
+        if (limite <= 0 || limite > TAMANHO_MAXIMO_PAGINA) {
+            throw new Exception("Tamanho de página inválido: informe um valor entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+    }
+
     /**
      * Valida os dados de um livro.
      * @param livro o livro a ser validado
      * @throws Exception se os dados do livro forem inválidos
      */
-    private void validarLivro(Livro livro) throws Exception {
+    static void validarLivro(Livro livro) throws Exception {
         if (livro == null) {
             throw new Exception("Livro não pode ser nulo");
         }
@@ -0,0 +1,148 @@
+package src.service;
+
+import src.dao.CirculacaoDAO;
+import src.dao.EmprestimoDAO;
+import src.dao.RelatorioDAO;
+import src.model.CirculacaoDiaria;
+import src.model.CirculacaoDiaria.Dimensao;
+import src.model.ResumoAcervo;
+import src.model.ResumoEmprestimos;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe de serviço para os totais dos relatórios e as séries de circulação diária.
+ * As listagens detalhadas continuam nos serviços de cada entidade e só precisam ser
+ * lidas quando solicitadas.
+ */
+public class RelatorioService {
+    private RelatorioDAO relatorioDAO;
+    private CirculacaoDAO circulacaoDAO;
+    private EmprestimoDAO emprestimoDAO;
+
+    public RelatorioService() {
+        try {
+            this.relatorioDAO = new RelatorioDAO();
+            this.circulacaoDAO = new CirculacaoDAO();
+            this.emprestimoDAO = new EmprestimoDAO();
+        } catch (SQLException e) {
+            System.err.println("Erro ao inicializar RelatorioService: " + e.getMessage());
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+    }
+
+    /**
+     * Obtém os totais do acervo de livros.
+     * @return o número de títulos e de exemplares totais e disponíveis
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public ResumoAcervo obterResumoAcervo() throws Exception {
+        try {
+            return relatorioDAO.resumirAcervo();
+        } catch (SQLException e) {
+            System.err.println("Erro ao obter resumo do acervo: " + e.getMessage());
+            throw new Exception("Falha ao obter resumo do acervo: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtém as contagens de empréstimos por status.
+     * @return o total, os ativos, os atrasados e a contagem de cada status
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public ResumoEmprestimos obterResumoEmprestimos() throws Exception {
+        try {
+            return relatorioDAO.resumirEmprestimos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao obter resumo dos empréstimos: " + e.getMessage());
+            throw new Exception("Falha ao obter resumo dos empréstimos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtém a circulação diária da biblioteca, lida apenas da tabela consolidada.
+     * @param inicio o primeiro dia (inclusive)
+     * @param fim o último dia (inclusive)
+     * @return uma linha por dia consolidado, em ordem de dia
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public List<CirculacaoDiaria> obterCirculacaoDiaria(LocalDate inicio, LocalDate fim) throws Exception {
+        return obterCirculacao(Dimensao.GERAL, "", inicio, fim);
+    }
+
+    /**
+     * Obtém a circulação diária de um livro, lida apenas da tabela consolidada. Dias sem
+     * empréstimos, devoluções ou empréstimos em aberto do livro não aparecem.
+     * @param livroId o ID do livro
+     * @param inicio o primeiro dia (inclusive)
+     * @param fim o último dia (inclusive)
+     * @return as linhas do livro, em ordem de dia
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public List<CirculacaoDiaria> obterCirculacaoLivro(int livroId, LocalDate inicio, LocalDate fim) throws Exception {
+        return obterCirculacao(Dimensao.LIVRO, String.valueOf(livroId), inicio, fim);
+    }
+
+    /**
+     * Obtém a circulação diária de uma coorte de alunos, lida apenas da tabela consolidada.
+     * @param coorte o prefixo de 4 caracteres da matrícula (ano de ingresso)
+     * @param inicio o primeiro dia (inclusive)
+     * @param fim o último dia (inclusive)
+     * @return as linhas da coorte, em ordem de dia
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public List<CirculacaoDiaria> obterCirculacaoCoorte(String coorte, LocalDate inicio, LocalDate fim)
+            throws Exception {
+        return obterCirculacao(Dimensao.COORTE, coorte, inicio, fim);
+    }
+
+    /**
+     * Obtém os livros mais emprestados de todo o histórico.
+     * @param limite o número máximo de livros
+     * @return mapa do ID do livro para o número de empréstimos, do mais para o menos emprestado
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public Map<Integer, Long> obterLivrosMaisEmprestados(int limite) throws Exception {
+        try {
+            return relatorioDAO.listarLivrosMaisEmprestados(limite);
+        } catch (SQLException e) {
+            System.err.println("Erro ao obter livros mais emprestados: " + e.getMessage());
+            throw new Exception("Falha ao obter livros mais emprestados: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Carrega todo o histórico de empréstimos em colunas de tipos primitivos, lido de um
+     * cursor sem criar um objeto Emprestimo por linha.
+     * @return os empréstimos em colunas, em ordem de ID
+     * @throws Exception se ocorrer um erro durante a consulta
+     */
+    public EmprestimosColunares carregarEmprestimosColunares() throws Exception {
+        try {
+            EmprestimosColunares colunas = new EmprestimosColunares();
+            emprestimoDAO.percorrerColunas(colunas::adicionar);
+            colunas.compactar();
+            return colunas;
+        } catch (SQLException e) {
+            System.err.println("Erro ao carregar empréstimos: " + e.getMessage());
+            throw new Exception("Falha ao carregar empréstimos: " + e.getMessage(), e);
+        }
+    }
+
+    private List<CirculacaoDiaria> obterCirculacao(Dimensao dimensao, String chave, LocalDate inicio, LocalDate fim)
+            throws Exception {
+        if (inicio == null || fim == null || inicio.isAfter(fim)) {
+            throw new Exception("Período inválido: a data inicial deve ser anterior ou igual à final");
+        }
+
+        try {
+            return circulacaoDAO.listar(dimensao, chave, inicio, fim);
+        } catch (SQLException e) {
+            System.err.println("Erro ao obter circulação diária: " + e.getMessage());
+            throw new Exception("Falha ao obter circulação diária: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package src.service;
+
+import java.nio.file.Path;
+
+/**
+ * Resumo de uma exportação: linhas gravadas, tamanho do arquivo e duração.
+ */
+public class ResultadoExportacao {
+    private final Path arquivo;
+    private final long linhas;
+    private final long bytes;
+    private final long duracaoMs;
+
+    ResultadoExportacao(Path arquivo, long linhas, long bytes, long duracaoMs) {
+        this.arquivo = arquivo;
+        this.linhas = linhas;
+        this.bytes = bytes;
+        this.duracaoMs = duracaoMs;
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * @return o tamanho do arquivo gravado (compactado, se for o caso)
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    /**
+     * @return a vazão da exportação, em linhas por segundo
+     */
+    public double getLinhasPorSegundo() {
+        return duracaoMs == 0 ? linhas : linhas * 1000.0 / duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoExportacao{" +
+                "arquivo=" + arquivo +
+                ", linhas=" + linhas +
+                ", bytes=" + bytes +
+                ", duracaoMs=" + duracaoMs +
+                '}';
+    }
+}
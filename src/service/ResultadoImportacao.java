@@ -0,0 +1,96 @@
+package src.service;
+
+import java.nio.file.Path;
+
+/**
+ * Resumo de uma importação de arquivo: contagem dos registros por desfecho, duração
+ * e o arquivo com os registros rejeitados.
+ */
+public class ResultadoImportacao {
+    private long lidos;
+    private long inseridos;
+    private long atualizados;
+    private long inalterados;
+    private long rejeitados;
+    private long duracaoMs;
+    private final Path arquivoRejeitados;
+
+    ResultadoImportacao(Path arquivoRejeitados) {
+        this.arquivoRejeitados = arquivoRejeitados;
+    }
+
+    void somarLidos(long quantidade) {
+        lidos += quantidade;
+    }
+
+    void somarInseridos(long quantidade) {
+        inseridos += quantidade;
+    }
+
+    void somarAtualizados(long quantidade) {
+        atualizados += quantidade;
+    }
+
+    void somarInalterados(long quantidade) {
+        inalterados += quantidade;
+    }
+
+    void somarRejeitados(long quantidade) {
+        rejeitados += quantidade;
+    }
+
+    void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public long getLidos() {
+        return lidos;
+    }
+
+    public long getInseridos() {
+        return inseridos;
+    }
+
+    public long getAtualizados() {
+        return atualizados;
+    }
+
+    public long getInalterados() {
+        return inalterados;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    /**
+     * @return o arquivo com os registros rejeitados e os motivos
+     */
+    public Path getArquivoRejeitados() {
+        return arquivoRejeitados;
+    }
+
+    /**
+     * @return a vazão da importação, em registros lidos por segundo
+     */
+    public double getRegistrosPorSegundo() {
+        return duracaoMs == 0 ? lidos : lidos * 1000.0 / duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacao{" +
+                "lidos=" + lidos +
+                ", inseridos=" + inseridos +
+                ", atualizados=" + atualizados +
+                ", inalterados=" + inalterados +
+                ", rejeitados=" + rejeitados +
+                ", duracaoMs=" + duracaoMs +
+                ", arquivoRejeitados=" + arquivoRejeitados +
+                '}';
+    }
+}
@@ -0,0 +1,116 @@
+package src.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma operação em lote, com o desfecho de cada item na ordem de entrada.
+ * A falha de um item não impede o processamento dos demais.
+ */
+public class ResultadoLote<T> {
+    private final Item<T>[] itens;
+
+    @SuppressWarnings("unchecked")
+    ResultadoLote(int tamanho) {
+        this.itens = (Item<T>[]) new Item<?>[tamanho];
+    }
+
+    void registrarSucesso(int indice, T valor) {
+        itens[indice] = new Item<>(indice, valor, null);
+    }
+
+    void registrarFalha(int indice, String erro) {
+        itens[indice] = new Item<>(indice, null, erro);
+    }
+
+    /**
+     * @return o desfecho de cada item, na mesma ordem da entrada
+     */
+    public List<Item<T>> getItens() {
+        return Collections.unmodifiableList(Arrays.asList(itens));
+    }
+
+    /**
+     * @return os valores dos itens processados com sucesso
+     */
+    public List<T> getSucessos() {
+        List<T> sucessos = new ArrayList<>();
+        for (Item<T> item : itens) {
+            if (item.isSucesso()) {
+                sucessos.add(item.getValor());
+            }
+        }
+        return sucessos;
+    }
+
+    /**
+     * @return os itens que falharam
+     */
+    public List<Item<T>> getFalhas() {
+        List<Item<T>> falhas = new ArrayList<>();
+        for (Item<T> item : itens) {
+            if (!item.isSucesso()) {
+                falhas.add(item);
+            }
+        }
+        return falhas;
+    }
+
+    public int getTotalSucessos() {
+        int total = 0;
+        for (Item<T> item : itens) {
+            if (item.isSucesso()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    public int getTotalFalhas() {
+        return itens.length - getTotalSucessos();
+    }
+
+    /**
+     * Desfecho de um item do lote.
+     */
+    public static class Item<T> {
+        private final int indice;
+        private final T valor;
+        private final String erro;
+
+        Item(int indice, T valor, String erro) {
+            this.indice = indice;
+            this.valor = valor;
+            this.erro = erro;
+        }
+
+        /**
+         * @return a posição do item na lista de entrada
+         */
+        public int getIndice() {
+            return indice;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+
+        /**
+         * @return a mensagem de erro, ou null se o item foi processado com sucesso
+         */
+        public String getErro() {
+            return erro;
+        }
+
+        public boolean isSucesso() {
+            return erro == null;
+        }
+
+        @Override
+        public String toString() {
+            return isSucesso() ? "Item{" + indice + ": " + valor + "}" : "Item{" + indice + ": erro=" + erro + "}";
+        }
+    }
+}
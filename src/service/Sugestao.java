@@ -0,0 +1,38 @@
+package src.service;
+
+/**
+ * Item retornado pelo autocompletar: o ID da entidade, o texto exibido e o número de
+ * empréstimos usado na ordenação.
+ */
+public class Sugestao {
+    private final int id;
+    private final String texto;
+    private final int popularidade;
+
+    public Sugestao(int id, String texto, int popularidade) {
+        this.id = id;
+        this.texto = texto;
+        this.popularidade = popularidade;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public int getPopularidade() {
+        return popularidade;
+    }
+
+    @Override
+    public String toString() {
+        return "Sugestao{" +
+                "id=" + id +
+                ", texto='" + texto + '\'' +
+                ", popularidade=" + popularidade +
+                '}';
+    }
+}
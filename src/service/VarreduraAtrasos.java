@@ -0,0 +1,157 @@
+package src.service;
+
+import src.dao.ConexaoDB;
+import src.dao.EmprestimoDAO;
+import src.model.Emprestimo;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tarefa periódica que marca como ATRASADO os empréstimos ativos cuja devolução
+ * prevista já passou. As alterações são feitas em blocos limitados, para não manter
+ * muitas linhas bloqueadas de uma vez, e as consultas de atrasados passam a ser uma
+ * simples igualdade em status.
+ *
+ * Configuração pelas variáveis de ambiente BIBLIOTECA_VARREDURA_INTERVALO_S
+ * (padrão 60; 0 desativa) e BIBLIOTECA_VARREDURA_BLOCO (padrão 1000).
+ */
+public class VarreduraAtrasos {
+    private final EmprestimoDAO emprestimoDAO;
+    private final long intervaloSegundos;
+    private final int tamanhoBloco;
+    private ScheduledExecutorService agendador;
+
+    // Métricas
+    private final AtomicLong execucoes = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong totalAlterados = new AtomicLong();
+    private volatile int alteradosUltimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile Timestamp ultimaExecucao;
+
+    public VarreduraAtrasos() {
+        this(ConexaoDB.lerInteiro("BIBLIOTECA_VARREDURA_INTERVALO_S", 60),
+             ConexaoDB.lerInteiro("BIBLIOTECA_VARREDURA_BLOCO", 1000));
+    }
+
+    public VarreduraAtrasos(long intervaloSegundos, int tamanhoBloco) {
+        if (tamanhoBloco <= 0) {
+            throw new IllegalArgumentException("Tamanho de bloco inválido: " + tamanhoBloco);
+        }
+        
+        try {
+            this.emprestimoDAO = new EmprestimoDAO();
+        } catch (SQLException e) {
+            System.err.println("Erro ao inicializar VarreduraAtrasos: " + e.getMessage());
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+        this.intervaloSegundos = intervaloSegundos;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Agenda a varredura, com a primeira execução imediata. Não faz nada se o
+     * intervalo configurado for zero ou se já estiver em execução.
+     */
+    public synchronized void iniciar() {
+        if (intervaloSegundos <= 0 || agendador != null) {
+            return;
+        }
+        
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "varredura-atrasos");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::executarComTratamento, 0, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Interrompe a varredura agendada.
+     */
+    public synchronized void parar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    /**
+     * Executa uma varredura completa: marca blocos de até {@code tamanhoBloco} empréstimos
+     * até não restarem empréstimos vencidos na data de início da execução.
+     * @return o número de empréstimos marcados como atrasados
+     * @throws SQLException se ocorrer um erro no banco de dados
+     */
+    public int executar() throws SQLException {
+        long inicio = System.nanoTime();
+        Timestamp referencia = new Timestamp(Emprestimo.agora());
+        int alterados = 0;
+        
+        try {
+            int bloco;
+            do {
+                bloco = emprestimoDAO.marcarAtrasados(referencia, tamanhoBloco);
+                alterados += bloco;
+                totalAlterados.addAndGet(bloco);
+            } while (bloco == tamanhoBloco && !Thread.currentThread().isInterrupted());
+        } finally {
+            execucoes.incrementAndGet();
+            alteradosUltimaExecucao = alterados;
+            duracaoUltimaExecucaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            ultimaExecucao = referencia;
+        }
+        
+        return alterados;
+    }
+
+    private void executarComTratamento() {
+        try {
+            executar();
+        } catch (SQLException | RuntimeException e) {
+            // Uma falha não pode cancelar as próximas execuções agendadas
+            falhas.incrementAndGet();
+            System.err.println("Erro na varredura de empréstimos atrasados: " + e.getMessage());
+        }
+    }
+
+    public long getExecucoes() {
+        return execucoes.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    public long getTotalAlterados() {
+        return totalAlterados.get();
+    }
+
+    public int getAlteradosUltimaExecucao() {
+        return alteradosUltimaExecucao;
+    }
+
+    public long getDuracaoUltimaExecucaoMs() {
+        return duracaoUltimaExecucaoMs;
+    }
+
+    public Timestamp getUltimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    @Override
+    public String toString() {
+        return "VarreduraAtrasos{" +
+                "execucoes=" + getExecucoes() +
+                ", falhas=" + getFalhas() +
+                ", totalAlterados=" + getTotalAlterados() +
+                ", alteradosUltimaExecucao=" + alteradosUltimaExecucao +
+                ", duracaoUltimaExecucaoMs=" + duracaoUltimaExecucaoMs +
+                ", ultimaExecucao=" + ultimaExecucao +
+                '}';
+    }
+}
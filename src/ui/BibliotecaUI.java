@@ -1,15 +1,34 @@
 package src.ui;
 
+import src.dao.Pagina;
 import src.model.Aluno;
 import src.model.Livro;
+import src.model.CirculacaoDiaria;
 import src.model.Emprestimo;
+import src.model.ResumoAcervo;
+import src.model.ResumoEmprestimos;
 import src.service.AlunoService;
 import src.service.LivroService;
 import src.service.EmprestimoService;
-
+import src.service.EmprestimosColunares;
+import src.service.ExportadorRelatorios;
+import src.service.ImportadorAlunos;
+import src.service.ImportadorCatalogo;
+import src.service.RelatorioService;
+import src.service.ResultadoExportacao;
+import src.service.ResultadoImportacao;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * Classe responsável pela interface de usuário do sistema de biblioteca.
@@ -19,13 +38,18 @@ public class BibliotecaUI {
     private AlunoService alunoService;
     private LivroService livroService;
     private EmprestimoService emprestimoService;
+    private RelatorioService relatorioService;
     private SimpleDateFormat dateFormat;
 
+    // Quantidade de registros exibidos por página nas listagens
+    private static final int TAMANHO_PAGINA = 20;
+
     public BibliotecaUI() {
         this.scanner = new Scanner(System.in);
         this.alunoService = new AlunoService();
         this.livroService = new LivroService();
         this.emprestimoService = new EmprestimoService();
+        this.relatorioService = new RelatorioService();
         this.dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
     }
 
@@ -94,6 +118,7 @@ public class BibliotecaUI {
             System.out.println("3. Listar Todos os Alunos");
             System.out.println("4. Atualizar Aluno");
             System.out.println("5. Remover Aluno");
+            System.out.println("6. Importar Alunos de Arquivo CSV");
             System.out.println("0. Voltar ao Menu Principal");
             System.out.print("Escolha uma opção: ");
 
@@ -115,6 +140,9 @@ public class BibliotecaUI {
                 case 5:
                     removerAluno();
                     break;
+                case 6:
+                    importarAlunos();
+                    break;
                 case 0:
                     voltarMenu = true;
                     break;
@@ -139,6 +167,7 @@ public class BibliotecaUI {
             System.out.println("5. Atualizar Livro");
             System.out.println("6. Atualizar Quantidade de Livros");
             System.out.println("7. Remover Livro");
+            System.out.println("8. Importar Livros de Arquivo CSV");
             System.out.println("0. Voltar ao Menu Principal");
             System.out.print("Escolha uma opção: ");
 
@@ -166,6 +195,9 @@ public class BibliotecaUI {
                 case 7:
                     removerLivro();
                     break;
+                case 8:
+                    importarLivros();
+                    break;
                 case 0:
                     voltarMenu = true;
                     break;
@@ -239,6 +271,9 @@ public class BibliotecaUI {
             System.out.println("3. Relatório de Empréstimos");
             System.out.println("4. Relatório de Livros Mais Emprestados");
             System.out.println("5. Relatório de Alunos com Mais Empréstimos");
+            System.out.println("6. Exportar Dados para Arquivo");
+            System.out.println("7. Circulação Diária");
+            System.out.println("8. Estatísticas de Empréstimos");
             System.out.println("0. Voltar ao Menu Principal");
             System.out.print("Escolha uma opção: ");
 
@@ -255,11 +290,20 @@ public class BibliotecaUI {
                     relatorioEmprestimos();
                     break;
                 case 4:
-                    System.out.println("Funcionalidade não implementada.");
+                    relatorioLivrosMaisEmprestados();
                     break;
                 case 5:
                     System.out.println("Funcionalidade não implementada.");
                     break;
+                case 6:
+                    exportarDados();
+                    break;
+                case 7:
+                    relatorioCirculacao();
+                    break;
+                case 8:
+                    estatisticasEmprestimos();
+                    break;
                 case 0:
                     voltarMenu = true;
                     break;
@@ -360,14 +404,22 @@ public class BibliotecaUI {
     private void listarAlunos() throws Exception {
         System.out.println("\n===== LISTA DE ALUNOS =====");
 
-        List<Aluno> alunos = alunoService.listarTodosAlunos();
+        String token = null;
+        int totalExibidos = 0;
 
-        if (!alunos.isEmpty()) {
-            for (Aluno aluno : alunos) {
+        do {
+            Pagina<Aluno> pagina = alunoService.listarAlunosPaginado(token, TAMANHO_PAGINA);
+
+            for (Aluno aluno : pagina.getItens()) {
                 exibirAluno(aluno);
                 System.out.println("------------------------------");
             }
-            System.out.println("Total de alunos: " + alunos.size());
+            totalExibidos += pagina.getItens().size();
+            token = pagina.getProximoToken();
+        } while (token != null && confirmarProximaPagina());
+
+        if (totalExibidos > 0) {
+            System.out.println("Total de alunos exibidos: " + totalExibidos);
         } else {
             System.out.println("Nenhum aluno cadastrado.");
         }
@@ -515,6 +567,7 @@ public class BibliotecaUI {
         System.out.println("2. Buscar por ISBN");
         System.out.println("3. Buscar por Título");
         System.out.println("4. Buscar por Autor");
+        System.out.println("5. Buscar por Título ou Autor");
         System.out.print("Escolha uma opção: ");
 
         int opcao = lerInteiro();
@@ -577,6 +630,22 @@ public class BibliotecaUI {
                 }
                 break;
 
+            case 5:
+                System.out.print("Termo de busca: ");
+                String termo = scanner.nextLine();
+                List<Livro> livrosPorTexto = livroService.buscarLivrosPorTexto(termo, TAMANHO_PAGINA);
+
+                if (!livrosPorTexto.isEmpty()) {
+                    System.out.println("\nLivros encontrados (mais relevantes primeiro):");
+                    for (Livro l : livrosPorTexto) {
+                        exibirLivro(l);
+                        System.out.println("------------------------------");
+                    }
+                } else {
+                    System.out.println("Nenhum livro encontrado com esse termo.");
+                }
+                break;
+
             default:
                 System.out.println("Opção inválida.");
         }
@@ -588,14 +657,22 @@ public class BibliotecaUI {
     private void listarLivros() throws Exception {
         System.out.println("\n===== LISTA DE LIVROS =====");
 
-        List<Livro> livros = livroService.listarTodosLivros();
+        String token = null;
+        int totalExibidos = 0;
 
-        if (!livros.isEmpty()) {
-            for (Livro livro : livros) {
+        do {
+            Pagina<Livro> pagina = livroService.listarLivrosPaginado(token, TAMANHO_PAGINA);
+
+            for (Livro livro : pagina.getItens()) {
                 exibirLivro(livro);
                 System.out.println("------------------------------");
             }
-            System.out.println("Total de livros: " + livros.size());
+            totalExibidos += pagina.getItens().size();
+            token = pagina.getProximoToken();
+        } while (token != null && confirmarProximaPagina());
+
+        if (totalExibidos > 0) {
+            System.out.println("Total de livros exibidos: " + totalExibidos);
         } else {
             System.out.println("Nenhum livro cadastrado.");
         }
@@ -746,6 +823,86 @@ public class BibliotecaUI {
         }
     }
 
+    /**
+     * Importa alunos de um arquivo CSV, atualizando os já cadastrados pela matrícula.
+     */
+    private void importarAlunos() throws Exception {
+        System.out.println("\n===== IMPORTAÇÃO DE ALUNOS =====");
+        System.out.println("Colunas: nome, matricula, email, telefone");
+
+        Path arquivo = lerArquivoImportacao();
+        if (arquivo == null) {
+            return;
+        }
+
+        ResultadoImportacao resultado = new ImportadorAlunos().importar(arquivo, arquivoRejeitados(arquivo));
+
+        System.out.println("\nLinhas lidas: " + resultado.getLidos());
+        System.out.println("Alunos inseridos: " + resultado.getInseridos());
+        System.out.println("Alunos atualizados: " + resultado.getAtualizados());
+        System.out.println("Alunos sem alteração: " + resultado.getInalterados());
+        exibirFimImportacao(resultado);
+    }
+
+    /**
+     * Importa livros de um arquivo CSV.
+     */
+    private void importarLivros() throws Exception {
+        System.out.println("\n===== IMPORTAÇÃO DE LIVROS =====");
+        System.out.println("Colunas: titulo, autor, editora, ano_publicacao, isbn, quantidade_total, quantidade_disponivel");
+
+        Path arquivo = lerArquivoImportacao();
+        if (arquivo == null) {
+            return;
+        }
+
+        ResultadoImportacao resultado = new ImportadorCatalogo().importar(arquivo, arquivoRejeitados(arquivo));
+
+        System.out.println("\nLinhas lidas: " + resultado.getLidos());
+        System.out.println("Livros importados: " + resultado.getInseridos());
+        exibirFimImportacao(resultado);
+    }
+
+    /**
+     * Lê o caminho do arquivo a importar.
+     * @return o arquivo, ou null se a operação foi cancelada ou o arquivo não existe
+     */
+    private Path lerArquivoImportacao() {
+        System.out.print("Caminho do arquivo CSV: ");
+        String caminho = scanner.nextLine().trim();
+
+        if (caminho.isEmpty()) {
+            System.out.println("Operação cancelada.");
+            return null;
+        }
+
+        Path arquivo = Paths.get(caminho);
+        if (!Files.isRegularFile(arquivo)) {
+            System.out.println("Arquivo não encontrado.");
+            return null;
+        }
+        return arquivo;
+    }
+
+    /**
+     * Arquivo onde são gravadas as linhas rejeitadas na importação.
+     */
+    private Path arquivoRejeitados(Path arquivo) {
+        return Paths.get(arquivo.toString() + ".rejeitados.csv");
+    }
+
+    /**
+     * Exibe as rejeições e a duração de uma importação.
+     */
+    private void exibirFimImportacao(ResultadoImportacao resultado) {
+        System.out.println("Linhas rejeitadas: " + resultado.getRejeitados());
+        System.out.printf("Duração: %.1f s (%.0f linhas/s)%n",
+                          resultado.getDuracaoMs() / 1000.0, resultado.getRegistrosPorSegundo());
+        if (resultado.getRejeitados() > 0) {
+            System.out.println("Linhas rejeitadas gravadas em: " + resultado.getArquivoRejeitados());
+        }
+    }
+
     /**
      * Exibe os dados de um livro.
      */
@@ -925,9 +1082,11 @@ public class BibliotecaUI {
         List<Emprestimo> emprestimos = emprestimoService.listarEmprestimosAtrasados();
 
         if (!emprestimos.isEmpty()) {
+            // Um único instante de referência para todos os empréstimos da listagem
+            long agora = Emprestimo.agora();
             for (Emprestimo emprestimo : emprestimos) {
                 exibirEmprestimo(emprestimo);
-                System.out.println("Dias de atraso: " + emprestimo.getDiasAtraso());
+                System.out.println("Dias de atraso: " + emprestimo.getDiasAtraso(agora));
                 System.out.println("------------------------------");
             }
             System.out.println("Total de empréstimos atrasados: " + emprestimos.size());
@@ -1054,23 +1213,33 @@ public class BibliotecaUI {
     private void relatorioAlunos() throws Exception {
         System.out.println("\n===== RELATÓRIO DE ALUNOS =====");
 
-        List<Aluno> alunos = alunoService.listarTodosAlunos();
+        int totalAlunos = 0;
 
-        if (!alunos.isEmpty()) {
-            System.out.println("Total de alunos cadastrados: " + alunos.size());
+        // Os alunos são lidos sob demanda, sem carregar a tabela inteira em memória
+        try (Stream<Aluno> alunos = alunoService.streamTodosAlunos()) {
+            Iterator<Aluno> it = alunos.iterator();
 
-            System.out.println("\nListagem de alunos:");
-            System.out.printf("%-5s | %-30s | %-15s | %-30s | %-15s\n", "ID", "Nome", "Matrícula", "Email", "Telefone");
-            System.out.println("----------------------------------------------------------------------------------------------");
+            while (it.hasNext()) {
+                Aluno aluno = it.next();
+
+                if (totalAlunos == 0) {
+                    System.out.println("\nListagem de alunos:");
+                    System.out.printf("%-5s | %-30s | %-15s | %-30s | %-15s\n", "ID", "Nome", "Matrícula", "Email", "Telefone");
+                    System.out.println("----------------------------------------------------------------------------------------------");
+                }
 
-            for (Aluno aluno : alunos) {
                 System.out.printf("%-5d | %-30s | %-15s | %-30s | %-15s\n", 
                         aluno.getId(), 
                         limitarTexto(aluno.getNome(), 30), 
                         aluno.getMatricula(), 
                         limitarTexto(aluno.getEmail(), 30), 
                         aluno.getTelefone());
+                totalAlunos++;
             }
+        }
+
+        if (totalAlunos > 0) {
+            System.out.println("\nTotal de alunos cadastrados: " + totalAlunos);
         } else {
             System.out.println("Nenhum aluno cadastrado.");
         }
@@ -1082,27 +1251,33 @@ public class BibliotecaUI {
     private void relatorioLivros() throws Exception {
         System.out.println("\n===== RELATÓRIO DE LIVROS =====");
 
-        List<Livro> livros = livroService.listarTodosLivros();
+        // Os totais são calculados pelo banco; a listagem só é lida se solicitada
+        ResumoAcervo resumo = relatorioService.obterResumoAcervo();
 
-        if (!livros.isEmpty()) {
-            int totalLivros = 0;
-            int totalDisponiveis = 0;
+        if (resumo.getTitulos() == 0) {
+            System.out.println("Nenhum livro cadastrado.");
+            return;
+        }
 
-            for (Livro livro : livros) {
-                totalLivros += livro.getQuantidadeTotal();
-                totalDisponiveis += livro.getQuantidadeDisponivel();
-            }
+        System.out.println("\nTotal de títulos cadastrados: " + resumo.getTitulos());
+        System.out.println("Total de exemplares: " + resumo.getExemplares());
+        System.out.println("Total de exemplares disponíveis: " + resumo.getExemplaresDisponiveis());
+        System.out.println("Total de exemplares emprestados: " + resumo.getExemplaresEmprestados());
 
-            System.out.println("Total de títulos cadastrados: " + livros.size());
-            System.out.println("Total de exemplares: " + totalLivros);
-            System.out.println("Total de exemplares disponíveis: " + totalDisponiveis);
-            System.out.println("Total de exemplares emprestados: " + (totalLivros - totalDisponiveis));
+        if (!confirmarListagem("dos livros")) {
+            return;
+        }
 
-            System.out.println("\nListagem de livros:");
-            System.out.printf("%-5s | %-40s | %-30s | %-10s | %-10s\n", "ID", "Título", "Autor", "Total", "Disponível");
-            System.out.println("-------------------------------------------------------------------------------------------");
+        System.out.println("\nListagem de livros:");
+        System.out.printf("%-5s | %-40s | %-30s | %-10s | %-10s\n", "ID", "Título", "Autor", "Total", "Disponível");
+        System.out.println("-------------------------------------------------------------------------------------------");
 
-            for (Livro livro : livros) {
+        // Os livros são lidos sob demanda, sem carregar a tabela inteira em memória
+        try (Stream<Livro> livros = livroService.streamTodosLivros()) {
+            Iterator<Livro> it = livros.iterator();
+
+            while (it.hasNext()) {
+                Livro livro = it.next();
                 System.out.printf("%-5d | %-40s | %-30s | %-10d | %-10d\n", 
                         livro.getId(), 
                         limitarTexto(livro.getTitulo(), 40), 
@@ -1110,8 +1285,6 @@ public class BibliotecaUI {
                         livro.getQuantidadeTotal(), 
                         livro.getQuantidadeDisponivel());
             }
-        } else {
-            System.out.println("Nenhum livro cadastrado.");
         }
     }
 
@@ -1121,37 +1294,54 @@ public class BibliotecaUI {
     private void relatorioEmprestimos() throws Exception {
         System.out.println("\n===== RELATÓRIO DE EMPRÉSTIMOS =====");
 
-        List<Emprestimo> emprestimos = emprestimoService.listarTodosEmprestimos();
-        List<Emprestimo> emprestimosAtivos = emprestimoService.listarEmprestimosAtivos();
-        List<Emprestimo> emprestimosAtrasados = emprestimoService.listarEmprestimosAtrasados();
+        // As contagens vêm de uma única consulta agrupada por status; as listagens só são lidas se solicitadas
+        ResumoEmprestimos resumo = relatorioService.obterResumoEmprestimos();
 
-        if (!emprestimos.isEmpty()) {
-            System.out.println("Total de empréstimos: " + emprestimos.size());
-            System.out.println("Empréstimos ativos: " + emprestimosAtivos.size());
-            System.out.println("Empréstimos atrasados: " + emprestimosAtrasados.size());
+        if (resumo.getTotal() == 0) {
+            System.out.println("Nenhum empréstimo registrado.");
+            return;
+        }
 
+        System.out.println("\nTotal de empréstimos: " + resumo.getTotal());
+        System.out.println("Empréstimos ativos: " + resumo.getAtivos());
+        System.out.println("Empréstimos atrasados: " + resumo.getAtrasados());
+        System.out.println("Empréstimos devolvidos: " + resumo.getTotal(Emprestimo.StatusEmprestimo.DEVOLVIDO));
+
+        if (resumo.getAtivos() > 0 && confirmarListagem("dos empréstimos ativos")) {
             System.out.println("\nEmpréstimos ativos:");
             System.out.printf("%-5s | %-20s | %-40s | %-20s | %-20s\n", "ID", "Aluno", "Livro", "Data Empréstimo", "Data Devolução");
             System.out.println("-------------------------------------------------------------------------------------------------------");
 
-            for (Emprestimo emprestimo : emprestimosAtivos) {
-                String nomeAluno = (emprestimo.getAluno() != null) ? emprestimo.getAluno().getNome() : "ID: " + emprestimo.getAlunoId();
-                String tituloLivro = (emprestimo.getLivro() != null) ? emprestimo.getLivro().getTitulo() : "ID: " + emprestimo.getLivroId();
+            // Cada listagem é lida sob demanda; apenas uma linha fica em memória por vez
+            try (Stream<Emprestimo> emprestimosAtivos = emprestimoService.streamEmprestimosAtivos()) {
+                Iterator<Emprestimo> it = emprestimosAtivos.iterator();
 
-                System.out.printf("%-5d | %-20s | %-40s | %-20s | %-20s\n", 
-                        emprestimo.getId(), 
-                        limitarTexto(nomeAluno, 20), 
-                        limitarTexto(tituloLivro, 40), 
-                        dateFormat.format(emprestimo.getDataEmprestimo()), 
-                        dateFormat.format(emprestimo.getDataDevolucaoPrevista()));
+                while (it.hasNext()) {
+                    Emprestimo emprestimo = it.next();
+                    String nomeAluno = (emprestimo.getAluno() != null) ? emprestimo.getAluno().getNome() : "ID: " + emprestimo.getAlunoId();
+                    String tituloLivro = (emprestimo.getLivro() != null) ? emprestimo.getLivro().getTitulo() : "ID: " + emprestimo.getLivroId();
+
+                    System.out.printf("%-5d | %-20s | %-40s | %-20s | %-20s\n", 
+                            emprestimo.getId(), 
+                            limitarTexto(nomeAluno, 20), 
+                            limitarTexto(tituloLivro, 40), 
+                            dateFormat.format(emprestimo.getDataEmprestimo()), 
+                            dateFormat.format(emprestimo.getDataDevolucaoPrevista()));
+                }
             }
+        }
+
+        if (resumo.getAtrasados() > 0 && confirmarListagem("dos empréstimos atrasados")) {
+            System.out.println("\nEmpréstimos atrasados:");
+            System.out.printf("%-5s | %-20s | %-40s | %-20s | %-20s | %-10s\n", "ID", "Aluno", "Livro", "Data Empréstimo", "Data Devolução", "Dias Atraso");
+            System.out.println("------------------------------------------------------------------------------------------------------------------");
 
-            if (!emprestimosAtrasados.isEmpty()) {
-                System.out.println("\nEmpréstimos atrasados:");
-                System.out.printf("%-5s | %-20s | %-40s | %-20s | %-20s | %-10s\n", "ID", "Aluno", "Livro", "Data Empréstimo", "Data Devolução", "Dias Atraso");
-                System.out.println("------------------------------------------------------------------------------------------------------------------");
+            try (Stream<Emprestimo> emprestimosAtrasados = emprestimoService.streamEmprestimosAtrasados()) {
+                Iterator<Emprestimo> it = emprestimosAtrasados.iterator();
+                long agora = Emprestimo.agora();
 
-                for (Emprestimo emprestimo : emprestimosAtrasados) {
+                while (it.hasNext()) {
+                    Emprestimo emprestimo = it.next();
                     String nomeAluno = (emprestimo.getAluno() != null) ? emprestimo.getAluno().getNome() : "ID: " + emprestimo.getAlunoId();
                     String tituloLivro = (emprestimo.getLivro() != null) ? emprestimo.getLivro().getTitulo() : "ID: " + emprestimo.getLivroId();
 
@@ -1161,14 +1351,162 @@ public class BibliotecaUI {
                             limitarTexto(tituloLivro, 40), 
                             dateFormat.format(emprestimo.getDataEmprestimo()), 
                             dateFormat.format(emprestimo.getDataDevolucaoPrevista()),
-                            emprestimo.getDiasAtraso());
+                            emprestimo.getDiasAtraso(agora));
                 }
             }
-        } else {
+        }
+    }
+
+    /**
+     * Exibe a circulação diária dos últimos dias, lida da tabela consolidada.
+     */
+    private void relatorioCirculacao() throws Exception {
+        System.out.println("\n===== CIRCULAÇÃO DIÁRIA =====");
+
+        System.out.print("Número de dias [30]: ");
+        String entrada = scanner.nextLine().trim();
+        int dias;
+        try {
+            dias = entrada.isEmpty() ? 30 : Integer.parseInt(entrada);
+        } catch (NumberFormatException e) {
+            System.out.println("Número de dias inválido.");
+            return;
+        }
+
+        if (dias <= 0) {
+            System.out.println("Número de dias inválido.");
+            return;
+        }
+
+        // O dia corrente só é consolidado depois de encerrado
+        LocalDate fim = LocalDate.now().minusDays(1);
+        List<CirculacaoDiaria> linhas = relatorioService.obterCirculacaoDiaria(fim.minusDays(dias - 1), fim);
+
+        if (linhas.isEmpty()) {
+            System.out.println("Nenhum dia consolidado no período.");
+            return;
+        }
+
+        System.out.printf("%-12s | %-12s | %-12s | %-12s | %-10s | %-10s\n", "Dia", "Empréstimos", "Devoluções", "Dev. Atraso", "Ativos", "Atrasados");
+        System.out.println("----------------------------------------------------------------------------------");
+
+        for (CirculacaoDiaria linha : linhas) {
+            System.out.printf("%-12s | %-12d | %-12d | %-12d | %-10d | %-10d\n", 
+                    linha.getDia(), 
+                    linha.getEmprestimos(), 
+                    linha.getDevolucoes(), 
+                    linha.getDevolucoesAtrasadas(), 
+                    linha.getAtivos(), 
+                    linha.getAtrasados());
+        }
+    }
+
+    /**
+     * Exibe os livros mais emprestados de todo o histórico.
+     */
+    private void relatorioLivrosMaisEmprestados() throws Exception {
+        System.out.println("\n===== LIVROS MAIS EMPRESTADOS =====");
+
+        Map<Integer, Long> maisEmprestados = relatorioService.obterLivrosMaisEmprestados(10);
+
+        if (maisEmprestados.isEmpty()) {
             System.out.println("Nenhum empréstimo registrado.");
+            return;
+        }
+
+        System.out.printf("%-5s | %-40s | %-30s | %-12s\n", "ID", "Título", "Autor", "Empréstimos");
+        System.out.println("-----------------------------------------------------------------------------------------------");
+
+        for (Map.Entry<Integer, Long> entrada : maisEmprestados.entrySet()) {
+            Livro livro = livroService.buscarLivroPorId(entrada.getKey());
+            System.out.printf("%-5d | %-40s | %-30s | %-12d\n", 
+                    entrada.getKey(), 
+                    livro != null ? limitarTexto(livro.getTitulo(), 40) : "(removido)", 
+                    livro != null ? limitarTexto(livro.getAutor(), 30) : "", 
+                    entrada.getValue());
         }
     }
 
+    /**
+     * Exibe estatísticas de todo o histórico de empréstimos, calculadas em memória sobre
+     * as colunas carregadas do banco.
+     */
+    private void estatisticasEmprestimos() throws Exception {
+        System.out.println("\n===== ESTATÍSTICAS DE EMPRÉSTIMOS =====");
+
+        long inicio = System.nanoTime();
+        EmprestimosColunares emprestimos = relatorioService.carregarEmprestimosColunares();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        if (emprestimos.getTamanho() == 0) {
+            System.out.println("Nenhum empréstimo registrado.");
+            return;
+        }
+
+        long agora = Emprestimo.agora();
+        int[] porStatus = emprestimos.contarPorStatus();
+        double duracaoMediaDias = emprestimos.calcularDuracaoMediaMs() / TimeUnit.DAYS.toMillis(1);
+        EmprestimosColunares ultimos30Dias = emprestimos.filtrarPorPeriodo(agora - TimeUnit.DAYS.toMillis(30), agora);
+
+        System.out.println("Empréstimos carregados: " + emprestimos.getTamanho() + 
+                           " (" + emprestimos.getBytesOcupados() / 1024 + " KB em " + duracaoMs + " ms)");
+        for (Emprestimo.StatusEmprestimo status : Emprestimo.StatusEmprestimo.values()) {
+            System.out.println("  " + status + ": " + porStatus[status.ordinal()]);
+        }
+        System.out.println("Atrasados: " + emprestimos.contarAtrasados(agora));
+        System.out.println("Em aberto e atrasados: " + emprestimos.contarEmAbertoAtrasados(agora));
+        System.out.printf("Duração média dos empréstimos devolvidos: %.1f dia(s)\n", duracaoMediaDias);
+        System.out.println("Empréstimos nos últimos 30 dias: " + ultimos30Dias.getTamanho() + 
+                           " (" + ultimos30Dias.contarEmAbertoAtrasados(agora) + " em aberto e atrasado(s))");
+    }
+
+    /**
+     * Exporta todas as linhas de uma tabela para um arquivo CSV ou JSON Lines.
+     */
+    private void exportarDados() throws Exception {
+        System.out.println("\n===== EXPORTAÇÃO DE DADOS =====");
+        System.out.println("1. Alunos");
+        System.out.println("2. Livros");
+        System.out.println("3. Empréstimos");
+        System.out.print("Escolha os dados a exportar: ");
+
+        ExportadorRelatorios.Tabela tabela;
+        switch (lerOpcao()) {
+            case 1:
+                tabela = ExportadorRelatorios.Tabela.ALUNOS;
+                break;
+            case 2:
+                tabela = ExportadorRelatorios.Tabela.LIVROS;
+                break;
+            case 3:
+                tabela = ExportadorRelatorios.Tabela.EMPRESTIMOS;
+                break;
+            default:
+                System.out.println("Opção inválida.");
+                return;
+        }
+
+        System.out.print("Formato (1 = CSV, 2 = JSON Lines): ");
+        ExportadorRelatorios.Formato formato = lerOpcao() == 2 ? ExportadorRelatorios.Formato.JSONL
+                                                                : ExportadorRelatorios.Formato.CSV;
+
+        System.out.print("Compactar com gzip? (S/N): ");
+        boolean compactar = scanner.nextLine().equalsIgnoreCase("S");
+
+        String padrao = tabela.name().toLowerCase() + "." + formato.getExtensao() + (compactar ? ".gz" : "");
+        System.out.print("Arquivo de destino [" + padrao + "]: ");
+        String caminho = scanner.nextLine().trim();
+        Path destino = Paths.get(caminho.isEmpty() ? padrao : caminho);
+
+        ResultadoExportacao resultado = new ExportadorRelatorios().exportar(tabela, formato, destino, compactar);
+
+        System.out.println("\nLinhas exportadas: " + resultado.getLinhas());
+        System.out.println("Tamanho do arquivo: " + resultado.getBytes() + " bytes");
+        System.out.printf("Duração: %.1f s (%.0f linhas/s)%n",
+                          resultado.getDuracaoMs() / 1000.0, resultado.getLinhasPorSegundo());
+        System.out.println("Arquivo gravado em: " + resultado.getArquivo().toAbsolutePath());
+    }
+
     // ===== UTILITÁRIOS =====
 
     /**
@@ -1203,6 +1541,30 @@ public class BibliotecaUI {
         }
     }
 
+    /**
+     * Pergunta se a listagem detalhada de um relatório deve ser exibida.
+     */
+    private boolean confirmarListagem(String descricao) {
+        System.out.print("\nExibir a listagem " + descricao + "? (S/N): ");
+        try {
+            return scanner.nextLine().equalsIgnoreCase("S");
+        } catch (java.util.NoSuchElementException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Pergunta se a próxima página de uma listagem deve ser exibida.
+     */
+    private boolean confirmarProximaPagina() {
+        System.out.print("\nExibir a próxima página? (S/N): ");
+        try {
+            return scanner.nextLine().equalsIgnoreCase("S");
+        } catch (java.util.NoSuchElementException e) {
+            return false;
+        }
+    }
+
     /**
      * Limita o tamanho de um texto para exibição.
      */